@@ -0,0 +1,23 @@
+package com.mycompany.section02.javaconfig;
+
+import com.mycompany.common.MemberDTO;
+import org.springframework.context.support.GenericApplicationContext;
+
+/* AOT로 생성된 초기화 코드로 컨텍스트를 만드는 예제 (section02.javaconfig.Application과 같은 빈 사용)
+ * - ConfigurationContext__ApplicationContextInitializer는 processAot 태스크가 생성한다.
+ * - 설정 클래스 분석(@Bean 메서드 탐색)과 reflection 호출 없이
+ *   생성된 코드가 member2 빈 정의를 직접 등록한다.
+ * - 실행 : ./gradlew runAot */
+public class AotApplication {
+  public static void main(String[] args) {
+
+    GenericApplicationContext context = new GenericApplicationContext();
+    new ConfigurationContext__ApplicationContextInitializer().initialize(context);
+    context.refresh();
+
+    MemberDTO member = context.getBean("member2", MemberDTO.class);
+    System.out.println("member = " + member);
+
+    context.close();
+  }
+}
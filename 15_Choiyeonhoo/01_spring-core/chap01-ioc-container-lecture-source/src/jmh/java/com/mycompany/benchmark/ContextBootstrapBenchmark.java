@@ -0,0 +1,191 @@
+package com.mycompany.benchmark;
+
+import com.mycompany.generated.GeneratedBeans;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/* chap01의 세 가지 빈 등록 방식별 컨텍스트 생성 비용 측정
+ * - xml           : GenericXmlApplicationContext + <bean>/<constructor-arg> (section01 방식)
+ * - javaConfig    : AnnotationConfigApplicationContext + @Configuration/@Bean (section02 방식)
+ * - componentScan : AnnotationConfigApplicationContext + @Component 스캔 (section03 방식)
+ *   빌드 시 만든 컴포넌트 인덱스(META-INF/spring.components)를 쓰지 않고 classpath를 스캔하도록
+ *   -Dspring.index.ignore=true 로 fork한다. (인덱스 사용 시의 비교는 ComponentIndexBenchmark)
+ * - 빈 개수를 10개부터 50,000개까지 늘려가며
+ *   refresh   : refresh 한 번에 걸리는 시간
+ *   footprint : refresh 한 번에 할당된 바이트와 GC 후에도 남는 힙 (Footprint 카운터)
+ *   을 측정한다. 결과는 build.gradle 설정에 따라 build/results/jmh/results.json 에 기록된다. */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dspring.index.ignore=true")
+public class ContextBootstrapBenchmark {
+
+  @Param({"10", "100", "1000", "10000", "50000"})
+  private int beanCount;
+
+  @Param({"xml", "javaConfig", "componentScan"})
+  private String style;
+
+  private Supplier<ConfigurableApplicationContext> contextFactory;
+  private ConfigurableApplicationContext context;
+  private Path xmlConfig;
+
+  @Setup(Level.Trial)
+  public void prepare() throws IOException {
+    switch (style) {
+      case "xml" -> {
+        xmlConfig = writeXmlConfig(beanCount);
+        FileSystemResource resource = new FileSystemResource(xmlConfig);
+        contextFactory = () -> new GenericXmlApplicationContext(resource);
+      }
+      case "javaConfig" -> {
+        Class<?>[] configClasses = GeneratedBeans.configClasses(beanCount);
+        contextFactory = () -> new AnnotationConfigApplicationContext(configClasses);
+      }
+      case "componentScan" -> {
+        String[] basePackages = GeneratedBeans.componentPackages(beanCount);
+        contextFactory = () -> new AnnotationConfigApplicationContext(basePackages);
+      }
+      default -> throw new IllegalArgumentException("알 수 없는 설정 방식 : " + style);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public ConfigurableApplicationContext refresh() {
+    context = contextFactory.get();
+    return context;
+  }
+
+  /**
+   * refresh의 메모리 사용량 보조 카운터
+   * - EVENTS 카운터는 JMH가 측정 iteration의 값을 모두 더해 보고하므로, 값을 덮어쓰지 않고 iteration마다
+   *   0부터 누적한다. 보고된 allocatedBytes / refreshes, retainedBytes / refreshes가 refresh 한 번의 양이다.
+   *   (iteration마다 refresh 한 번의 평균도 출력한다)
+   * - GC와 잔존 힙 측정은 invocation 전후의 fixture에서 하므로 측정 시간에 들어가지 않는다.
+   *   footprint가 만든 컨텍스트는 이 객체가 들고 있다가 잔존 힙을 잰 뒤 닫는다.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long refreshes;
+    public long allocatedBytes;
+    public long retainedBytes;
+
+    private long baseline;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      refreshes = 0;
+      allocatedBytes = 0;
+      retainedBytes = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void settle() {
+      baseline = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Invocation)
+    public void measure() {
+      if (context != null) {
+        retainedBytes += usedHeapAfterGc() - baseline;
+        context.close();
+        context = null;
+      }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+      if (refreshes > 0) {
+        System.out.printf("%nrefresh 1회 평균 : 할당 %,d byte, 잔존 %,d byte (%d회)%n",
+            allocatedBytes / refreshes, retainedBytes / refreshes, refreshes);
+      }
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Warmup(iterations = 1)
+  @Measurement(iterations = 5)
+  public ConfigurableApplicationContext footprint(Footprint footprint) {
+    long allocatedBefore = allocatedBytes();
+    ConfigurableApplicationContext refreshed = contextFactory.get();
+    footprint.allocatedBytes += allocatedBytes() - allocatedBefore;
+    footprint.refreshes++;
+    footprint.context = refreshed;
+    return refreshed;
+  }
+
+  @TearDown(Level.Invocation)
+  public void close() {
+    if (context != null) {
+      context.close();
+      context = null;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteXmlConfig() throws IOException {
+    if (xmlConfig != null) {
+      Files.deleteIfExists(xmlConfig);
+    }
+  }
+
+  /* section01/xmlconfig/spring-context.xml과 같은 형태의 <bean>을 count개 가진 XML 생성 */
+  private static Path writeXmlConfig(int count) throws IOException {
+    Path file = Files.createTempFile("context-bootstrap-", ".xml");
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("""
+          <?xml version="1.0" encoding="UTF-8"?>
+          <beans xmlns="http://www.springframework.org/schema/beans"
+                 xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                 xsi:schemaLocation="http://www.springframework.org/schema/beans
+                 http://www.springframework.org/schema/beans/spring-beans.xsd">
+          """);
+      for (int i = 0; i < count; i++) {
+        writer.write("""
+                <bean id="member%1$d" class="com.mycompany.common.MemberDTO">
+                    <constructor-arg index="0" value="%1$d"/>
+                    <constructor-arg name="id" value="user%1$d"/>
+                    <constructor-arg index="2" value="pass%1$d"/>
+                    <constructor-arg name="name" value="member%1$d"/>
+                </bean>
+            """.formatted(i));
+      }
+      writer.write("</beans>\n");
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    return file;
+  }
+
+  private static long usedHeapAfterGc() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static long allocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+      return threads.getCurrentThreadAllocatedBytes();
+    }
+    throw new UnsupportedOperationException("스레드별 할당량 측정을 지원하지 않는 JVM입니다.");
+  }
+}
@@ -0,0 +1,65 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/* MappedMemberStore 재시작(warm start) 시간 측정
+ * - Trial 시작 시 members명의 회원을 파일에 기록해 두고, 매 측정마다 저장소를 다시 연다
+ * - lazyIndex : open 후 첫 조회까지 (인덱스 파일만 읽어 위치 테이블 생성)
+ * - eagerLoad : open 후 모든 회원 레코드를 읽어 IntMemberTable에 올림 (기존처럼 전체를 역직렬화하는 경우)
+ * - payloadBytes(회원 문자열 길이)를 바꿔도 lazyIndex는 거의 변하지 않고 eagerLoad만 늘어나는지 본다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MappedMemberStoreBenchmark {
+
+  @Param({"100000", "1000000"})
+  private int members;
+
+  @Param({"16", "256"})
+  private int payloadBytes;
+
+  private Path directory;
+
+  @Setup(Level.Trial)
+  public void writeStore() throws IOException {
+    directory = Files.createTempDirectory("mapped-member-store-");
+    String filler = "x".repeat(payloadBytes);
+    try (MappedMemberStore store = MappedMemberStore.open(directory)) {
+      for (int i = 1; i <= members; i++) {
+        store.put(i, new MemberDTO(i, "user" + i, filler, filler));
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteStore() throws IOException {
+    FileSystemUtils.deleteRecursively(directory);
+  }
+
+  @Benchmark
+  public MemberDTO lazyIndex() throws IOException {
+    try (MappedMemberStore store = MappedMemberStore.open(directory)) {
+      return store.get(members / 2);
+    }
+  }
+
+  @Benchmark
+  public int eagerLoad() throws IOException {
+    try (MappedMemberStore store = MappedMemberStore.open(directory)) {
+      IntMemberTable table = new IntMemberTable(members);
+      for (int i = 1; i <= members; i++) {
+        table.put(i, store.get(i));
+      }
+      return table.size();
+    }
+  }
+}
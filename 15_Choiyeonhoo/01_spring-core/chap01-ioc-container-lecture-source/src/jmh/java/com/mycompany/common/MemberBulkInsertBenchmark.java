@@ -0,0 +1,77 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* 대량 회원 추가 비교 (야간 동기화처럼 수십만 명을 한 번에 넣는 경우)
+ * - loop   : insertMember를 회원마다 호출
+ * - batch  : insertMembers(Collection) - 테이블 미리 늘리기 + segment lock / 인덱스 갱신을 묶어서 처리
+ * - stream : ingestMembers(Stream) - 65,536명씩 나누어 batch와 같은 방식으로 처리
+ * - 로그인 아이디 / 이름 인덱스가 만들어진 DAO에 추가하므로 인덱스 갱신 비용도 포함된다
+ * - 10%는 이미 있는 회원 번호로 만들어 DUPLICATE도 섞는다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MemberBulkInsertBenchmark {
+
+  @Param({"100000", "500000"})
+  private int members;
+
+  @Param({"intTable", "columnar"})
+  private String layout;
+
+  private List<MemberDTO> batch;
+  private MemberDAO dao;
+
+  @Setup(Level.Trial)
+  public void createMembers() {
+    batch = new ArrayList<>(members);
+    for (int i = 0; i < members; i++) {
+      int sequence = i % 10 == 9 ? i - 1 : i;
+      batch.add(new MemberDTO(sequence, "user" + i, "pass" + i, "회원" + i));
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void createDao() {
+    dao = new MemberDAO("columnar".equals(layout) ? new ColumnarMemberStore() : new IntMemberTable());
+    dao.selectMemberByLoginId("user0");  // 인덱스를 미리 만들어 둔다
+  }
+
+  @Benchmark
+  public int loop() {
+    int inserted = 0;
+    for (MemberDTO member : batch) {
+      if (dao.insertMember(member)) {
+        inserted++;
+      }
+    }
+    return verify(inserted);
+  }
+
+  @Benchmark
+  public int batch() {
+    BitSet inserted = dao.insertMembers(batch);
+    return verify(inserted.cardinality());
+  }
+
+  @Benchmark
+  public int stream() {
+    BitSet inserted = dao.ingestMembers(batch.stream());
+    return verify(inserted.cardinality());
+  }
+
+  private int verify(int inserted) {
+    if (inserted != dao.memberCount()) {
+      throw new IllegalStateException("INSERTED 수와 저장된 회원 수가 다릅니다 : " + inserted + " / " + dao.memberCount());
+    }
+    return inserted;
+  }
+}
@@ -0,0 +1,98 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/* 회원 10,000,000명을 저장했을 때의 힙 사용량 비교
+ * - intTable : 기존 방식 (회원마다 MemberDTO 1개 + String 3개)
+ * - columnar : ColumnarMemberStore (int[] 열 + 중복 제거된 문자열 풀)
+ * - 아이디는 모두 다르고, 비밀번호는 1,000가지, 이름은 한글 3글자 조합(8,000가지)으로 만든다
+ * - retainedBytes : 저장소를 채운 뒤 GC 후에도 남는 힙, storedMembers : 채운 회원 수
+ *   EVENTS 카운터는 측정 iteration의 값을 모두 더해 보고되므로 둘 다 누적하며,
+ *   retainedBytes / storedMembers가 회원 1명당 힙이다. (iteration마다 평균도 출력한다)
+ *   (한 번 채우는 데 1초 이상 걸리므로 iteration마다 한 번 측정된다)
+ *   결과는 build/results/jmh/results.json 에 기록된다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class MemberFootprintBenchmark {
+
+  private static final String FAMILY_NAMES = "김이박최정강조윤장임한오서신권황안송류홍";
+  private static final String GIVEN_NAMES = "민서준현우지도하윤은수영예진성재채원시연";
+
+  @Param({"10000000"})
+  private int members;
+
+  @Param({"intTable", "columnar"})
+  private String layout;
+
+  /* GC와 잔존 힙 측정은 invocation 전후의 fixture에서 하므로 채우는 시간에 들어가지 않는다 */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long retainedBytes;
+    public long storedMembers;
+
+    private long baseline;
+    private MemberStore store;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retainedBytes = 0;
+      storedMembers = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void settle() {
+      store = null;
+      baseline = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Invocation)
+    public void measure() {
+      if (store != null) {
+        retainedBytes += usedHeapAfterGc() - baseline;
+        storedMembers += store.size();
+        store = null;
+      }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+      if (storedMembers > 0) {
+        System.out.printf("%n회원 1명당 %d byte (잔존 %,d byte / %,d명)%n",
+            retainedBytes / storedMembers, retainedBytes, storedMembers);
+      }
+    }
+  }
+
+  @Benchmark
+  public MemberStore fill(Footprint footprint) {
+    MemberStore filled = "columnar".equals(layout)
+        ? new ColumnarMemberStore(members)
+        : new IntMemberTable(members);
+    for (int i = 0; i < members; i++) {
+      filled.put(i, new MemberDTO(i, "user" + i, "pass" + (i % 1000), nameOf(i)));
+    }
+    footprint.store = filled;
+    return filled;
+  }
+
+  private static String nameOf(int i) {
+    return "" + FAMILY_NAMES.charAt(i % FAMILY_NAMES.length())
+        + GIVEN_NAMES.charAt(i / FAMILY_NAMES.length() % GIVEN_NAMES.length())
+        + GIVEN_NAMES.charAt(i / (FAMILY_NAMES.length() * GIVEN_NAMES.length()) % GIVEN_NAMES.length());
+  }
+
+  private static long usedHeapAfterGc() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
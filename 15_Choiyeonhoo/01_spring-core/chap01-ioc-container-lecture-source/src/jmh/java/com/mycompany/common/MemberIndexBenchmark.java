@@ -0,0 +1,87 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/* 로그인 아이디 / 이름 접두어 조회 성능 비교 (회원 1,000,000명)
+ * - *_index  : MemberDAO.selectMemberByLoginId (hash index), selectMembersByNamePrefix (compact trie)
+ * - *_scan   : 저장된 회원 전체를 돌며 비교하는 기존 방식
+ * - 이름은 한글 3글자(성 + 이름 2글자)로 만들고, 접두어는 성 + 첫 글자 2글자로 검색한다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberIndexBenchmark {
+
+  private static final String FAMILY_NAMES = "김이박최정강조윤장임한오서신권황안송류홍";
+  private static final String GIVEN_NAMES = "민서준현우지도하윤은수영예진성재채원시연";
+  private static final int PREFIX_LIMIT = 20;
+
+  @Param({"1000000"})
+  private int members;
+
+  private MemberDAO dao;
+  private IntMemberTable table;
+  private String[] names;
+
+  @Setup
+  public void setUp() {
+    table = new IntMemberTable(members);
+    dao = new MemberDAO(table);
+    names = new String[members];
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < members; i++) {
+      names[i] = "" + FAMILY_NAMES.charAt(random.nextInt(FAMILY_NAMES.length()))
+          + GIVEN_NAMES.charAt(random.nextInt(GIVEN_NAMES.length()))
+          + GIVEN_NAMES.charAt(random.nextInt(GIVEN_NAMES.length()));
+      dao.insertMember(new MemberDTO(i, "user" + i, "pass" + i, names[i]));
+    }
+    dao.selectMemberByLoginId("user0");  // 측정 전에 인덱스를 만들어 둔다
+  }
+
+  @Benchmark
+  public MemberDTO loginId_index() {
+    return dao.selectMemberByLoginId("user" + ThreadLocalRandom.current().nextInt(members));
+  }
+
+  @Benchmark
+  public MemberDTO loginId_scan() {
+    String loginId = "user" + ThreadLocalRandom.current().nextInt(members);
+    MemberDTO[] found = new MemberDTO[1];
+    table.forEach(member -> {
+      if (loginId.equals(member.getId())) {
+        found[0] = member;
+      }
+    });
+    return found[0];
+  }
+
+  @Benchmark
+  public List<MemberDTO> namePrefix_index() {
+    return dao.selectMembersByNamePrefix(randomPrefix(), PREFIX_LIMIT);
+  }
+
+  @Benchmark
+  public List<MemberDTO> namePrefix_scan() {
+    String prefix = randomPrefix();
+    List<MemberDTO> found = new ArrayList<>();
+    table.forEach(member -> {
+      if (member.getName().startsWith(prefix)) {
+        found.add(member);
+      }
+    });
+    found.sort((a, b) -> a.getName().compareTo(b.getName()));
+    return found.size() > PREFIX_LIMIT ? found.subList(0, PREFIX_LIMIT) : found;
+  }
+
+  private String randomPrefix() {
+    return names[ThreadLocalRandom.current().nextInt(members)].substring(0, 2);
+  }
+}
@@ -0,0 +1,74 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* 동시 insertMember 경합 스트레스 측정
+ * - 여러 writer 스레드가 같은 번호 범위에 insertMemberIfAbsent를 호출하여 일부러 충돌을 만든다
+ * - writer 수(1, 8, 32)를 늘렸을 때의 처리량을 측정한다
+ * - 매 iteration이 끝나면 INSERTED로 보고된 횟수와 실제 저장된 회원 수가 같은지 검사한다
+ *   (size 비교 방식이었다면 이 검사가 깨진다) */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberInsertBenchmark {
+
+  /* 충돌 정도를 조절하는 회원 번호 범위 (작을수록 DUPLICATE가 많아진다) */
+  @Param({"100000", "10000000"})
+  private int keySpace;
+
+  private MemberDAO dao;
+  private final LongAdder inserted = new LongAdder();
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    dao = new MemberDAO();
+    inserted.reset();
+    inserted.add(2);    // 생성자에서 넣는 기본 회원 2명
+  }
+
+  @TearDown(Level.Iteration)
+  public void verify(BenchmarkParams params) {
+    long expected = inserted.sum();
+    int actual = dao.memberCount();
+    if (expected != actual) {
+      throw new IllegalStateException(params.getBenchmark() + " : INSERTED " + expected
+          + "건, 실제 저장 " + actual + "건");
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public InsertResult insert_1writer() {
+    return insert();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public InsertResult insert_8writers() {
+    return insert();
+  }
+
+  @Benchmark
+  @Threads(32)
+  public InsertResult insert_32writers() {
+    return insert();
+  }
+
+  private InsertResult insert() {
+    int sequence = ThreadLocalRandom.current().nextInt(keySpace) + 1;
+    InsertResult result = dao.insertMemberIfAbsent(
+        new MemberDTO(sequence, "user", "pass", "회원"));
+    if (result == InsertResult.INSERTED) {
+      inserted.increment();
+    }
+    return result;
+  }
+}
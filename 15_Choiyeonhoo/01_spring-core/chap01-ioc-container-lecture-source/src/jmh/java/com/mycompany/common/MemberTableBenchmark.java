@@ -0,0 +1,92 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* 회원 번호 조회 성능 비교
+ * - hashMap  : 기존 MemberDAO 방식의 HashMap<Integer, MemberDTO> (조회 시 박싱)
+ * - intTable : IntMemberTable (int 키 open addressing + lock striping)
+ * - 1, 8, 32 스레드에서 동시에 selectMember를 호출했을 때의 처리량 측정 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberTableBenchmark {
+
+  @Param({"1000000"})
+  private int members;
+
+  @Param({"hashMap", "intTable"})
+  private String store;
+
+  private Map<Integer, MemberDTO> hashMap;
+  private IntMemberTable intTable;
+
+  @Setup
+  public void setUp() {
+    if ("hashMap".equals(store)) {
+      hashMap = new HashMap<>();
+      for (int i = 1; i <= members; i++) {
+        hashMap.put(i, newMember(i));
+      }
+    } else {
+      intTable = new IntMemberTable();
+      for (int i = 1; i <= members; i++) {
+        intTable.put(i, newMember(i));
+      }
+    }
+  }
+
+  /* 스레드마다 미리 만들어둔 무작위 회원 번호를 차례대로 조회 */
+  @State(Scope.Thread)
+  public static class Keys {
+    private static final int SIZE = 1 << 16;
+
+    final int[] sequences = new int[SIZE];
+    int cursor;
+
+    @Setup
+    public void setUp(MemberTableBenchmark benchmark) {
+      SplittableRandom random = new SplittableRandom();
+      for (int i = 0; i < SIZE; i++) {
+        sequences[i] = random.nextInt(benchmark.members) + 1;
+      }
+    }
+
+    int next() {
+      return sequences[cursor++ & (SIZE - 1)];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public MemberDTO select_1thread(Keys keys) {
+    return select(keys.next());
+  }
+
+  @Benchmark
+  @Threads(8)
+  public MemberDTO select_8threads(Keys keys) {
+    return select(keys.next());
+  }
+
+  @Benchmark
+  @Threads(32)
+  public MemberDTO select_32threads(Keys keys) {
+    return select(keys.next());
+  }
+
+  private MemberDTO select(int sequence) {
+    return intTable != null ? intTable.get(sequence) : hashMap.get(sequence);
+  }
+
+  static MemberDTO newMember(int sequence) {
+    return new MemberDTO(sequence, "user" + sequence, "pass" + sequence, "회원" + sequence);
+  }
+}
@@ -0,0 +1,49 @@
+package com.mycompany.generated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* 빌드 시 생성되는 벤치마크용 빈 클래스(generateBenchmarkBeans)를 찾아주는 도우미
+ * - build.gradle의 benchmarkScales, benchmarkBeansPerConfig 값과 맞춰야 한다 */
+public final class GeneratedBeans {
+
+  public static final int[] SCALES = {10, 100, 1000, 10000, 50000};
+  public static final int BEANS_PER_CONFIG = 10;
+
+  private static final String COMPONENT_PACKAGE = "com.mycompany.generated.components.n";
+  private static final String CONFIG_CLASS = "com.mycompany.generated.config.GeneratedConfig";
+
+  private GeneratedBeans() {
+  }
+
+  /* @Component 클래스가 정확히 count개 들어있는 패키지 목록 (count는 SCALES 중 하나) */
+  public static String[] componentPackages(int count) {
+    List<String> packages = new ArrayList<>();
+    for (int scale : SCALES) {
+      if (scale > count) {
+        break;
+      }
+      packages.add(COMPONENT_PACKAGE + scale);
+      if (scale == count) {
+        return packages.toArray(new String[0]);
+      }
+    }
+    throw new IllegalArgumentException("생성된 컴포넌트 규모가 아닙니다 : " + count);
+  }
+
+  /* @Bean 메서드 합계가 count개가 되는 @Configuration 클래스 목록 */
+  public static Class<?>[] configClasses(int count) {
+    if (count % BEANS_PER_CONFIG != 0) {
+      throw new IllegalArgumentException(BEANS_PER_CONFIG + "의 배수여야 합니다 : " + count);
+    }
+    Class<?>[] classes = new Class<?>[count / BEANS_PER_CONFIG];
+    try {
+      for (int i = 0; i < classes.length; i++) {
+        classes[i] = Class.forName(CONFIG_CLASS + i);
+      }
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("생성된 설정 클래스가 없습니다. generateBenchmarkBeans를 확인하세요.", e);
+    }
+    return classes;
+  }
+}
@@ -0,0 +1,109 @@
+package com.mycompany.section01.xmlconfig;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/* 빈 정의 캐시 사용 여부에 따른 XML 컨텍스트 시작 시간 비교
+ * - parse  : GenericXmlApplicationContext (매번 DOM 파싱 + XSD 검증)
+ * - cached : CachedXmlApplicationContext (Trial 시작 시 캐시를 만들어 두고 매번 캐시에서 읽음)
+ * - <constructor-arg> 4개와 <property> 1개를 가진 <bean>을 beanCount개 생성하여 사용한다.
+ *   빈 생성 비용이 아닌 정의 로딩 비용을 보기 위해 default-lazy-init="true"로 둔다. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class XmlDefinitionCacheBenchmark {
+
+  @Param({"1000", "5000", "20000"})
+  private int beanCount;
+
+  private Path workDir;
+  private Path cacheDir;
+  private FileSystemResource xml;
+  private ConfigurableApplicationContext context;
+
+  @Setup(Level.Trial)
+  public void prepare() throws IOException {
+    workDir = Files.createTempDirectory("xml-definition-cache-");
+    cacheDir = workDir.resolve("cache");
+    xml = new FileSystemResource(writeXmlConfig(workDir.resolve("large-context.xml"), beanCount));
+
+    // 캐시를 미리 만들어 cached 측정이 항상 캐시 hit가 되도록 한다
+    new CachedXmlApplicationContext(cacheDir, xml).close();
+    try (var files = Files.list(cacheDir)) {
+      if (files.noneMatch(file -> file.toString().endsWith(".beans"))) {
+        throw new IllegalStateException("빈 정의 캐시가 만들어지지 않았습니다 : " + cacheDir);
+      }
+    }
+  }
+
+  @Benchmark
+  public int parse() {
+    return verify(new GenericXmlApplicationContext(xml));
+  }
+
+  @Benchmark
+  public int cached() {
+    return verify(new CachedXmlApplicationContext(cacheDir, xml));
+  }
+
+  private int verify(ConfigurableApplicationContext refreshed) {
+    context = refreshed;
+    int count = refreshed.getBeanDefinitionCount();
+    if (count != beanCount) {
+      throw new IllegalStateException("등록된 빈 정의 수가 다릅니다 : " + count);
+    }
+    return count;
+  }
+
+  @TearDown(Level.Iteration)
+  public void close() {
+    if (context != null) {
+      context.close();
+      context = null;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void cleanUp() throws IOException {
+    FileSystemUtils.deleteRecursively(workDir);
+  }
+
+  private static Path writeXmlConfig(Path file, int count) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("""
+          <?xml version="1.0" encoding="UTF-8"?>
+          <beans xmlns="http://www.springframework.org/schema/beans"
+                 xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                 xsi:schemaLocation="http://www.springframework.org/schema/beans
+                 http://www.springframework.org/schema/beans/spring-beans.xsd"
+                 default-lazy-init="true">
+          """);
+      for (int i = 0; i < count; i++) {
+        writer.write("""
+                <bean id="member%1$d" class="com.mycompany.common.MemberDTO">
+                    <constructor-arg index="0" value="%1$d"/>
+                    <constructor-arg name="id" value="user%1$d"/>
+                    <constructor-arg index="2"><value>pass%1$d</value></constructor-arg>
+                    <constructor-arg name="name"><value>member%1$d</value></constructor-arg>
+                    <property name="name" value="회원%1$d"/>
+                </bean>
+            """.formatted(i));
+      }
+      writer.write("</beans>\n");
+    }
+    return file;
+  }
+}
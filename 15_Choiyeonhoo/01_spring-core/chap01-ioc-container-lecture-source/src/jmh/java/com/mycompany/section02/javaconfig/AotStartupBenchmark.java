@@ -0,0 +1,106 @@
+package com.mycompany.section02.javaconfig;
+
+import com.mycompany.common.MemberDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/* ConfigurationContext를 런타임에 처리할 때와 AOT로 생성된 초기화 코드를 쓸 때의 비교
+ * - runtime : AnnotationConfigApplicationContext(ConfigurationContext.class)
+ *             ConfigurationClassPostProcessor가 설정 클래스를 분석하고 @Bean 메서드를 reflection으로 호출
+ * - aot     : GenericApplicationContext + ConfigurationContext__ApplicationContextInitializer
+ *             생성된 코드가 빈 정의를 등록하고 getMember()를 직접 호출
+ * - *_coldStart    : JVM마다 한 번만 측정 (fork 20회) - 클래스 로딩을 포함한 실제 시작 시간
+ * - *_refresh      : 워밍업 후 refresh 한 번의 시간
+ * - *_firstGetBean : refresh 직후 첫 getBean("member2") 한 번의 시간 */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AotStartupBenchmark {
+
+  private GenericApplicationContext context;
+
+  @Benchmark
+  @Fork(20)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public MemberDTO runtime_coldStart() {
+    context = runtimeContext();
+    return context.getBean("member2", MemberDTO.class);
+  }
+
+  @Benchmark
+  @Fork(20)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public MemberDTO aot_coldStart() {
+    context = aotContext();
+    return context.getBean("member2", MemberDTO.class);
+  }
+
+  @Benchmark
+  @Fork(3)
+  @Warmup(iterations = 200)
+  @Measurement(iterations = 200)
+  public GenericApplicationContext runtime_refresh() {
+    context = runtimeContext();
+    return context;
+  }
+
+  @Benchmark
+  @Fork(3)
+  @Warmup(iterations = 200)
+  @Measurement(iterations = 200)
+  public GenericApplicationContext aot_refresh() {
+    context = aotContext();
+    return context;
+  }
+
+  /* firstGetBean 측정용 : 매 호출 전에 새 컨텍스트를 만들어 둔다 */
+  @State(Scope.Thread)
+  public static class Refreshed {
+    @Param({"runtime", "aot"})
+    private String mode;
+
+    private GenericApplicationContext context;
+
+    @Setup(Level.Invocation)
+    public void refresh() {
+      context = "aot".equals(mode) ? aotContext() : runtimeContext();
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+      context.close();
+    }
+  }
+
+  @Benchmark
+  @Fork(3)
+  @Warmup(iterations = 200)
+  @Measurement(iterations = 200)
+  public MemberDTO firstGetBean(Refreshed refreshed) {
+    return refreshed.context.getBean("member2", MemberDTO.class);
+  }
+
+  @TearDown(Level.Iteration)
+  public void close() {
+    if (context != null) {
+      context.close();
+      context = null;
+    }
+  }
+
+  private static GenericApplicationContext runtimeContext() {
+    return new AnnotationConfigApplicationContext(ConfigurationContext.class);
+  }
+
+  private static GenericApplicationContext aotContext() {
+    GenericApplicationContext aotContext = new GenericApplicationContext();
+    new ConfigurationContext__ApplicationContextInitializer().initialize(aotContext);
+    aotContext.refresh();
+    return aotContext;
+  }
+}
@@ -0,0 +1,71 @@
+package com.mycompany.section03.componentscan;
+
+import com.mycompany.generated.GeneratedBeans;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/* 컴포넌트 인덱스(META-INF/spring.components) 사용 여부에 따른 컨텍스트 시작 시간 비교
+ * - 빌드 시 생성된 @Component 클래스 10,000개(com.mycompany.generated.components.n10 ~ n10000)를 대상으로 한다
+ * - *_index : spring-context-indexer가 만든 인덱스로 후보를 찾는다 (기본 동작)
+ * - *_scan  : -Dspring.index.ignore=true 로 인덱스를 무시하고 classpath를 스캔한다
+ *   (인덱스 사용 여부는 JVM 단위로 한 번 결정되므로 별도 fork에서 실행) */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class ComponentIndexBenchmark {
+
+  private static final int EXPECTED_COMPONENTS = 10000;
+  private static final String[] BASE_PACKAGES = GeneratedBeans.componentPackages(EXPECTED_COMPONENTS);
+  private static final String XML_CONFIG = "benchmark/component-scan-context.xml";
+
+  private ConfigurableApplicationContext context;
+
+  @Benchmark
+  @Fork(3)
+  public int annotationConfig_index() {
+    return verify(new AnnotationConfigApplicationContext(BASE_PACKAGES));
+  }
+
+  @Benchmark
+  @Fork(value = 3, jvmArgsAppend = "-Dspring.index.ignore=true")
+  public int annotationConfig_scan() {
+    return verify(new AnnotationConfigApplicationContext(BASE_PACKAGES));
+  }
+
+  @Benchmark
+  @Fork(3)
+  public int xmlConfig_index() {
+    return verify(new GenericXmlApplicationContext(XML_CONFIG));
+  }
+
+  @Benchmark
+  @Fork(value = 3, jvmArgsAppend = "-Dspring.index.ignore=true")
+  public int xmlConfig_scan() {
+    return verify(new GenericXmlApplicationContext(XML_CONFIG));
+  }
+
+  /* 인덱스가 누락되면 후보가 0개가 되어도 refresh는 성공하므로 등록된 빈 수를 확인한다 */
+  private int verify(ConfigurableApplicationContext refreshed) {
+    context = refreshed;
+    int components = refreshed.getBeanNamesForAnnotation(
+        org.springframework.stereotype.Component.class).length;
+    if (components < EXPECTED_COMPONENTS) {
+      throw new IllegalStateException("등록된 컴포넌트 수가 부족합니다 : " + components);
+    }
+    return components;
+  }
+
+  @TearDown(Level.Iteration)
+  public void close() {
+    if (context != null) {
+      context.close();
+      context = null;
+    }
+  }
+}
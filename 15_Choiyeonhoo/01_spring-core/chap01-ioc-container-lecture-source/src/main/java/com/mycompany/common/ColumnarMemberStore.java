@@ -0,0 +1,435 @@
+package com.mycompany.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * 회원 정보를 열(column) 단위 배열에 나누어 담는 메모리 절약형 저장소 (struct-of-arrays)
+ * - 회원 번호는 int[], 아이디/비밀번호/이름은 문자열 풀의 번호(int[])로 저장한다.
+ * - 문자열 풀은 UTF-8 바이트를 하나의 byte[]에 이어 붙이고, 같은 내용의 문자열은 한 번만 저장한다(중복 제거).
+ * - 회원마다 MemberDTO와 String 객체 3개를 두는 IntMemberTable보다 회원당 힙 사용량이 훨씬 적다.
+ * - get, put, putIfAbsent는 풀에서 문자열을 디코딩한 일반 MemberDTO를 돌려준다. (고쳐도 저장소에는 반영되지 않는다)
+ * - forEach는 문자열 풀 번호만 가진 읽기 전용 MemberDTO(flyweight view)를 전달하고, 문자열은 getter를 호출할 때
+ *   풀에서 디코딩한다. view의 setter는 UnsupportedOperationException을 던진다.
+ * - 조회는 StampedLock의 optimistic read로 lock 없이, 저장은 write lock으로 처리한다.
+ * - 교체된 회원의 이전 문자열은 풀에 남는다 (회원 정보 교체가 드문 경우를 가정).
+ */
+public class ColumnarMemberStore implements MemberStore {
+
+  private static final float LOAD_FACTOR = 0.6f;
+  private static final int NULL_STRING = -1;
+
+  private final StampedLock lock = new StampedLock();
+  private final StringPool strings = new StringPool();
+
+  private volatile SlotIndex index;     // 회원 번호 → 열 위치
+  private volatile Columns columns;
+  private volatile int count;           // write lock 안에서만 변경
+
+  public ColumnarMemberStore() {
+    this(0);
+  }
+
+  /**
+   * 예상 회원 수를 전달 받아 배열을 미리 잡아두는 생성자
+   */
+  public ColumnarMemberStore(int expectedSize) {
+    index = new SlotIndex(capacityFor(expectedSize));
+    columns = new Columns(Math.max(16, expectedSize));
+  }
+
+  @Override
+  public MemberDTO get(int key) {
+    long stamp = lock.tryOptimisticRead();
+    MemberDTO view = find(key);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        view = find(key);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return view == null ? null : copy(view);
+  }
+
+  @Override
+  public MemberDTO put(int key, MemberDTO value) {
+    return write(key, value, false);
+  }
+
+  @Override
+  public MemberDTO putIfAbsent(int key, MemberDTO value) {
+    return write(key, value, true);
+  }
+
+  @Override
+  public int size() {
+    return count;
+  }
+
+  @Override
+  public void forEach(Consumer<MemberDTO> action) {
+    Columns c;
+    int n;
+    long stamp = lock.readLock();
+    try {
+      c = columns;
+      n = count;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    // 이미 기록된 열 값은 문자열 풀 번호이므로 lock 밖에서 view를 만들어도 된다
+    for (int slot = 0; slot < n; slot++) {
+      action.accept(view(c, slot));
+    }
+  }
+
+  /* optimistic read 중에는 쓰기와 겹쳐 어긋난 위치가 보일 수 있으므로 열 범위를 확인한다 */
+  private MemberDTO find(int key) {
+    SlotIndex i = index;
+    int slot = i.get(key);
+    Columns c = columns;
+    if (slot < 0 || slot >= c.sequences.length) {
+      return null;  // 쓰기와 겹친 경우는 get의 validate에서 다시 읽는다
+    }
+    return view(c, slot);
+  }
+
+  private MemberDTO view(Columns c, int slot) {
+    return new MemberView(c.sequences[slot], strings, c.ids[slot], c.pwds[slot], c.names[slot]);
+  }
+
+  /* view의 문자열을 모두 디코딩해 고칠 수 있는 MemberDTO로 만든다 */
+  private static MemberDTO copy(MemberDTO view) {
+    return new MemberDTO(view.getSequence(), view.getId(), view.getPwd(), view.getName());
+  }
+
+  /**
+   * 열 배열과 인덱스를 expectedSize명 분량으로 미리 늘린다.
+   */
+  @Override
+  public void ensureCapacity(int expectedSize) {
+    long stamp = lock.writeLock();
+    try {
+      Columns c = columns;
+      if (c.sequences.length < expectedSize) {
+        columns = c.grow(expectedSize);
+      }
+      SlotIndex i = index;
+      int capacity = capacityFor(expectedSize);
+      if (i.keys.length < capacity) {
+        index = i.grow(capacity);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * 여러 회원을 write lock 한 번으로 putIfAbsent 한다.
+   */
+  @Override
+  public void putAllIfAbsent(List<MemberDTO> members, BitSet inserted) {
+    long stamp = lock.writeLock();
+    try {
+      for (int i = 0; i < members.size(); i++) {
+        MemberDTO member = members.get(i);
+        if (writeLocked(member.getSequence(), member, true) == null) {
+          inserted.set(i);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private MemberDTO write(int key, MemberDTO value, boolean onlyIfAbsent) {
+    long stamp = lock.writeLock();
+    try {
+      MemberDTO previous = writeLocked(key, value, onlyIfAbsent);
+      return previous == null ? null : copy(previous);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private MemberDTO writeLocked(int key, MemberDTO value, boolean onlyIfAbsent) {
+    if (value == null) {
+      throw new NullPointerException("value");
+    }
+    SlotIndex i = index;
+    int slot = i.get(key);
+    MemberDTO previous = slot < 0 ? null : view(columns, slot);
+    if (previous != null && onlyIfAbsent) {
+      return previous;
+    }
+
+    int id = strings.add(value.getId());
+    int pwd = strings.add(value.getPwd());
+    int name = strings.add(value.getName());
+
+    if (slot < 0) {
+      slot = count;
+      Columns c = columns;
+      if (slot == c.sequences.length) {
+        c = c.grow(slot + (slot >> 1));
+        columns = c;
+      }
+      c.set(slot, key, id, pwd, name);
+      if (i.put(key, slot)) {
+        index = i.grow(i.keys.length << 1);
+      }
+      count = slot + 1;
+    } else {
+      columns.set(slot, key, id, pwd, name);
+    }
+    return previous;
+  }
+
+  private static int capacityFor(int size) {
+    int needed = (int) Math.ceil(Math.max(size, 1) / LOAD_FACTOR);
+    int capacity = 16;
+    while (capacity < needed) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  /**
+   * 열 배열 묶음 (같은 위치가 한 회원)
+   */
+  private static final class Columns {
+    final int[] sequences;
+    final int[] ids;
+    final int[] pwds;
+    final int[] names;
+
+    Columns(int capacity) {
+      sequences = new int[capacity];
+      ids = new int[capacity];
+      pwds = new int[capacity];
+      names = new int[capacity];
+    }
+
+    private Columns(Columns old, int capacity) {
+      sequences = Arrays.copyOf(old.sequences, capacity);
+      ids = Arrays.copyOf(old.ids, capacity);
+      pwds = Arrays.copyOf(old.pwds, capacity);
+      names = Arrays.copyOf(old.names, capacity);
+    }
+
+    Columns grow(int capacity) {
+      return new Columns(this, capacity);
+    }
+
+    void set(int slot, int sequence, int id, int pwd, int name) {
+      sequences[slot] = sequence;
+      ids[slot] = id;
+      pwds[slot] = pwd;
+      names[slot] = name;
+    }
+  }
+
+  /**
+   * 회원 번호 → 열 위치 open addressing 테이블 (위치 + 1을 저장하고 0은 빈 슬롯)
+   */
+  private static final class SlotIndex {
+    final int[] keys;
+    final int[] slots;
+    final int mask;
+    int size;
+
+    SlotIndex(int capacity) {
+      keys = new int[capacity];
+      slots = new int[capacity];
+      mask = capacity - 1;
+    }
+
+    int get(int key) {
+      for (int i = IntMemberTable.mix(key) & mask; ; i = (i + 1) & mask) {
+        int slot = slots[i];
+        if (slot == 0) {
+          return -1;
+        }
+        if (keys[i] == key) {
+          return slot - 1;
+        }
+      }
+    }
+
+    /* 새 키를 저장하고, 테이블을 늘려야 하면 true */
+    boolean put(int key, int slot) {
+      int i = IntMemberTable.mix(key) & mask;
+      while (slots[i] != 0) {
+        i = (i + 1) & mask;
+      }
+      keys[i] = key;
+      slots[i] = slot + 1;
+      size++;
+      return size > keys.length * LOAD_FACTOR;
+    }
+
+    SlotIndex grow(int capacity) {
+      SlotIndex grown = new SlotIndex(capacity);
+      for (int i = 0; i < keys.length; i++) {
+        if (slots[i] != 0) {
+          grown.put(keys[i], slots[i] - 1);
+        }
+      }
+      return grown;
+    }
+  }
+
+  /**
+   * 중복을 제거하여 UTF-8 바이트로 이어 붙여 저장하는 문자열 풀
+   * - 한 번 추가된 문자열은 바뀌지 않으므로, 번호만 알면 lock 없이 읽을 수 있다.
+   * - 배열을 늘릴 때는 복사를 마친 뒤 volatile로 공개한다.
+   * - 추가는 ColumnarMemberStore의 write lock 안에서만 한다.
+   */
+  private static final class StringPool {
+    private static final int MAX_BYTES = Integer.MAX_VALUE - 8;
+
+    private volatile byte[] bytes = new byte[1 << 12];
+    private volatile int[] offsets = new int[1 << 8];   // 문자열 i는 offsets[i] ~ offsets[i + 1]
+    private int count;
+    private int[] dedup = new int[1 << 8];              // 문자열 번호 + 1, 0은 빈 슬롯
+
+    int add(String value) {
+      if (value == null) {
+        return NULL_STRING;
+      }
+      byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+      int hash = IntMemberTable.mix(Arrays.hashCode(encoded));
+      int mask = dedup.length - 1;
+      int i = hash & mask;
+      for (int id; (id = dedup[i] - 1) >= 0; i = (i + 1) & mask) {
+        if (equalsAt(id, encoded)) {
+          return id;
+        }
+      }
+
+      int id = count;
+      int start = offsets[id];
+      ensureCapacity(id + 2, start + encoded.length);
+      System.arraycopy(encoded, 0, bytes, start, encoded.length);
+      offsets[id + 1] = start + encoded.length;
+      count = id + 1;
+
+      dedup[i] = id + 1;
+      if (count > dedup.length * LOAD_FACTOR) {
+        rehash();
+      }
+      return id;
+    }
+
+    String get(int id) {
+      if (id == NULL_STRING) {
+        return null;
+      }
+      int[] o = offsets;
+      int start = o[id];
+      return new String(bytes, start, o[id + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    private boolean equalsAt(int id, byte[] encoded) {
+      int start = offsets[id];
+      return Arrays.equals(bytes, start, offsets[id + 1], encoded, 0, encoded.length);
+    }
+
+    private void ensureCapacity(int offsetCount, int byteCount) {
+      if (byteCount < 0 || byteCount > MAX_BYTES) {
+        throw new IllegalStateException("문자열 풀이 2GB를 넘었습니다.");
+      }
+      if (byteCount > bytes.length) {
+        long grown = Math.max(byteCount, (long) bytes.length << 1);
+        bytes = Arrays.copyOf(bytes, (int) Math.min(grown, MAX_BYTES));
+      }
+      if (offsetCount > offsets.length) {
+        offsets = Arrays.copyOf(offsets, Math.max(offsetCount, offsets.length << 1));
+      }
+    }
+
+    private void rehash() {
+      int[] grown = new int[dedup.length << 1];
+      int mask = grown.length - 1;
+      for (int id = 0; id < count; id++) {
+        int start = offsets[id];
+        int hash = IntMemberTable.mix(hashOf(bytes, start, offsets[id + 1]));
+        int i = hash & mask;
+        while (grown[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        grown[i] = id + 1;
+      }
+      dedup = grown;
+    }
+
+    /* Arrays.hashCode(byte[])와 같은 값을 배열 일부에 대해 계산 */
+    private static int hashOf(byte[] data, int from, int to) {
+      int hash = 1;
+      for (int i = from; i < to; i++) {
+        hash = 31 * hash + data[i];
+      }
+      return hash;
+    }
+  }
+
+  /**
+   * 문자열 풀 번호만 가진 읽기 전용 MemberDTO
+   * - 필드 대신 getter를 재정의하여 호출할 때 풀에서 문자열을 읽는다 (Lombok @ToString도 getter를 사용).
+   */
+  private static final class MemberView extends MemberDTO {
+    private final StringPool strings;
+    private final int idRef;
+    private final int pwdRef;
+    private final int nameRef;
+
+    MemberView(int sequence, StringPool strings, int idRef, int pwdRef, int nameRef) {
+      super(sequence, null, null, null);
+      this.strings = strings;
+      this.idRef = idRef;
+      this.pwdRef = pwdRef;
+      this.nameRef = nameRef;
+    }
+
+    @Override
+    public String getId() {
+      return strings.get(idRef);
+    }
+
+    @Override
+    public String getPwd() {
+      return strings.get(pwdRef);
+    }
+
+    @Override
+    public String getName() {
+      return strings.get(nameRef);
+    }
+
+    @Override
+    public void setSequence(int sequence) {
+      throw new UnsupportedOperationException("ColumnarMemberStore의 회원 정보는 읽기 전용입니다.");
+    }
+
+    @Override
+    public void setId(String id) {
+      throw new UnsupportedOperationException("ColumnarMemberStore의 회원 정보는 읽기 전용입니다.");
+    }
+
+    @Override
+    public void setPwd(String pwd) {
+      throw new UnsupportedOperationException("ColumnarMemberStore의 회원 정보는 읽기 전용입니다.");
+    }
+
+    @Override
+    public void setName(String name) {
+      throw new UnsupportedOperationException("ColumnarMemberStore의 회원 정보는 읽기 전용입니다.");
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.mycompany.common;
+
+/**
+ * 회원 추가 결과
+ */
+public enum InsertResult {
+
+  INSERTED,   // 같은 번호의 회원이 없어 새로 추가됨
+  DUPLICATE,  // 같은 번호의 회원이 이미 있어 추가하지 않음 (기존 회원 유지)
+  REPLACED    // 같은 번호의 기존 회원을 새 회원 정보로 교체함
+
+}
@@ -0,0 +1,262 @@
+package com.mycompany.common;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * int 회원 번호를 키로 사용하는 open addressing(linear probing) 방식의 회원 테이블
+ * - HashMap<Integer, MemberDTO>와 달리 키를 int 배열에 그대로 저장하므로 조회 시 박싱이 없다.
+ * - 키 해시의 상위 비트로 segment를 고르고, 쓰기는 segment 단위 lock(lock striping)으로 보호한다.
+ * - 조회는 lock 없이 volatile로 공개된 테이블을 읽으므로 여러 요청 스레드가 동시에 사용해도 안전하다.
+ * - 회원 삭제 기능이 없으므로 tombstone은 두지 않는다.
+ */
+public class IntMemberTable implements MemberStore {
+
+  private static final int SEGMENT_COUNT = 16;                // 2의 거듭제곱
+  private static final int SEGMENT_SHIFT = 32 - Integer.numberOfTrailingZeros(SEGMENT_COUNT);
+  private static final int MIN_CAPACITY = 16;
+  private static final float LOAD_FACTOR = 0.6f;
+
+  private final Segment[] segments;
+
+  public IntMemberTable() {
+    this(0);
+  }
+
+  /**
+   * 예상 회원 수를 전달 받아 resize가 일어나지 않도록 미리 공간을 잡아두는 생성자
+   */
+  public IntMemberTable(int expectedSize) {
+    segments = new Segment[SEGMENT_COUNT];
+    int perSegment = expectedSize / SEGMENT_COUNT + 1;
+    for (int i = 0; i < SEGMENT_COUNT; i++) {
+      segments[i] = new Segment(capacityFor(perSegment));
+    }
+  }
+
+  /**
+   * 회원 번호로 회원을 조회한다. 없으면 null
+   */
+  @Override
+  public MemberDTO get(int key) {
+    int hash = mix(key);
+    return segmentFor(hash).get(key, hash);
+  }
+
+  /**
+   * 회원을 저장하고 같은 번호로 저장되어 있던 이전 회원을 리턴한다. 이전 회원이 없으면 null
+   */
+  @Override
+  public MemberDTO put(int key, MemberDTO value) {
+    if (value == null) {
+      throw new NullPointerException("value");
+    }
+    int hash = mix(key);
+    return segmentFor(hash).put(key, hash, value, false);
+  }
+
+  /**
+   * 같은 번호의 회원이 없을 때만 저장한다.
+   * - 확인과 저장이 segment lock 안에서 한 번에 일어나므로 동시에 추가해도 하나만 성공한다.
+   * - 이미 저장되어 있던 회원을 리턴하고, 새로 저장했으면 null을 리턴한다.
+   */
+  @Override
+  public MemberDTO putIfAbsent(int key, MemberDTO value) {
+    if (value == null) {
+      throw new NullPointerException("value");
+    }
+    int hash = mix(key);
+    return segmentFor(hash).put(key, hash, value, true);
+  }
+
+  /**
+   * 회원이 expectedSize명이 될 때까지 resize가 일어나지 않도록 각 segment를 미리 늘린다.
+   */
+  @Override
+  public void ensureCapacity(int expectedSize) {
+    int capacity = capacityFor(expectedSize / SEGMENT_COUNT + 1);
+    for (Segment segment : segments) {
+      segment.ensureCapacity(capacity);
+    }
+  }
+
+  /**
+   * 여러 회원을 한 번에 putIfAbsent 한다.
+   * - 회원을 segment별로 나눈 뒤 segment마다 lock을 한 번만 잡고 처리한다.
+   * - 같은 segment 안에서는 members의 순서를 유지하므로 같은 번호가 여러 번 있으면 앞의 회원이 저장된다.
+   */
+  @Override
+  public void putAllIfAbsent(List<MemberDTO> members, BitSet inserted) {
+    int n = members.size();
+    int[] hashes = new int[n];
+    int[] starts = new int[SEGMENT_COUNT + 1];
+    for (int i = 0; i < n; i++) {
+      hashes[i] = mix(members.get(i).getSequence());
+      starts[(hashes[i] >>> SEGMENT_SHIFT) + 1]++;
+    }
+    for (int s = 0; s < SEGMENT_COUNT; s++) {
+      starts[s + 1] += starts[s];
+    }
+    int[] order = new int[n];    // segment 순으로 정렬한 members의 위치
+    int[] next = starts.clone();
+    for (int i = 0; i < n; i++) {
+      order[next[hashes[i] >>> SEGMENT_SHIFT]++] = i;
+    }
+    for (int s = 0; s < SEGMENT_COUNT; s++) {
+      if (starts[s] < starts[s + 1]) {
+        segments[s].putAllIfAbsent(members, hashes, order, starts[s], starts[s + 1], inserted);
+      }
+    }
+  }
+
+  /**
+   * 저장된 회원 수 (동시 쓰기 중에는 근사값)
+   */
+  @Override
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size;
+    }
+    return size;
+  }
+
+  /**
+   * 저장된 모든 회원을 하나씩 전달한다. lock 없이 각 segment의 현재 테이블을 읽는다.
+   */
+  @Override
+  public void forEach(Consumer<MemberDTO> action) {
+    for (Segment segment : segments) {
+      Table t = segment.table;
+      for (int i = 0; i < t.keys.length; i++) {
+        MemberDTO value = t.values.get(i);
+        if (value != null) {
+          action.accept(value);
+        }
+      }
+    }
+  }
+
+  private Segment segmentFor(int hash) {
+    return segments[hash >>> SEGMENT_SHIFT];
+  }
+
+  /* 연속된 회원 번호가 한 segment, 인접 슬롯에 몰리지 않도록 비트를 섞는다 (murmur3 finalizer) */
+  static int mix(int key) {
+    int h = key;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private static int capacityFor(int size) {
+    int needed = (int) Math.ceil(size / LOAD_FACTOR);
+    int capacity = MIN_CAPACITY;
+    while (capacity < needed) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  /**
+   * 키와 값을 나란히 저장하는 배열 묶음
+   * - 값 슬롯이 null이면 빈 슬롯
+   * - 쓰기는 키를 먼저 기록한 뒤 값을 volatile로 기록하므로,
+   *   값을 읽은 스레드는 항상 같은 슬롯의 키도 볼 수 있다.
+   */
+  private static final class Table {
+    final int[] keys;
+    final AtomicReferenceArray<MemberDTO> values;
+    final int mask;
+
+    Table(int capacity) {
+      keys = new int[capacity];
+      values = new AtomicReferenceArray<>(capacity);
+      mask = capacity - 1;
+    }
+  }
+
+  private static final class Segment {
+
+    private volatile Table table;
+    private volatile int size;    // lock 안에서만 변경
+
+    Segment(int capacity) {
+      table = new Table(capacity);
+    }
+
+    MemberDTO get(int key, int hash) {
+      Table t = table;
+      for (int i = hash & t.mask; ; i = (i + 1) & t.mask) {
+        MemberDTO value = t.values.get(i);
+        if (value == null) {
+          return null;
+        }
+        if (t.keys[i] == key) {
+          return value;
+        }
+      }
+    }
+
+    synchronized MemberDTO put(int key, int hash, MemberDTO value, boolean onlyIfAbsent) {
+      Table t = table;
+      int i = hash & t.mask;
+      for (MemberDTO current; (current = t.values.get(i)) != null; i = (i + 1) & t.mask) {
+        if (t.keys[i] == key) {
+          if (!onlyIfAbsent) {
+            t.values.set(i, value);
+          }
+          return current;
+        }
+      }
+      t.keys[i] = key;
+      t.values.set(i, value);
+      size++;
+      if (size > t.keys.length * LOAD_FACTOR) {
+        resize(t, t.keys.length << 1);
+      }
+      return null;
+    }
+
+    synchronized void ensureCapacity(int capacity) {
+      Table t = table;
+      if (t.keys.length < capacity) {
+        resize(t, capacity);
+      }
+    }
+
+    synchronized void putAllIfAbsent(List<MemberDTO> members, int[] hashes, int[] order,
+                                     int from, int to, BitSet inserted) {
+      for (int i = from; i < to; i++) {
+        int index = order[i];
+        MemberDTO member = members.get(index);
+        if (put(member.getSequence(), hashes[index], member, true) == null) {
+          inserted.set(index);
+        }
+      }
+    }
+
+    /* 새 테이블을 다 채운 뒤 한 번에 공개하므로 lock 없이 읽는 스레드는 옛 테이블 또는 새 테이블 중 하나를 온전히 본다 */
+    private void resize(Table old, int capacity) {
+      Table grown = new Table(capacity);
+      for (int i = 0; i < old.keys.length; i++) {
+        MemberDTO value = old.values.get(i);
+        if (value != null) {
+          int key = old.keys[i];
+          int j = mix(key) & grown.mask;
+          while (grown.values.get(j) != null) {
+            j = (j + 1) & grown.mask;
+          }
+          grown.keys[j] = key;
+          grown.values.lazySet(j, value);
+        }
+      }
+      table = grown;
+    }
+  }
+}
@@ -0,0 +1,400 @@
+package com.mycompany.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * memory-mapped 파일에 회원을 기록하는 영속 저장소
+ * - members.dat : 회원 레코드를 뒤에 이어 붙이기만 하는(append-only) 데이터 파일
+ * - members.idx : (회원 번호, 레코드 길이, 레코드 위치)를 16byte씩 기록한 인덱스 파일
+ * - 두 파일 모두 FileChannel.map으로 chunk 단위(기본 64MB)로 매핑하여 읽고 쓴다.
+ * - open은 파일을 매핑만 하고, 회원 번호 → 레코드 위치 인덱스는 첫 조회/저장 때 인덱스 파일만 읽어 만든다.
+ *   따라서 재시작 시간은 회원 정보(payload) 크기가 아니라 인덱스 항목 수에 비례한다.
+ * - 회원 정보는 조회할 때마다 매핑된 데이터 파일에서 MemberDTO로 읽어온다.
+ * - 레코드를 먼저 쓰고 인덱스를 나중에 쓰므로, 중간에 프로세스가 죽으면 마지막 저장만 사라진다.
+ *   전원 장애까지 대비하려면 sync()로 디스크에 내려 써야 한다.
+ * - 조회는 lock 없이, 저장은 이 객체의 lock으로 한 번에 하나씩 처리한다.
+ */
+public class MappedMemberStore implements MemberStore, Closeable {
+
+  private static final int DATA_MAGIC = 0x4D444154;   // "MDAT"
+  private static final int INDEX_MAGIC = 0x4D494458;  // "MIDX"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;          // magic(4) + version(4) + 데이터 끝 위치 또는 인덱스 항목 수(8)
+  private static final int INDEX_ENTRY_SIZE = 16;     // 회원 번호(4) + 레코드 길이(4) + 레코드 위치(8)
+  private static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+
+  private final MappedFile data;
+  private final MappedFile index;
+  private long dataEnd;                     // lock 안에서만 변경
+  private long indexCount;                  // lock 안에서만 변경
+  private volatile OffsetTable offsets;     // 첫 사용 전까지 null
+
+  private MappedMemberStore(Path directory, int chunkSize) throws IOException {
+    Files.createDirectories(directory);
+    data = new MappedFile(directory.resolve("members.dat"), chunkSize);
+    try {
+      index = new MappedFile(directory.resolve("members.idx"), chunkSize);
+    } catch (IOException e) {
+      data.close();
+      throw e;
+    }
+    dataEnd = openHeader(data, DATA_MAGIC, HEADER_SIZE);
+    indexCount = openHeader(index, INDEX_MAGIC, 0);
+  }
+
+  /**
+   * directory 아래의 저장소 파일을 열고, 없으면 새로 만든다.
+   */
+  public static MappedMemberStore open(Path directory) throws IOException {
+    return new MappedMemberStore(directory, DEFAULT_CHUNK_SIZE);
+  }
+
+  @Override
+  public MemberDTO get(int key) {
+    long offset = offsets().get(key);
+    return offset == 0 ? null : readRecord(offset);
+  }
+
+  @Override
+  public synchronized MemberDTO put(int key, MemberDTO value) {
+    return write(key, value, false);
+  }
+
+  @Override
+  public synchronized MemberDTO putIfAbsent(int key, MemberDTO value) {
+    return write(key, value, true);
+  }
+
+  @Override
+  public int size() {
+    return offsets().size;
+  }
+
+  /**
+   * 여러 회원을 lock 한 번으로 putIfAbsent 한다.
+   */
+  @Override
+  public synchronized void putAllIfAbsent(List<MemberDTO> members, BitSet inserted) {
+    for (int i = 0; i < members.size(); i++) {
+      MemberDTO member = members.get(i);
+      if (write(member.getSequence(), member, true) == null) {
+        inserted.set(i);
+      }
+    }
+  }
+
+  /**
+   * 모든 회원의 최신 레코드를 읽어 하나씩 전달한다 (레코드 본문을 모두 읽으므로 회원 수와 payload에 비례)
+   */
+  @Override
+  public void forEach(Consumer<MemberDTO> action) {
+    OffsetTable table = offsets();
+    for (int i = 0; i < table.keys.length; i++) {
+      long offset = table.offsets.get(i);
+      if (offset != 0) {
+        action.accept(readRecord(offset));
+      }
+    }
+  }
+
+  /**
+   * 지금까지 기록한 내용을 디스크에 내려 쓴다 (MappedByteBuffer.force)
+   */
+  public void sync() {
+    data.force();
+    index.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      sync();
+    } finally {
+      try {
+        data.close();
+      } finally {
+        index.close();
+      }
+    }
+  }
+
+  private MemberDTO write(int key, MemberDTO value, boolean onlyIfAbsent) {
+    if (value == null) {
+      throw new NullPointerException("value");
+    }
+    OffsetTable table = offsets();
+    long existing = table.get(key);
+    if (existing != 0 && onlyIfAbsent) {
+      return readRecord(existing);
+    }
+
+    byte[] id = encode(value.getId());
+    byte[] pwd = encode(value.getPwd());
+    byte[] name = encode(value.getName());
+    int recordSize = 4 + 4 + 2 + id.length + 2 + pwd.length + 2 + name.length;
+
+    long offset = data.allocate(dataEnd, recordSize);
+    ByteBuffer chunk = data.chunk(offset);
+    int at = data.offsetInChunk(offset);
+    chunk.putInt(at, recordSize);
+    chunk.putInt(at + 4, key);
+    at = putString(chunk, at + 8, id);
+    at = putString(chunk, at, pwd);
+    putString(chunk, at, name);
+    dataEnd = offset + recordSize;
+    data.chunk(0).putLong(8, dataEnd);
+
+    long entry = index.allocate(HEADER_SIZE + indexCount * INDEX_ENTRY_SIZE, INDEX_ENTRY_SIZE);
+    ByteBuffer indexChunk = index.chunk(entry);
+    int entryAt = index.offsetInChunk(entry);
+    indexChunk.putInt(entryAt, key);
+    indexChunk.putInt(entryAt + 4, recordSize);
+    indexChunk.putLong(entryAt + 8, offset);
+    indexCount++;
+    index.chunk(0).putLong(8, indexCount);
+
+    // 레코드를 다 쓴 뒤 인덱스에 공개하므로 lock 없이 조회하는 스레드는 완성된 레코드만 본다
+    if (table.put(key, offset)) {
+      offsets = table.grow();
+    }
+    return existing == 0 ? null : readRecord(existing);
+  }
+
+  private MemberDTO readRecord(long offset) {
+    ByteBuffer chunk = data.chunk(offset);
+    int at = data.offsetInChunk(offset);
+    int sequence = chunk.getInt(at + 4);
+    at += 8;
+    String id = getString(chunk, at);
+    at += 2 + Short.toUnsignedInt(chunk.getShort(at));
+    String pwd = getString(chunk, at);
+    at += 2 + Short.toUnsignedInt(chunk.getShort(at));
+    String name = getString(chunk, at);
+    return new MemberDTO(sequence, id, pwd, name);
+  }
+
+  private OffsetTable offsets() {
+    OffsetTable table = offsets;
+    return table != null ? table : rebuildOffsets();
+  }
+
+  /* 인덱스 파일만 처음부터 읽어 회원 번호 → 레코드 위치 테이블을 만든다 (레코드 본문은 읽지 않음) */
+  private synchronized OffsetTable rebuildOffsets() {
+    if (offsets != null) {
+      return offsets;
+    }
+    OffsetTable table = new OffsetTable(OffsetTable.capacityFor(indexCount));
+    for (long i = 0; i < indexCount; i++) {
+      long entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+      ByteBuffer chunk = index.chunk(entry);
+      int at = index.offsetInChunk(entry);
+      int key = chunk.getInt(at);
+      long offset = chunk.getLong(at + 8);
+      if (offset < HEADER_SIZE || offset + chunk.getInt(at + 4) > dataEnd) {
+        // 데이터보다 앞서 기록된 인덱스 항목(비정상 종료)은 버리고 이후 저장으로 덮어쓴다
+        indexCount = i;
+        index.chunk(0).putLong(8, indexCount);
+        break;
+      }
+      if (table.put(key, offset)) {
+        table = table.grow();
+      }
+    }
+    offsets = table;
+    return table;
+  }
+
+  /* 새 파일이면 헤더를 기록하고, 기존 파일이면 헤더를 검사한 뒤 헤더의 long 값을 리턴한다 */
+  private static long openHeader(MappedFile file, int magic, long initialValue) throws IOException {
+    ByteBuffer header = file.chunk(0);
+    int storedMagic = header.getInt(0);
+    if (storedMagic == 0) {
+      header.putInt(0, magic);
+      header.putInt(4, VERSION);
+      header.putLong(8, initialValue);
+      return initialValue;
+    }
+    if (storedMagic != magic || header.getInt(4) != VERSION) {
+      throw new IOException("회원 저장소 파일이 아니거나 버전이 다릅니다 : " + file.path);
+    }
+    return header.getLong(8);
+  }
+
+  private static byte[] encode(String value) {
+    byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > 0xFFFF) {
+      throw new IllegalArgumentException("회원 정보 문자열이 너무 깁니다 : " + bytes.length + "byte");
+    }
+    return bytes;
+  }
+
+  private static int putString(ByteBuffer chunk, int at, byte[] bytes) {
+    chunk.putShort(at, (short) bytes.length);
+    chunk.put(at + 2, bytes);
+    return at + 2 + bytes.length;
+  }
+
+  private static String getString(ByteBuffer chunk, int at) {
+    byte[] bytes = new byte[Short.toUnsignedInt(chunk.getShort(at))];
+    chunk.get(at + 2, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * 파일을 같은 크기의 chunk로 나누어 매핑한다.
+   * - MappedByteBuffer 하나는 2GB를 넘을 수 없으므로 필요할 때마다 chunk를 추가로 매핑한다.
+   * - 하나의 레코드는 chunk 경계를 넘지 않도록 배치한다.
+   */
+  private static final class MappedFile implements Closeable {
+    final Path path;
+    private final FileChannel channel;
+    private final int chunkSize;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    MappedFile(Path path, int chunkSize) throws IOException {
+      this.path = path;
+      this.chunkSize = chunkSize;
+      channel = FileChannel.open(path,
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+        ensureCapacity(Math.max(channel.size(), 1));
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    /* position 이후에 size byte를 쓸 위치를 정한다. 현재 chunk에 자리가 없으면 다음 chunk 시작으로 넘긴다 */
+    long allocate(long position, int size) {
+      if (size > chunkSize) {
+        throw new IllegalArgumentException("레코드가 chunk보다 큽니다 : " + size);
+      }
+      if (offsetInChunk(position) + size > chunkSize) {
+        position = (position / chunkSize + 1) * chunkSize;
+      }
+      try {
+        ensureCapacity(position + size);
+      } catch (IOException e) {
+        throw new IllegalStateException("저장소 파일을 늘리지 못했습니다 : " + path, e);
+      }
+      return position;
+    }
+
+    ByteBuffer chunk(long position) {
+      return chunks[(int) (position / chunkSize)];
+    }
+
+    int offsetInChunk(long position) {
+      return (int) (position % chunkSize);
+    }
+
+    /* 매핑은 파일 크기를 chunk 단위로 늘린다. 새 배열을 다 채운 뒤 volatile로 공개한다 */
+    private synchronized void ensureCapacity(long size) throws IOException {
+      MappedByteBuffer[] current = chunks;
+      int needed = (int) ((size + chunkSize - 1) / chunkSize);
+      if (needed <= current.length) {
+        return;
+      }
+      MappedByteBuffer[] grown = Arrays.copyOf(current, needed);
+      for (int i = current.length; i < needed; i++) {
+        grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * chunkSize, chunkSize);
+      }
+      chunks = grown;
+    }
+
+    void force() {
+      for (MappedByteBuffer chunk : chunks) {
+        chunk.force();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * 회원 번호 → 레코드 위치 open addressing 테이블 (IntMemberTable과 같은 linear probing)
+   * - 위치 0은 헤더이므로 빈 슬롯 표시로 사용한다.
+   * - 저장은 MappedMemberStore의 lock 안에서만 한다. 위치를 volatile로 기록하므로
+   *   위치를 읽은 스레드는 같은 슬롯의 키도 볼 수 있다.
+   */
+  private static final class OffsetTable {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    final int[] keys;
+    final AtomicLongArray offsets;
+    final int mask;
+    volatile int size;
+
+    OffsetTable(int capacity) {
+      keys = new int[capacity];
+      offsets = new AtomicLongArray(capacity);
+      mask = capacity - 1;
+    }
+
+    static int capacityFor(long expected) {
+      long needed = (long) Math.ceil(expected / LOAD_FACTOR);
+      int capacity = 16;
+      while (capacity < needed) {
+        capacity <<= 1;
+      }
+      return capacity;
+    }
+
+    long get(int key) {
+      for (int i = IntMemberTable.mix(key) & mask; ; i = (i + 1) & mask) {
+        long offset = offsets.get(i);
+        if (offset == 0 || keys[i] == key) {
+          return offset;
+        }
+      }
+    }
+
+    /* 저장 후 테이블을 늘려야 하면 true */
+    boolean put(int key, long offset) {
+      int i = IntMemberTable.mix(key) & mask;
+      for (; offsets.get(i) != 0; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          offsets.set(i, offset);
+          return false;
+        }
+      }
+      keys[i] = key;
+      offsets.set(i, offset);
+      size++;
+      return size > keys.length * LOAD_FACTOR;
+    }
+
+    OffsetTable grow() {
+      OffsetTable grown = new OffsetTable(keys.length << 1);
+      for (int i = 0; i < keys.length; i++) {
+        long offset = offsets.get(i);
+        if (offset != 0) {
+          int j = IntMemberTable.mix(keys[i]) & grown.mask;
+          while (grown.offsets.get(j) != 0) {
+            j = (j + 1) & grown.mask;
+          }
+          grown.keys[j] = keys[i];
+          grown.offsets.lazySet(j, offset);
+        }
+      }
+      grown.size = size;
+      return grown;
+    }
+  }
+}
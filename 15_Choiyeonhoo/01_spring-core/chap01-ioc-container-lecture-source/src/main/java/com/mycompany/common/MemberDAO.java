@@ -2,41 +2,255 @@ package com.mycompany.common;
 
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * 회원 데이터를 관리하는 DAO(Data Access Object) 클래스
- * - 실제로는 데이터베이스와 연동하지만, 학습 목적으로 Map을 사용하여 간단히 구현
+ * - 실제로는 데이터베이스와 연동하지만, 학습 목적으로 메모리 테이블을 사용하여 간단히 구현
+ * - 회원 번호(int)를 박싱 없이 키로 쓰는 IntMemberTable에 저장하여
+ *   싱글톤 빈을 여러 요청 스레드가 동시에 사용해도 안전하다.
+ * - MemberStore를 전달 받는 생성자로 MappedMemberStore를 사용하면 재시작 후에도 회원이 유지된다.
+ * - 로그인 아이디 / 이름 접두어 조회용 MemberIndex는 처음 사용할 때 만들고, 이후 추가/교체 때 함께 갱신한다.
  * - @Component 어노테이션으로 Spring 빈으로 자동 등록
  */
 @Component  // ComponentScan 시 자동으로 빈으로 등록되는 어노테이션
 public class MemberDAO {
-  private final Map<Integer, MemberDTO> memberMap;
+  private static final int WRITE_STRIPES = 64;   // 2의 거듭제곱
+  private static final int INGEST_BATCH_SIZE = 65536;
+
+  private final MemberStore memberTable;
+
+  /* 같은 회원 번호의 저장과 인덱스 갱신이 순서대로 일어나도록 번호별로 나눈 lock (일괄 추가는 전부 잡는다) */
+  private final ReentrantLock[] writeStripes = new ReentrantLock[WRITE_STRIPES];
+  /* 쓰기끼리는 함께 진행(read lock)하고, 인덱스를 처음 만드는 동안에만 쓰기를 막는다(write lock) */
+  private final ReentrantReadWriteLock indexBuildLock = new ReentrantReadWriteLock();
+  private volatile MemberIndex memberIndex;      // 첫 보조 조회 전까지 null
 
   /**
-   * 생성자 - 초기 회원 데이터를 Map에 저장
+   * 생성자 - 초기 회원 데이터를 테이블에 저장
    */
   public MemberDAO() {
-    memberMap = new HashMap<>();
-    memberMap.put(1, new MemberDTO(1, "user01", "pass01", "홍길동"));
-    memberMap.put(2, new MemberDTO(2, "user02", "pass02", "유관순"));
+    this(new IntMemberTable());
+    memberTable.put(1, new MemberDTO(1, "user01", "pass01", "홍길동"));
+    memberTable.put(2, new MemberDTO(2, "user02", "pass02", "유관순"));
+  }
+
+  /**
+   * 생성자 - 전달 받은 저장소를 그대로 사용 (초기 회원 데이터를 넣지 않음)
+   * - 예) new MemberDAO(MappedMemberStore.open(Path.of("data/members")))
+   */
+  public MemberDAO(MemberStore memberStore) {
+    memberTable = memberStore;
+    for (int i = 0; i < WRITE_STRIPES; i++) {
+      writeStripes[i] = new ReentrantLock();
+    }
   }
 
   /**
-   * 매개변수로 전달 받은 회원 번호를 map에서 조회 후 회원 정보를 리턴하는 메소드
+   * 매개변수로 전달 받은 회원 번호를 테이블에서 조회 후 회원 정보를 리턴하는 메소드
    */
   public MemberDTO selectMember(int sequence) {
-    return memberMap.get(sequence);
+    return memberTable.get(sequence);
   }
 
   /**
-   * 매개변수를 전달 받은 회원 정보를 map에 추가하고 성공 실패 여부를 boolean으로 리턴하는 메소드
+   * 매개변수를 전달 받은 회원 정보를 테이블에 추가하고 성공 실패 여부를 boolean으로 리턴하는 메소드
+   * - 같은 번호의 회원이 없어 새로 추가된 경우에만 true
+   * - 같은 번호의 회원이 이미 있으면 덮어쓰지 않고 false
    */
   public boolean insertMember(MemberDTO newMember) {
-    int before = memberMap.size();
-    memberMap.put(newMember.getSequence(), newMember);
-    int after = memberMap.size();
-    return after > before;
+    return insertMemberIfAbsent(newMember) == InsertResult.INSERTED;
+  }
+
+  /**
+   * 같은 번호의 회원이 없을 때만 추가하는 메소드 (putIfAbsent)
+   * - 동시에 같은 번호로 추가해도 한 스레드만 INSERTED, 나머지는 DUPLICATE
+   */
+  public InsertResult insertMemberIfAbsent(MemberDTO newMember) {
+    return write(newMember, true);
+  }
+
+  /**
+   * 회원을 추가하거나, 같은 번호의 회원이 있으면 교체하는 메소드
+   * - 결과로 INSERTED 또는 REPLACED를 리턴하여 덮어쓰기 여부를 알 수 있다.
+   */
+  public InsertResult upsertMember(MemberDTO newMember) {
+    return write(newMember, false);
+  }
+
+  /**
+   * 여러 회원을 한 번에 추가하는 메소드 (각 회원은 insertMemberIfAbsent와 같은 규칙)
+   * - 테이블을 한 번에 필요한 크기로 늘리고, 저장소 lock과 인덱스 갱신을 묶어서 처리한다.
+   * - 리턴한 BitSet의 i번째 bit가 켜져 있으면 newMembers의 i번째 회원이 INSERTED, 꺼져 있으면 DUPLICATE
+   */
+  public BitSet insertMembers(Collection<MemberDTO> newMembers) {
+    List<MemberDTO> batch = newMembers instanceof List<MemberDTO> list ? list : new ArrayList<>(newMembers);
+    BitSet inserted = new BitSet(batch.size());
+    memberTable.ensureCapacity(memberTable.size() + batch.size());
+    writeBatch(batch, inserted);
+    return inserted;
+  }
+
+  /**
+   * Stream으로 전달 받은 회원을 INGEST_BATCH_SIZE명씩 나누어 insertMembers와 같은 방식으로 추가하는 메소드
+   * - 전체를 메모리에 모으지 않으므로 야간 동기화처럼 많은 회원을 흘려 보낼 때 사용한다.
+   * - 크기를 알 수 있는 Stream이면 테이블을 미리 늘린다.
+   * - 리턴한 BitSet의 i번째 bit는 Stream의 i번째 회원이 추가되었는지를 나타낸다.
+   */
+  public BitSet ingestMembers(Stream<MemberDTO> newMembers) {
+    Spliterator<MemberDTO> source = newMembers.spliterator();
+    long expected = source.getExactSizeIfKnown();
+    if (expected > 0) {
+      memberTable.ensureCapacity((int) Math.min(Integer.MAX_VALUE, memberTable.size() + expected));
+    }
+
+    BitSet inserted = new BitSet();
+    List<MemberDTO> batch = new ArrayList<>(INGEST_BATCH_SIZE);
+    BitSet batchInserted = new BitSet(INGEST_BATCH_SIZE);
+    int offset = 0;
+    boolean more = true;
+    while (more) {
+      while (batch.size() < INGEST_BATCH_SIZE && (more = source.tryAdvance(batch::add))) {
+        // batch가 찰 때까지 읽는다
+      }
+      if (batch.isEmpty()) {
+        break;
+      }
+      writeBatch(batch, batchInserted);
+      for (int i = batchInserted.nextSetBit(0); i >= 0; i = batchInserted.nextSetBit(i + 1)) {
+        inserted.set(offset + i);
+      }
+      offset += batch.size();
+      batch.clear();
+      batchInserted.clear();
+    }
+    return inserted;
+  }
+
+  /**
+   * 로그인 아이디로 회원을 조회하는 메소드 (hash index). 없으면 null
+   * - 같은 아이디를 쓰는 회원이 여럿이면 회원 번호가 가장 작은 회원을 리턴한다.
+   */
+  public MemberDTO selectMemberByLoginId(String loginId) {
+    for (int sequence : index().findByLoginId(loginId)) {
+      // 인덱스를 읽은 뒤 회원 정보가 교체되었을 수 있으므로 아이디를 다시 확인한다
+      MemberDTO member = memberTable.get(sequence);
+      if (member != null && loginId.equals(member.getId())) {
+        return member;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 이름이 prefix로 시작하는 회원을 이름 순으로 최대 limit명 조회하는 메소드 (compact trie)
+   */
+  public List<MemberDTO> selectMembersByNamePrefix(String prefix, int limit) {
+    int[] sequences = index().findByNamePrefix(prefix, limit);
+    List<MemberDTO> members = new ArrayList<>(sequences.length);
+    for (int sequence : sequences) {
+      MemberDTO member = memberTable.get(sequence);
+      if (member != null && member.getName() != null && member.getName().startsWith(prefix)) {
+        members.add(member);
+      }
+    }
+    return members;
+  }
+
+  /**
+   * 현재 저장된 회원 수를 리턴하는 메소드
+   */
+  public int memberCount() {
+    return memberTable.size();
+  }
+
+  private InsertResult write(MemberDTO newMember, boolean onlyIfAbsent) {
+    return guardIndexBuild(() -> writeStriped(newMember, onlyIfAbsent));
+  }
+
+  private void writeBatch(List<MemberDTO> batch, BitSet inserted) {
+    guardIndexBuild(() -> {
+      writeBatchStriped(batch, inserted);
+      return null;
+    });
+  }
+
+  /* 인덱스가 한 번 만들어지면 다시 null이 되지 않으므로 그 뒤로는 build lock을 거치지 않는다 */
+  private <T> T guardIndexBuild(Supplier<T> write) {
+    if (memberIndex != null) {
+      return write.get();
+    }
+    indexBuildLock.readLock().lock();
+    try {
+      return write.get();
+    } finally {
+      indexBuildLock.readLock().unlock();
+    }
+  }
+
+  private InsertResult writeStriped(MemberDTO newMember, boolean onlyIfAbsent) {
+    int sequence = newMember.getSequence();
+    ReentrantLock stripe = writeStripes[IntMemberTable.mix(sequence) & (WRITE_STRIPES - 1)];
+    stripe.lock();
+    try {
+      MemberDTO previous = onlyIfAbsent
+          ? memberTable.putIfAbsent(sequence, newMember)
+          : memberTable.put(sequence, newMember);
+      if (previous != null && onlyIfAbsent) {
+        return InsertResult.DUPLICATE;
+      }
+      MemberIndex index = memberIndex;
+      if (index != null) {
+        index.update(previous, newMember);
+      }
+      return previous == null ? InsertResult.INSERTED : InsertResult.REPLACED;
+    } finally {
+      stripe.unlock();
+    }
+  }
+
+  /* 일괄 추가는 모든 stripe를 순서대로 잡으므로 단건 쓰기(stripe 하나만 잡음)와 교착되지 않는다 */
+  private void writeBatchStriped(List<MemberDTO> batch, BitSet inserted) {
+    for (ReentrantLock stripe : writeStripes) {
+      stripe.lock();
+    }
+    try {
+      memberTable.putAllIfAbsent(batch, inserted);
+      MemberIndex index = memberIndex;
+      if (index != null) {
+        index.addAll(batch, inserted);
+      }
+    } finally {
+      for (int i = WRITE_STRIPES - 1; i >= 0; i--) {
+        writeStripes[i].unlock();
+      }
+    }
+  }
+
+  /* 보조 인덱스를 처음 사용할 때 저장소 전체를 읽어 만든다 (MappedMemberStore의 빠른 재시작을 유지하기 위해) */
+  private MemberIndex index() {
+    MemberIndex index = memberIndex;
+    if (index != null) {
+      return index;
+    }
+    indexBuildLock.writeLock().lock();
+    try {
+      if (memberIndex == null) {
+        MemberIndex built = new MemberIndex(memberTable.size());
+        memberTable.forEach(member -> built.update(null, member));
+        memberIndex = built;
+      }
+      return memberIndex;
+    } finally {
+      indexBuildLock.writeLock().unlock();
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.mycompany.common;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원 번호 외의 조회를 위한 보조 인덱스
+ * - 로그인 아이디(id) → 회원 번호 목록 : ConcurrentHashMap (hash index)
+ *   로그인 아이디는 회원마다 다르다는 보장이 없으므로, 같은 아이디의 회원 번호를 정렬된 int[]로 모두 가진다.
+ * - 회원 이름(name) 접두어 → 회원 번호 : NameTrie (compact trie)
+ * - 회원 정보 자체는 MemberStore에만 있고, 인덱스는 회원 번호만 가진다.
+ * - 같은 회원 번호에 대한 변경은 MemberDAO가 순서대로 전달한다.
+ */
+class MemberIndex {
+
+  private static final int[] NONE = new int[0];
+
+  private final ConcurrentHashMap<String, int[]> loginIds;     // 값은 바꾸지 않고 새 배열로 교체한다
+  private final NameTrie names = new NameTrie();
+
+  MemberIndex(int expectedSize) {
+    loginIds = new ConcurrentHashMap<>(Math.max(16, expectedSize));
+  }
+
+  /**
+   * 회원 정보가 previous에서 current로 바뀌었음을 반영한다 (새로 추가된 경우 previous는 null)
+   */
+  void update(MemberDTO previous, MemberDTO current) {
+    int sequence = current.getSequence();
+    if (previous != null) {
+      if (previous.getId() != null && !previous.getId().equals(current.getId())) {
+        removeLoginId(previous.getId(), sequence);
+      }
+      if (previous.getName() != null && !previous.getName().equals(current.getName())) {
+        names.remove(previous.getName(), sequence);
+      }
+    }
+    if (current.getId() != null) {
+      addLoginId(current.getId(), sequence);
+    }
+    if (current.getName() != null) {
+      names.add(current.getName(), sequence);
+    }
+  }
+
+  /**
+   * 새로 추가된 회원들(inserted에 표시된 위치)을 한 번에 반영한다.
+   * - 이름은 trie의 write lock을 한 번만 잡고 추가한다.
+   */
+  void addAll(List<MemberDTO> members, BitSet inserted) {
+    int count = inserted.cardinality();
+    String[] batchNames = new String[count];
+    int[] sequences = new int[count];
+    int n = 0;
+    for (int i = inserted.nextSetBit(0); i >= 0; i = inserted.nextSetBit(i + 1)) {
+      MemberDTO member = members.get(i);
+      if (member.getId() != null) {
+        addLoginId(member.getId(), member.getSequence());
+      }
+      if (member.getName() != null) {
+        batchNames[n] = member.getName();
+        sequences[n++] = member.getSequence();
+      }
+    }
+    names.addAll(batchNames, sequences, n);
+  }
+
+  /* 로그인 아이디를 쓰는 회원 번호를 작은 순서로 찾는다. 없으면 빈 배열 (리턴한 배열을 고치면 안 된다) */
+  int[] findByLoginId(String loginId) {
+    int[] sequences = loginIds.get(loginId);
+    return sequences == null ? NONE : sequences;
+  }
+
+  /* 이름이 prefix로 시작하는 회원 번호를 이름 순으로 최대 limit개 */
+  int[] findByNamePrefix(String prefix, int limit) {
+    return names.prefix(prefix, limit);
+  }
+
+  /* 아이디별 갱신은 compute 안에서 하므로, 번호가 다른 회원이 같은 아이디를 동시에 바꿔도 서로 지우지 않는다 */
+  private void addLoginId(String loginId, int sequence) {
+    loginIds.compute(loginId, (id, sequences) -> {
+      if (sequences == null) {
+        return new int[] {sequence};
+      }
+      int position = Arrays.binarySearch(sequences, sequence);
+      if (position >= 0) {
+        return sequences;
+      }
+      int at = -position - 1;
+      int[] added = new int[sequences.length + 1];
+      System.arraycopy(sequences, 0, added, 0, at);
+      added[at] = sequence;
+      System.arraycopy(sequences, at, added, at + 1, sequences.length - at);
+      return added;
+    });
+  }
+
+  private void removeLoginId(String loginId, int sequence) {
+    loginIds.computeIfPresent(loginId, (id, sequences) -> {
+      int position = Arrays.binarySearch(sequences, sequence);
+      if (position < 0) {
+        return sequences;
+      }
+      if (sequences.length == 1) {
+        return null;
+      }
+      int[] removed = new int[sequences.length - 1];
+      System.arraycopy(sequences, 0, removed, 0, position);
+      System.arraycopy(sequences, position + 1, removed, position, removed.length - position);
+      return removed;
+    });
+  }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.common;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * MemberDAO가 회원을 저장하는 저장소
+ * - IntMemberTable : 메모리에만 저장 (프로세스가 끝나면 사라짐)
+ * - MappedMemberStore : memory-mapped 파일에 저장 (재시작 후에도 유지)
+ */
+public interface MemberStore {
+
+  /* 회원 번호로 회원을 조회한다. 없으면 null */
+  MemberDTO get(int key);
+
+  /* 회원을 저장하고 같은 번호로 저장되어 있던 이전 회원을 리턴한다. 이전 회원이 없으면 null */
+  MemberDTO put(int key, MemberDTO value);
+
+  /* 같은 번호의 회원이 없을 때만 저장한다. 이미 저장되어 있던 회원을 리턴하고, 새로 저장했으면 null */
+  MemberDTO putIfAbsent(int key, MemberDTO value);
+
+  /* 저장된 회원 수 */
+  int size();
+
+  /* 저장된 모든 회원을 순서 없이 하나씩 전달한다 (동시 쓰기 중에는 일부 변경이 보이지 않을 수 있음)
+   * - 전달되는 회원은 읽기 전용일 수 있다 (ColumnarMemberStore는 setter가 예외를 던지는 view를 전달한다).
+   *   get, put, putIfAbsent가 돌려주는 회원은 일반 MemberDTO이다. */
+  void forEach(Consumer<MemberDTO> action);
+
+  /* 회원이 expectedSize명이 될 때까지 다시 늘리지 않도록 공간을 미리 잡아둔다 (지원하지 않는 저장소는 무시) */
+  default void ensureCapacity(int expectedSize) {
+  }
+
+  /* members를 순서대로 putIfAbsent 하고, 새로 저장된 회원의 위치(members 기준)를 inserted에 표시한다
+   * - 구현체는 lock을 한 번만 잡는 등 묶어서 처리할 수 있다 */
+  default void putAllIfAbsent(List<MemberDTO> members, BitSet inserted) {
+    for (int i = 0; i < members.size(); i++) {
+      MemberDTO member = members.get(i);
+      if (putIfAbsent(member.getSequence(), member) == null) {
+        inserted.set(i);
+      }
+    }
+  }
+
+}
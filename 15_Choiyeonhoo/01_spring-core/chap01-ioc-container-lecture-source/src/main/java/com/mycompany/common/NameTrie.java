@@ -0,0 +1,248 @@
+package com.mycompany.common;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 회원 이름 접두어 검색용 compact trie (radix tree)
+ * - 자식이 하나뿐인 노드를 하나로 합쳐 간선에 문자열(label)을 두므로, 글자마다 노드를 만드는 trie보다 노드 수가 적다.
+ * - 자식은 첫 글자 기준으로 정렬된 char[] / Node[] 배열에 두고 이진 탐색한다.
+ * - 각 노드는 그 이름을 가진 회원 번호들을 int[]로 가진다 (동명이인 허용).
+ * - 조회는 read lock, 추가/삭제는 write lock으로 보호한다.
+ */
+class NameTrie {
+
+  private static final int[] NO_SEQUENCES = new int[0];
+
+  private final Node root = new Node("");
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * 이름과 회원 번호를 추가한다.
+   */
+  void add(String name, int sequence) {
+    lock.writeLock().lock();
+    try {
+      addLocked(name, sequence);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * 여러 이름을 write lock 한 번으로 추가한다. names[i]와 sequences[i]가 한 쌍
+   */
+  void addAll(String[] names, int[] sequences, int count) {
+    lock.writeLock().lock();
+    try {
+      for (int i = 0; i < count; i++) {
+        addLocked(names[i], sequences[i]);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void addLocked(String name, int sequence) {
+    Node node = root;
+    int i = 0;
+    while (i < name.length()) {
+      Node child = node.child(name.charAt(i));
+      if (child == null) {
+        Node leaf = new Node(name.substring(i));
+        leaf.addSequence(sequence);
+        node.addChild(leaf);
+        return;
+      }
+      int common = commonPrefix(child.label, name, i);
+      if (common < child.label.length()) {
+        child = node.split(child, common);
+      }
+      node = child;
+      i += common;
+    }
+    node.addSequence(sequence);
+  }
+
+  /**
+   * 이름과 회원 번호를 삭제한다. 비게 된 노드는 정리하고, 자식이 하나만 남은 노드는 합친다.
+   */
+  void remove(String name, int sequence) {
+    lock.writeLock().lock();
+    try {
+      Node parent = null;
+      Node node = root;
+      int i = 0;
+      while (i < name.length()) {
+        Node child = node.child(name.charAt(i));
+        if (child == null || !name.startsWith(child.label, i)) {
+          return;
+        }
+        parent = node;
+        node = child;
+        i += child.label.length();
+      }
+      if (!node.removeSequence(sequence) || node == root) {
+        return;
+      }
+      if (node.sequenceCount == 0 && node.childCount == 0) {
+        parent.removeChild(node);
+        if (parent != root && parent.sequenceCount == 0 && parent.childCount == 1) {
+          parent.mergeWithOnlyChild();
+        }
+      } else if (node.sequenceCount == 0 && node.childCount == 1) {
+        node.mergeWithOnlyChild();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * prefix로 시작하는 이름의 회원 번호를 이름 순으로 최대 limit개 리턴한다.
+   */
+  int[] prefix(String prefix, int limit) {
+    lock.readLock().lock();
+    try {
+      Node node = root;
+      int i = 0;
+      while (i < prefix.length()) {
+        Node child = node.child(prefix.charAt(i));
+        if (child == null) {
+          return NO_SEQUENCES;
+        }
+        int common = commonPrefix(child.label, prefix, i);
+        if (i + common < prefix.length() && common < child.label.length()) {
+          return NO_SEQUENCES;  // 간선 중간에서 글자가 달라짐
+        }
+        node = child;
+        i += common;
+      }
+      Collector collector = new Collector(limit);
+      collect(node, collector);
+      return Arrays.copyOf(collector.sequences, collector.size);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static void collect(Node node, Collector collector) {
+    for (int i = 0; i < node.sequenceCount && !collector.isFull(); i++) {
+      collector.add(node.sequences[i]);
+    }
+    for (int i = 0; i < node.childCount && !collector.isFull(); i++) {
+      collect(node.children[i], collector);
+    }
+  }
+
+  private static int commonPrefix(String label, String key, int from) {
+    int max = Math.min(label.length(), key.length() - from);
+    int i = 0;
+    while (i < max && label.charAt(i) == key.charAt(from + i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static final class Collector {
+    final int limit;
+    int[] sequences = new int[8];
+    int size;
+
+    Collector(int limit) {
+      this.limit = limit;
+    }
+
+    boolean isFull() {
+      return size >= limit;
+    }
+
+    void add(int sequence) {
+      if (size == sequences.length) {
+        sequences = Arrays.copyOf(sequences, size << 1);
+      }
+      sequences[size++] = sequence;
+    }
+  }
+
+  private static final class Node {
+    String label;
+    char[] firstChars = new char[0];
+    Node[] children = new Node[0];
+    int childCount;
+    int[] sequences = NO_SEQUENCES;
+    int sequenceCount;
+
+    Node(String label) {
+      this.label = label;
+    }
+
+    Node child(char c) {
+      int i = Arrays.binarySearch(firstChars, 0, childCount, c);
+      return i >= 0 ? children[i] : null;
+    }
+
+    void addChild(Node child) {
+      int i = -Arrays.binarySearch(firstChars, 0, childCount, child.label.charAt(0)) - 1;
+      if (childCount == children.length) {
+        int capacity = Math.max(2, childCount << 1);
+        firstChars = Arrays.copyOf(firstChars, capacity);
+        children = Arrays.copyOf(children, capacity);
+      }
+      System.arraycopy(firstChars, i, firstChars, i + 1, childCount - i);
+      System.arraycopy(children, i, children, i + 1, childCount - i);
+      firstChars[i] = child.label.charAt(0);
+      children[i] = child;
+      childCount++;
+    }
+
+    void removeChild(Node child) {
+      int i = Arrays.binarySearch(firstChars, 0, childCount, child.label.charAt(0));
+      System.arraycopy(firstChars, i + 1, firstChars, i, childCount - i - 1);
+      System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+      children[--childCount] = null;
+    }
+
+    /* child의 label을 at 위치에서 나누어 중간 노드를 만들고 리턴한다 */
+    Node split(Node child, int at) {
+      Node middle = new Node(child.label.substring(0, at));
+      children[Arrays.binarySearch(firstChars, 0, childCount, child.label.charAt(0))] = middle;
+      child.label = child.label.substring(at);
+      middle.addChild(child);
+      return middle;
+    }
+
+    /* 회원 번호가 없고 자식이 하나뿐인 노드를 그 자식과 합친다 */
+    void mergeWithOnlyChild() {
+      Node only = children[0];
+      label = label + only.label;
+      firstChars = only.firstChars;
+      children = only.children;
+      childCount = only.childCount;
+      sequences = only.sequences;
+      sequenceCount = only.sequenceCount;
+    }
+
+    void addSequence(int sequence) {
+      for (int i = 0; i < sequenceCount; i++) {
+        if (sequences[i] == sequence) {
+          return;
+        }
+      }
+      if (sequenceCount == sequences.length) {
+        sequences = Arrays.copyOf(sequences, Math.max(1, sequenceCount << 1));
+      }
+      sequences[sequenceCount++] = sequence;
+    }
+
+    boolean removeSequence(int sequence) {
+      for (int i = 0; i < sequenceCount; i++) {
+        if (sequences[i] == sequence) {
+          sequences[i] = sequences[--sequenceCount];
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
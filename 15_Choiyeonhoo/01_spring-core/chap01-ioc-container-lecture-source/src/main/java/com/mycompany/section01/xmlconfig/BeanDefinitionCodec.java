@@ -0,0 +1,301 @@
+package com.mycompany.section01.xmlconfig;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.core.SpringVersion;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * XML에서 읽은 빈 정의를 압축된 바이너리 형식으로 쓰고 읽는 클래스
+ * - &lt;bean&gt;의 속성(class, scope, lazy-init, init/destroy-method 등),
+ *   &lt;constructor-arg&gt;, &lt;property&gt;의 value / ref / idref 값을 지원한다.
+ * - 중첩 빈, 컬렉션, &lt;meta&gt;, lookup-method, qualifier 등 그 밖의 정의는
+ *   NotCacheableException을 던지고, 이 경우 호출하는 쪽은 캐시 없이 XML을 그대로 사용한다.
+ * - 헤더에 형식 버전과 Spring 버전을 기록하여 어느 쪽이든 바뀌면 캐시를 쓰지 않는다.
+ */
+class BeanDefinitionCodec {
+
+  private static final int MAGIC = 0x42444331;  // "BDC1"
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte VALUE_NULL = 0;
+  private static final byte VALUE_STRING = 1;
+  private static final byte VALUE_REF = 2;
+  private static final byte VALUE_IDREF = 3;
+
+  private static final int FLAG_ABSTRACT = 1;
+  private static final int FLAG_LAZY_SET = 1 << 1;
+  private static final int FLAG_LAZY = 1 << 2;
+  private static final int FLAG_PRIMARY = 1 << 3;
+  private static final int FLAG_AUTOWIRE_CANDIDATE = 1 << 4;
+  private static final int FLAG_ENFORCE_INIT = 1 << 5;
+  private static final int FLAG_ENFORCE_DESTROY = 1 << 6;
+
+  private BeanDefinitionCodec() {
+  }
+
+  /**
+   * 캐시로 저장할 수 없는 빈 정의가 있을 때 던지는 예외
+   */
+  static class NotCacheableException extends Exception {
+    NotCacheableException(String message) {
+      super(message);
+    }
+  }
+
+  /* 헤더에 기록하는 형식 버전과 Spring 버전 (캐시 파일 이름에도 넣는다) */
+  static String version() {
+    return FORMAT_VERSION + "/" + SpringVersion.getVersion();
+  }
+
+  /**
+   * registry에 등록된 모든 빈 정의와 별칭을 기록한다.
+   */
+  static void write(BeanDefinitionRegistry registry, DataOutputStream out)
+      throws IOException, NotCacheableException {
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    writeString(out, SpringVersion.getVersion());
+
+    String[] names = registry.getBeanDefinitionNames();
+    out.writeInt(names.length);
+    for (String name : names) {
+      writeString(out, name);
+      writeDefinition(registry.getBeanDefinition(name), out);
+
+      String[] aliases = registry.getAliases(name);
+      out.writeInt(aliases.length);
+      for (String alias : aliases) {
+        writeString(out, alias);
+      }
+    }
+  }
+
+  /**
+   * 기록된 빈 정의를 registry에 등록한다.
+   * - 헤더가 맞지 않으면 아무것도 등록하지 않고 false를 리턴한다.
+   */
+  static boolean read(DataInputStream in, BeanDefinitionRegistry registry) throws IOException {
+    if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+        || !Objects.equals(SpringVersion.getVersion(), readString(in))) {
+      return false;
+    }
+
+    int count = in.readInt();
+    String[] names = new String[count];
+    GenericBeanDefinition[] definitions = new GenericBeanDefinition[count];
+    String[][] aliases = new String[count][];
+    for (int i = 0; i < count; i++) {
+      names[i] = readString(in);
+      definitions[i] = readDefinition(in);
+      aliases[i] = new String[in.readInt()];
+      for (int j = 0; j < aliases[i].length; j++) {
+        aliases[i][j] = readString(in);
+      }
+    }
+
+    // 중간에 파일이 잘려 있어도 일부만 등록되지 않도록 전부 읽은 뒤에 등록한다
+    for (int i = 0; i < count; i++) {
+      registry.registerBeanDefinition(names[i], definitions[i]);
+      for (String alias : aliases[i]) {
+        registry.registerAlias(names[i], alias);
+      }
+    }
+    return true;
+  }
+
+  private static void writeDefinition(BeanDefinition definition, DataOutputStream out)
+      throws IOException, NotCacheableException {
+    if (definition.getClass() != GenericBeanDefinition.class) {
+      throw new NotCacheableException("XML <bean>이 아닌 빈 정의 : " + definition.getClass().getName());
+    }
+    GenericBeanDefinition bd = (GenericBeanDefinition) definition;
+    if (bd.hasMethodOverrides() || !bd.getQualifiers().isEmpty() || bd.attributeNames().length > 0) {
+      throw new NotCacheableException("lookup-method, qualifier, meta는 캐시하지 않습니다 : " + bd);
+    }
+
+    writeString(out, bd.getBeanClassName());
+    writeString(out, bd.getParentName());
+    writeString(out, bd.getScope());
+    writeString(out, bd.getFactoryBeanName());
+    writeString(out, bd.getFactoryMethodName());
+    writeString(out, bd.getInitMethodName());
+    writeString(out, bd.getDestroyMethodName());
+    writeString(out, bd.getDescription());
+    writeString(out, bd.getResourceDescription());
+
+    int flags = 0;
+    if (bd.isAbstract()) flags |= FLAG_ABSTRACT;
+    if (bd.getLazyInit() != null) flags |= FLAG_LAZY_SET;
+    if (bd.isLazyInit()) flags |= FLAG_LAZY;
+    if (bd.isPrimary()) flags |= FLAG_PRIMARY;
+    if (bd.isAutowireCandidate()) flags |= FLAG_AUTOWIRE_CANDIDATE;
+    if (bd.isEnforceInitMethod()) flags |= FLAG_ENFORCE_INIT;
+    if (bd.isEnforceDestroyMethod()) flags |= FLAG_ENFORCE_DESTROY;
+    out.writeByte(flags);
+    out.writeByte(bd.getAutowireMode());
+    out.writeByte(bd.getDependencyCheck());
+    out.writeByte(bd.getRole());
+
+    String[] dependsOn = bd.getDependsOn();
+    out.writeInt(dependsOn == null ? -1 : dependsOn.length);
+    if (dependsOn != null) {
+      for (String dependency : dependsOn) {
+        writeString(out, dependency);
+      }
+    }
+
+    ConstructorArgumentValues args = bd.getConstructorArgumentValues();
+    Map<Integer, ValueHolder> indexed = args.getIndexedArgumentValues();
+    out.writeInt(indexed.size());
+    for (Map.Entry<Integer, ValueHolder> entry : indexed.entrySet()) {
+      out.writeInt(entry.getKey());
+      writeValueHolder(entry.getValue(), out);
+    }
+    out.writeInt(args.getGenericArgumentValues().size());
+    for (ValueHolder holder : args.getGenericArgumentValues()) {
+      writeValueHolder(holder, out);
+    }
+
+    PropertyValue[] properties = bd.getPropertyValues().getPropertyValues();
+    out.writeInt(properties.length);
+    for (PropertyValue property : properties) {
+      writeString(out, property.getName());
+      writeValue(property.getValue(), out);
+    }
+  }
+
+  private static GenericBeanDefinition readDefinition(DataInputStream in) throws IOException {
+    GenericBeanDefinition bd = new GenericBeanDefinition();
+    bd.setBeanClassName(readString(in));
+    bd.setParentName(readString(in));
+    bd.setScope(readString(in));
+    bd.setFactoryBeanName(readString(in));
+    bd.setFactoryMethodName(readString(in));
+    bd.setInitMethodName(readString(in));
+    bd.setDestroyMethodName(readString(in));
+    bd.setDescription(readString(in));
+    bd.setResourceDescription(readString(in));
+
+    int flags = in.readByte();
+    bd.setAbstract((flags & FLAG_ABSTRACT) != 0);
+    if ((flags & FLAG_LAZY_SET) != 0) {
+      bd.setLazyInit((flags & FLAG_LAZY) != 0);
+    }
+    bd.setPrimary((flags & FLAG_PRIMARY) != 0);
+    bd.setAutowireCandidate((flags & FLAG_AUTOWIRE_CANDIDATE) != 0);
+    bd.setEnforceInitMethod((flags & FLAG_ENFORCE_INIT) != 0);
+    bd.setEnforceDestroyMethod((flags & FLAG_ENFORCE_DESTROY) != 0);
+    bd.setAutowireMode(in.readByte());
+    bd.setDependencyCheck(in.readByte());
+    bd.setRole(in.readByte());
+
+    int dependsOnCount = in.readInt();
+    if (dependsOnCount >= 0) {
+      String[] dependsOn = new String[dependsOnCount];
+      for (int i = 0; i < dependsOnCount; i++) {
+        dependsOn[i] = readString(in);
+      }
+      bd.setDependsOn(dependsOn);
+    }
+
+    ConstructorArgumentValues args = new ConstructorArgumentValues();
+    for (int i = in.readInt(); i > 0; i--) {
+      int index = in.readInt();
+      args.addIndexedArgumentValue(index, readValueHolder(in));
+    }
+    for (int i = in.readInt(); i > 0; i--) {
+      args.addGenericArgumentValue(readValueHolder(in));
+    }
+    bd.setConstructorArgumentValues(args);
+
+    MutablePropertyValues properties = new MutablePropertyValues();
+    for (int i = in.readInt(); i > 0; i--) {
+      String name = readString(in);
+      properties.addPropertyValue(new PropertyValue(name, readValue(in)));
+    }
+    bd.setPropertyValues(properties);
+    return bd;
+  }
+
+  private static void writeValueHolder(ValueHolder holder, DataOutputStream out)
+      throws IOException, NotCacheableException {
+    writeString(out, holder.getType());
+    writeString(out, holder.getName());
+    writeValue(holder.getValue(), out);
+  }
+
+  private static ValueHolder readValueHolder(DataInputStream in) throws IOException {
+    String type = readString(in);
+    String name = readString(in);
+    return new ValueHolder(readValue(in), type, name);
+  }
+
+  private static void writeValue(Object value, DataOutputStream out)
+      throws IOException, NotCacheableException {
+    if (value == null) {
+      out.writeByte(VALUE_NULL);
+    } else if (value instanceof TypedStringValue typed && !typed.hasTargetType()) {
+      out.writeByte(VALUE_STRING);
+      writeString(out, typed.getValue());
+      writeString(out, typed.getTargetTypeName());
+      writeString(out, typed.getSpecifiedTypeName());
+    } else if (value instanceof RuntimeBeanReference ref && ref.getBeanType() == null) {
+      out.writeByte(VALUE_REF);
+      writeString(out, ref.getBeanName());
+      out.writeBoolean(ref.isToParent());
+    } else if (value instanceof RuntimeBeanNameReference idref) {
+      out.writeByte(VALUE_IDREF);
+      writeString(out, idref.getBeanName());
+    } else {
+      throw new NotCacheableException("지원하지 않는 값 형식 : " + value.getClass().getName());
+    }
+  }
+
+  private static Object readValue(DataInputStream in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_STRING: {
+        TypedStringValue typed = new TypedStringValue(readString(in));
+        typed.setTargetTypeName(readString(in));
+        typed.setSpecifiedTypeName(readString(in));
+        return typed;
+      }
+      case VALUE_REF: {
+        String beanName = readString(in);
+        return new RuntimeBeanReference(beanName, in.readBoolean());
+      }
+      case VALUE_IDREF:
+        return new RuntimeBeanNameReference(readString(in));
+      default:
+        throw new IOException("알 수 없는 값 형식 : " + tag);
+    }
+  }
+
+  /* null을 구분하기 위해 존재 여부 1byte를 먼저 기록한다 */
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
@@ -0,0 +1,162 @@
+package com.mycompany.section01.xmlconfig;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.parsing.EmptyReaderEventListener;
+import org.springframework.beans.factory.parsing.ImportDefinition;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.beans.factory.xml.ResourceEntityResolver;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * XML 설정 파일의 빈 정의를 바이너리 캐시로 저장해 두고 재사용하는 ApplicationContext
+ * - GenericXmlApplicationContext와 같은 방식으로 사용한다.
+ *   new CachedXmlApplicationContext("section01/xmlconfig/spring-context.xml")
+ * - 캐시 파일 이름은 XML 내용, 활성/기본 profile, 캐시 형식과 Spring 버전을 합친 SHA-256 값이므로
+ *   어느 것이 바뀌어도 다른 캐시를 쓴다. (&lt;beans profile="..."&gt; 블록은 파싱할 때 profile에 따라 걸러진다)
+ * - XML이 바뀌지 않았으면 DOM 파싱과 XSD 검증 없이 캐시에서 빈 정의를 읽어 등록한다.
+ * - &lt;import&gt;, component-scan 등 캐시할 수 없는 정의가 있는 XML은 매번 그대로 파싱한다.
+ */
+public class CachedXmlApplicationContext extends GenericApplicationContext {
+
+  /** 캐시 디렉토리를 지정하지 않았을 때 사용하는 경로 */
+  public static final Path DEFAULT_CACHE_DIR =
+      Path.of(System.getProperty("java.io.tmpdir"), "spring-bean-definition-cache");
+
+  private static final Log logger = LogFactory.getLog(CachedXmlApplicationContext.class);
+
+  private final Path cacheDir;
+
+  public CachedXmlApplicationContext(String... resourceLocations) {
+    this(DEFAULT_CACHE_DIR, resourceLocations);
+  }
+
+  public CachedXmlApplicationContext(Path cacheDir, String... resourceLocations) {
+    this.cacheDir = cacheDir;
+    for (String location : resourceLocations) {
+      load(getResource(location));
+    }
+    refresh();
+  }
+
+  public CachedXmlApplicationContext(Path cacheDir, Resource... resources) {
+    this.cacheDir = cacheDir;
+    for (Resource resource : resources) {
+      load(resource);
+    }
+    refresh();
+  }
+
+  private void load(Resource resource) {
+    byte[] xml;
+    try {
+      xml = resource.getContentAsByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException("XML 설정 파일을 읽을 수 없습니다 : " + resource, e);
+    }
+    Path cacheFile = cacheDir.resolve(cacheKey(xml) + ".beans");
+
+    if (loadFromCache(cacheFile)) {
+      return;
+    }
+
+    // 캐시가 없으면 별도 registry에 파싱한 뒤 캐시로 저장하고 이 컨텍스트로 옮긴다
+    SimpleBeanDefinitionRegistry parsed = new SimpleBeanDefinitionRegistry();
+    boolean[] hasImport = {false};
+    XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(parsed);
+    reader.setEnvironment(getEnvironment());
+    reader.setResourceLoader(this);
+    reader.setEntityResolver(new ResourceEntityResolver(this));
+    reader.setEventListener(new EmptyReaderEventListener() {
+      @Override
+      public void importProcessed(ImportDefinition importDefinition) {
+        hasImport[0] = true;  // import된 파일의 변경은 해시로 알 수 없으므로 캐시하지 않는다
+      }
+    });
+    reader.loadBeanDefinitions(resource);
+
+    if (!hasImport[0]) {
+      writeCache(parsed, cacheFile);
+    }
+    for (String name : parsed.getBeanDefinitionNames()) {
+      registerBeanDefinition(name, parsed.getBeanDefinition(name));
+      for (String alias : parsed.getAliases(name)) {
+        registerAlias(name, alias);
+      }
+    }
+  }
+
+  private boolean loadFromCache(Path cacheFile) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+      return BeanDefinitionCodec.read(in, this);
+    } catch (NoSuchFileException e) {
+      return false;
+    } catch (IOException e) {
+      logger.warn("빈 정의 캐시를 읽지 못해 XML을 다시 파싱합니다 : " + cacheFile, e);
+      return false;
+    }
+  }
+
+  /* 다른 프로세스가 반쯤 쓰인 파일을 읽지 않도록 임시 파일에 쓴 뒤 이름을 바꾼다 */
+  private static void writeCache(SimpleBeanDefinitionRegistry parsed, Path cacheFile) {
+    Path temp = null;
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      temp = Files.createTempFile(cacheFile.getParent(), "beans-", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        BeanDefinitionCodec.write(parsed, out);
+      }
+      Files.move(temp, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (BeanDefinitionCodec.NotCacheableException e) {
+      logger.debug("빈 정의 캐시를 만들지 않습니다 : " + e.getMessage());
+    } catch (IOException e) {
+      logger.warn("빈 정의 캐시를 저장하지 못했습니다 : " + cacheFile, e);
+    } finally {
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // 임시 파일 정리 실패는 무시한다
+        }
+      }
+    }
+  }
+
+  /* 같은 XML이라도 파싱 결과에 영향을 주는 환경(profile)이나 버전이 다르면 다른 키가 되도록 함께 해시한다 */
+  private String cacheKey(byte[] xml) {
+    String[] activeProfiles = getEnvironment().getActiveProfiles().clone();
+    String[] defaultProfiles = getEnvironment().getDefaultProfiles().clone();
+    Arrays.sort(activeProfiles);
+    Arrays.sort(defaultProfiles);
+    String environment = BeanDefinitionCodec.version()
+        + "\0active=" + String.join(",", activeProfiles)
+        + "\0default=" + String.join(",", defaultProfiles);
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(xml);
+      digest.update((byte) 0);
+      digest.update(environment.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+    }
+  }
+}
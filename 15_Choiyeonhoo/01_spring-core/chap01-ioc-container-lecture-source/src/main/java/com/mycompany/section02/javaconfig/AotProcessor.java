@@ -0,0 +1,49 @@
+package com.mycompany.section02.javaconfig;
+
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.FileSystemGeneratedFiles;
+import org.springframework.aot.generate.GeneratedFiles.Kind;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.javapoet.ClassName;
+
+import java.nio.file.Path;
+
+/* ConfigurationContext의 빈 정의를 빌드 시점에 Java 코드로 만들어 두는 AOT 처리기
+ * - build.gradle의 processAot 태스크가 실행한다 : ./gradlew processAot
+ * - 컨텍스트를 refresh 하지 않고 빈 정의만 분석하여
+ *   ConfigurationContext__ApplicationContextInitializer / ConfigurationContext__BeanDefinitions 를 생성한다.
+ * - 생성된 코드는 aot 소스셋(AotApplication)에서 컴파일되어
+ *   실행 시 reflection이나 CGLIB 없이 빈 정의를 등록한다.
+ *
+ * args : [0] 소스 출력 경로, [1] 리소스 출력 경로, [2] 클래스 출력 경로 */
+public class AotProcessor {
+
+  public static void main(String[] args) {
+    if (args.length != 3) {
+      throw new IllegalArgumentException("사용법 : AotProcessor <sourceOutput> <resourceOutput> <classOutput>");
+    }
+    Path sourceOutput = Path.of(args[0]);
+    Path resourceOutput = Path.of(args[1]);
+    Path classOutput = Path.of(args[2]);
+
+    // refresh 전의 컨텍스트에 설정 클래스만 등록 (processAheadOfTime이 AOT 전용 refresh를 수행한다)
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(ConfigurationContext.class);
+
+    DefaultGenerationContext generationContext = new DefaultGenerationContext(
+        new ClassNameGenerator(ClassName.get(ConfigurationContext.class)),
+        new FileSystemGeneratedFiles(kind -> switch (kind) {
+          case SOURCE -> sourceOutput;
+          case RESOURCE -> resourceOutput;
+          case CLASS -> classOutput;
+        }));
+
+    ClassName initializer = new ApplicationContextAotGenerator()
+        .processAheadOfTime(context, generationContext);
+    generationContext.writeGeneratedContent();
+
+    System.out.println("generated initializer = " + initializer.canonicalName());
+  }
+}
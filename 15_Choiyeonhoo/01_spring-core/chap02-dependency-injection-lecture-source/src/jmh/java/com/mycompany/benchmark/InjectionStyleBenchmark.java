@@ -0,0 +1,81 @@
+package com.mycompany.benchmark;
+
+import com.mycompany.common.MemberDTO;
+import com.mycompany.common.MethodHandleBeanFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.concurrent.TimeUnit;
+
+/* 주입 방식별 prototype 빈 생성(getBean) 비용 비교
+ * - xmlConstructor : <constructor-arg>로 MemberDTO 생성 (section01 생성자 주입)
+ * - xmlSetter      : 기본 생성자 + <property> (section01 Setter 주입)
+ * - javaConfig     : @Bean 메서드 안에서 직접 조립 (section02)
+ * - factory
+ *   default      : DefaultListableBeanFactory (Constructor.newInstance, BeanWrapper를 통한 setter 호출)
+ *   methodHandle : MethodHandleBeanFactory (캐시된 MethodHandle로 생성자/팩토리 메서드/setter 호출)
+ * - member와 account 모두 prototype이므로 getBean 한 번에 빈 두 개가 새로 만들어진다.
+ * - 빈 하나당 할당량은 gc 프로파일러 결과의 gc.alloc.rate.norm (B/op)으로 확인한다. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionStyleBenchmark {
+
+  @Param({"xmlConstructor", "xmlSetter", "javaConfig"})
+  private String style;
+
+  @Param({"default", "methodHandle"})
+  private String factory;
+
+  private GenericApplicationContext context;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    DefaultListableBeanFactory beanFactory = switch (factory) {
+      case "default" -> new DefaultListableBeanFactory();
+      case "methodHandle" -> new MethodHandleBeanFactory();
+      default -> throw new IllegalArgumentException("알 수 없는 BeanFactory : " + factory);
+    };
+    context = switch (style) {
+      case "xmlConstructor" -> xmlContext(beanFactory, "benchmark/prototype-constructor-context.xml");
+      case "xmlSetter" -> xmlContext(beanFactory, "benchmark/prototype-setter-context.xml");
+      case "javaConfig" -> {
+        AnnotationConfigApplicationContext annotationContext = new AnnotationConfigApplicationContext(beanFactory);
+        annotationContext.register(PrototypeContextConfiguration.class);
+        yield annotationContext;
+      }
+      default -> throw new IllegalArgumentException("알 수 없는 주입 방식 : " + style);
+    };
+    context.refresh();
+
+    // 두 BeanFactory가 같은 빈을 만드는지 확인한다
+    MemberDTO member = member();
+    if (member == member() || member.getPersonalAccount() == null
+        || !"홍길동".equals(member.getName()) || member.getSequence() != 1) {
+      throw new IllegalStateException("빈이 올바르게 만들어지지 않았습니다 : " + member);
+    }
+  }
+
+  @Benchmark
+  public MemberDTO member() {
+    return context.getBean("member", MemberDTO.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    context.close();
+  }
+
+  private static GenericApplicationContext xmlContext(DefaultListableBeanFactory beanFactory, String location) {
+    GenericApplicationContext xmlContext = new GenericApplicationContext(beanFactory);
+    new XmlBeanDefinitionReader(xmlContext).loadBeanDefinitions(new ClassPathResource(location));
+    return xmlContext;
+  }
+}
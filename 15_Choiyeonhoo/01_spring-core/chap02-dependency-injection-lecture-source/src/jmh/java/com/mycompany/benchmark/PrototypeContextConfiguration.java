@@ -0,0 +1,30 @@
+package com.mycompany.benchmark;
+
+import com.mycompany.common.Account;
+import com.mycompany.common.MemberDTO;
+import com.mycompany.common.PersonalAccount;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
+
+/* InjectionStyleBenchmark 용 : section02 ContextConfiguration과 같고, getBean마다 새로 만들도록 prototype으로 둔다
+ * - section02와 같이 @Configuration 없이(lite 모드) 쓰므로 account() 호출은 프록시를 거치지 않는 일반 메서드 호출이다. */
+public class PrototypeContextConfiguration {
+
+  @Bean("account")
+  @Scope("prototype")
+  public Account account() {
+    return new PersonalAccount(20, "110-234-567890");
+  }
+
+  @Bean("member")
+  @Scope("prototype")
+  public MemberDTO member() {
+    MemberDTO member = new MemberDTO();
+    member.setSequence(1);
+    member.setName("홍길동");
+    member.setPhone("010-1234-5678");
+    member.setEmail("hong123@gmail.com");
+    member.setPersonalAccount(account());
+    return member;
+  }
+}
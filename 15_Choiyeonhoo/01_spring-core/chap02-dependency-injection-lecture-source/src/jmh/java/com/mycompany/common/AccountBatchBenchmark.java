@@ -0,0 +1,93 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/* 월말 이자 일괄 처리 시간 비교 (계좌 10,000,000개, 연 1.25% → 125bp 한 번 적용)
+ * - loop          : 기존 방식. 계좌를 하나씩 돌며 입금 (결과 기록 없음)
+ * - engine_single : AccountBatchEngine, ForkJoinPool 스레드 1개 (결과/checkpoint 기록 비용 확인용)
+ * - engine        : AccountBatchEngine, ForkJoinPool.commonPool()
+ * - 결과 파일은 작업 디렉터리 아래 build/tmp에 만들고 호출마다 지운다 (계좌 1,000만 개에 약 320MB) */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class AccountBatchBenchmark {
+
+  private static final AccountBatchRule INTEREST = AccountBatchRule.interest(125);
+
+  @Param({"10000000"})
+  private int accounts;
+
+  @Param({"loop", "engine_single", "engine"})
+  private String impl;
+
+  private List<PersonalAccount> list;
+  private AccountBatchEngine engine;
+  private ForkJoinPool singlePool;
+  private Path runDirectory;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    list = new ArrayList<>(accounts);
+    for (int i = 0; i < accounts; i++) {
+      PersonalAccount account = new PersonalAccount(20, "111-" + i);
+      account.tryDeposit(1_000_000 + i % 1_000);
+      list.add(account);
+    }
+    if ("engine_single".equals(impl)) {
+      singlePool = new ForkJoinPool(1);
+      engine = new AccountBatchEngine(singlePool, 4096);
+    } else {
+      engine = new AccountBatchEngine();
+    }
+    Files.createDirectories(Path.of("build", "tmp"));
+  }
+
+  @Setup(Level.Invocation)
+  public void newRunDirectory() throws IOException {
+    runDirectory = Files.createTempDirectory(Path.of("build", "tmp"), "batch");
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteRunDirectory() throws IOException {
+    try (Stream<Path> files = Files.walk(runDirectory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (singlePool != null) {
+      singlePool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public long interestRun() throws IOException {
+    if ("loop".equals(impl)) {
+      long total = 0;
+      for (PersonalAccount account : list) {
+        long adjustment = INTEREST.adjustment(account.currentBalance());
+        if (AccountResult.isSuccess(account.tryDeposit(Math.toIntExact(adjustment)))) {
+          total += adjustment;
+        }
+      }
+      return total;
+    }
+    return engine.run(list, INTEREST, runDirectory, null).getTotalAdjustment();
+  }
+}
@@ -0,0 +1,143 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/* 거래 원장 기록 처리량 비교 (로컬 디스크, 작업 디렉터리 아래 build/tmp에 파일을 만든다)
+ * - perOperation : 기록할 때마다 lock 안에서 write + fsync (기존에 흔히 쓰는 방식)
+ * - group        : AccountLedger (동시에 들어온 기록을 write 1번 + fsync 1번으로 묶음)
+ * - maxLatencyMicros : group 모드에서 배치를 모으기 위해 fsync를 미루는 최대 시간
+ * - 스레드마다 자기 계좌에 입금한다 (계좌 잔액 CAS 경합 없이 원장 비용만 측정)
+ * - perOperation 모드는 maxLatencyMicros와 무관하다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountLedgerBenchmark {
+
+  private static final int MONEY = 1000;
+
+  @Param({"perOperation", "group"})
+  private String mode;
+
+  @Param({"0", "200"})
+  private long maxLatencyMicros;
+
+  private Path directory;
+  private AccountLedger ledger;
+  private PerOperationLedger perOperationLedger;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Files.createDirectories(Path.of("build", "tmp"));
+    directory = Files.createTempDirectory(Path.of("build", "tmp"), "ledger");
+    if ("group".equals(mode)) {
+      ledger = AccountLedger.open(directory.resolve("account.ledger"), Duration.ofNanos(maxLatencyMicros * 1000));
+    } else {
+      perOperationLedger = new PerOperationLedger(directory.resolve("account.ledger"));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    if (ledger != null) {
+      ledger.close();
+    }
+    if (perOperationLedger != null) {
+      perOperationLedger.channel.close();
+    }
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadAccount {
+    String accNo;
+    PersonalAccount personal;
+    LedgerAccount ledgerAccount;
+
+    @Setup(Level.Trial)
+    public void setUp(AccountLedgerBenchmark benchmark) {
+      accNo = "111-1111-" + Thread.currentThread().getId();
+      personal = new PersonalAccount(20, accNo);
+      if (benchmark.ledger != null) {
+        ledgerAccount = new LedgerAccount(accNo, personal, benchmark.ledger);
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long deposit_1thread(ThreadAccount thread) {
+    return deposit(thread);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long deposit_8threads(ThreadAccount thread) {
+    return deposit(thread);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public long deposit_32threads(ThreadAccount thread) {
+    return deposit(thread);
+  }
+
+  private long deposit(ThreadAccount thread) {
+    if (thread.ledgerAccount != null) {
+      return thread.ledgerAccount.tryDeposit(MONEY);
+    }
+    long result = thread.personal.tryDeposit(MONEY);
+    perOperationLedger.record(thread.accNo, AccountLedger.DEPOSIT, MONEY, AccountResult.balance(result));
+    return result;
+  }
+
+  /* 비교 기준 : 기록마다 lock 안에서 write + fsync */
+  static final class PerOperationLedger {
+    final FileChannel channel;
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+    long sequence;
+
+    PerOperationLedger(Path path) throws IOException {
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    synchronized void record(String accNo, byte type, int amount, long balance) {
+      byte[] accNoBytes = accNo.getBytes(StandardCharsets.UTF_8);
+      buffer.clear()
+          .putLong(++sequence)
+          .put(type)
+          .putInt(amount)
+          .putLong(balance)
+          .putShort((short) accNoBytes.length)
+          .put(accNoBytes)
+          .flip();
+      try {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(false);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* 잔액 경계에서의 동시 출금 정합성 검사 (jcstress 방식의 스트레스 벤치마크)
+ * - 잔액을 적게 두고 출금 스레드 4개, 입금 스레드 1개, 잔액 관찰 스레드 1개를 동시에 돌려
+ *   "잔액 확인 → 차감" 사이에 다른 출금이 끼어드는 상황을 계속 만든다.
+ * - 관찰 스레드가 음수 잔액을 한 번이라도 보거나, iteration이 끝났을 때
+ *   (초기 잔액 + 입금 합계 - 성공한 출금 합계)가 실제 잔액과 다르면 IllegalStateException으로 실패한다. */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountOverdraftStressBenchmark {
+
+  private static final int INITIAL_BALANCE = 1000;
+  private static final int DEPOSIT = 10;
+  private static final int WITHDRAW = 30;
+
+  private PersonalAccount account;
+  private final LongAdder deposited = new LongAdder();
+  private final LongAdder withdrawn = new LongAdder();
+  private final LongAdder negativeObserved = new LongAdder();
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    account = new PersonalAccount(20, "111-1111-1111111");
+    account.deposit(INITIAL_BALANCE);
+    deposited.reset();
+    withdrawn.reset();
+    negativeObserved.reset();
+  }
+
+  @TearDown(Level.Iteration)
+  public void verify() {
+    long expected = INITIAL_BALANCE + deposited.sum() - withdrawn.sum();
+    long actual = account.currentBalance();
+    if (negativeObserved.sum() > 0) {
+      throw new IllegalStateException("음수 잔액 관찰 : " + negativeObserved.sum() + "회");
+    }
+    if (expected != actual) {
+      throw new IllegalStateException("잔액 불일치 : 예상 " + expected + "원, 실제 " + actual + "원");
+    }
+  }
+
+  @Benchmark
+  @Group("overdraft")
+  @GroupThreads(4)
+  public boolean withdraw() {
+    long result = account.tryWithDraw(WITHDRAW);
+    if (AccountResult.isSuccess(result)) {
+      withdrawn.add(WITHDRAW);
+    }
+    return AccountResult.isSuccess(result);
+  }
+
+  @Benchmark
+  @Group("overdraft")
+  @GroupThreads(1)
+  public long deposit() {
+    long result = account.tryDeposit(DEPOSIT);
+    deposited.add(DEPOSIT);
+    return result;
+  }
+
+  @Benchmark
+  @Group("overdraft")
+  @GroupThreads(1)
+  public long observe() {
+    long balance = account.currentBalance();
+    if (balance < 0) {
+      negativeObserved.increment();
+    }
+    return balance;
+  }
+}
@@ -0,0 +1,57 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/* 입금/출금 결과를 받는 방식별 비용 비교 (단일 스레드)
+ * - message_* : 기존 String API (deposit, withDraw). 호출마다 안내 문구를 만든다
+ * - result_*  : tryDeposit, tryWithDraw. 결과 코드와 잔액을 long 하나로 받는다
+ * - 할당량은 gc 프로파일러(build.gradle의 jmh.profilers) 결과의 gc.alloc.rate.norm (B/op)으로 확인한다.
+ *   result_* 는 0 B/op 이어야 한다 */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountResultBenchmark {
+
+  private static final int MONEY = 1000;
+
+  private PersonalAccount account;
+
+  @Setup
+  public void setUp() {
+    account = new PersonalAccount(20, "111-1111-1111111");
+    account.tryDeposit(1_000_000);
+  }
+
+  @Benchmark
+  public String message_deposit() {
+    return account.deposit(MONEY);
+  }
+
+  @Benchmark
+  public String message_withdraw() {
+    account.tryDeposit(MONEY);
+    return account.withDraw(MONEY);
+  }
+
+  @Benchmark
+  public long result_deposit() {
+    return account.tryDeposit(MONEY);
+  }
+
+  @Benchmark
+  public long result_withdraw() {
+    account.tryDeposit(MONEY);
+    return account.tryWithDraw(MONEY);
+  }
+
+  /* 실패(잔액 부족) 문구는 캐시된 String을 그대로 쓰므로 할당이 없다 */
+  @Benchmark
+  public String message_insufficient() {
+    return account.withDraw(Integer.MAX_VALUE);
+  }
+}
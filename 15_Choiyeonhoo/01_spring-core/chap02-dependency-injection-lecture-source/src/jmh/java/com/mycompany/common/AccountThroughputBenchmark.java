@@ -0,0 +1,59 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/* 한 계좌에 여러 스레드가 동시에 입금/출금할 때의 처리량 비교
+ * - cas          : PersonalAccount (VarHandle CAS, lock 없음)
+ * - synchronized : SynchronizedAccount (기존 로직 + synchronized)
+ * - 한 번의 호출에서 입금 1번, 출금 1번을 하므로 잔액은 초기 잔액 근처에 머문다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountThroughputBenchmark {
+
+  private static final int MONEY = 1000;
+
+  @Param({"cas", "synchronized"})
+  private String impl;
+
+  private Account account;
+
+  @Setup
+  public void setUp() {
+    if ("synchronized".equals(impl)) {
+      account = new SynchronizedAccount("111-1111-1111111");
+    } else {
+      account = new PersonalAccount(20, "111-1111-1111111");
+    }
+    account.deposit(1_000_000);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void depositWithdraw_1thread(Blackhole blackhole) {
+    depositWithdraw(blackhole);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void depositWithdraw_8threads(Blackhole blackhole) {
+    depositWithdraw(blackhole);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public void depositWithdraw_32threads(Blackhole blackhole) {
+    depositWithdraw(blackhole);
+  }
+
+  private void depositWithdraw(Blackhole blackhole) {
+    blackhole.consume(account.deposit(MONEY));
+    blackhole.consume(account.withDraw(MONEY));
+  }
+}
@@ -0,0 +1,81 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/* AccountRegistry 이체 처리량 (계좌 1,000,000개, 무작위 두 계좌 간 이체)
+ * - 스레드 수를 늘려도 stripe lock이 나뉘어 있으므로 처리량이 함께 늘어야 한다
+ * - iteration이 끝날 때 전체 잔액 합계가 처음과 같은지 확인한다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountTransferBenchmark {
+
+  static final int INITIAL_BALANCE = 100_000;
+
+  @Param({"1000000"})
+  private int accounts;
+
+  private AccountRegistry registry;
+  private String[] accNos;
+  private long expectedTotal;
+
+  @Setup
+  public void setUp() {
+    registry = new AccountRegistry(accounts, 1024);
+    accNos = createAccounts(registry, accounts);
+    expectedTotal = (long) INITIAL_BALANCE * accounts;
+  }
+
+  @TearDown(Level.Iteration)
+  public void verify() {
+    long total = registry.totalBalance();
+    if (total != expectedTotal) {
+      throw new IllegalStateException("전체 잔액 불일치 : 예상 " + expectedTotal + "원, 실제 " + total + "원");
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long transfer_1thread() {
+    return transfer();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long transfer_8threads() {
+    return transfer();
+  }
+
+  @Benchmark
+  @Threads(32)
+  public long transfer_32threads() {
+    return transfer();
+  }
+
+  private long transfer() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int from = random.nextInt(accounts);
+    int to = random.nextInt(accounts - 1);
+    if (to >= from) {
+      to++;
+    }
+    return registry.transfer(accNos[from], accNos[to], random.nextInt(1, 50_000));
+  }
+
+  static String[] createAccounts(AccountRegistry registry, int accounts) {
+    String[] accNos = new String[accounts];
+    for (int i = 0; i < accounts; i++) {
+      accNos[i] = String.format("111-%04d-%07d", i % 10_000, i);
+      PersonalAccount account = new PersonalAccount(20, accNos[i]);
+      account.tryDeposit(INITIAL_BALANCE);
+      registry.register(account);
+    }
+    return accNos;
+  }
+}
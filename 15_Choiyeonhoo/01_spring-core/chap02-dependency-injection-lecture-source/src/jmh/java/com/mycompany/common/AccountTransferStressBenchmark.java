@@ -0,0 +1,78 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* 무작위 동시 이체 중 전체 잔액 보존 검사 (jcstress 방식의 스트레스 벤치마크)
+ * - 계좌를 적게(1,000개) 두어 같은 계좌, 같은 stripe에 대한 반대 방향 이체가 자주 겹치게 한다
+ * - 이체 스레드 7개가 도는 동안 감사 스레드 1개가 totalBalance()를 계속 확인한다.
+ *   합계가 한 번이라도 달라지거나 음수 잔액 계좌가 생기면 iteration이 끝날 때 실패한다.
+ * - 교착이 생기면 iteration이 끝나지 않으므로 JMH timeout으로 드러난다 */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Timeout(time = 30)
+public class AccountTransferStressBenchmark {
+
+  private static final int ACCOUNTS = 1_000;
+
+  private AccountRegistry registry;
+  private String[] accNos;
+  private long expectedTotal;
+  private final LongAdder violations = new LongAdder();
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    registry = new AccountRegistry(ACCOUNTS, 64);
+    accNos = AccountTransferBenchmark.createAccounts(registry, ACCOUNTS);
+    expectedTotal = (long) AccountTransferBenchmark.INITIAL_BALANCE * ACCOUNTS;
+    violations.reset();
+  }
+
+  @TearDown(Level.Iteration)
+  public void verify() {
+    if (violations.sum() > 0) {
+      throw new IllegalStateException("전체 잔액이 달라진 감사 결과 : " + violations.sum() + "회");
+    }
+    for (String accNo : accNos) {
+      if (registry.find(accNo).currentBalance() < 0) {
+        throw new IllegalStateException("음수 잔액 계좌 : " + accNo);
+      }
+    }
+    long total = registry.totalBalance();
+    if (total != expectedTotal) {
+      throw new IllegalStateException("전체 잔액 불일치 : 예상 " + expectedTotal + "원, 실제 " + total + "원");
+    }
+  }
+
+  @Benchmark
+  @Group("conservation")
+  @GroupThreads(7)
+  public long transfer() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int from = random.nextInt(ACCOUNTS);
+    int to = random.nextInt(ACCOUNTS - 1);
+    if (to >= from) {
+      to++;
+    }
+    // 잔액보다 큰 금액도 섞어서 잔액 부족 경로도 함께 확인한다
+    return registry.transfer(accNos[from], accNos[to], random.nextInt(1, 2 * AccountTransferBenchmark.INITIAL_BALANCE));
+  }
+
+  @Benchmark
+  @Group("conservation")
+  @GroupThreads(1)
+  public long audit() {
+    long total = registry.totalBalance();
+    if (total != expectedTotal) {
+      violations.increment();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/* 이벤트 100,000,000건이 쌓인 EventSourcedAccount의 복구 시간 비교
+ * - snapshot   : 스냅샷 위치부터 뒤쪽 tailEvents건만 다시 적용
+ * - noSnapshot : 원장 전체를 다시 적용
+ * - 원장 파일은 작업 디렉터리 아래 build/tmp에 만들며 약 4GB를 차지한다 (trial이 끝나면 지운다)
+ * - 복구할 때마다 close()가 새 스냅샷을 남기므로, 매 호출 전에 처음 만든 스냅샷으로 되돌린다 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventSourcedRecoveryBenchmark {
+
+  private static final String ACC_NO = "111-1111";
+
+  @Param({"100000000"})
+  private int events;
+
+  @Param({"1000000"})
+  private int tailEvents;
+
+  @Param({"snapshot", "noSnapshot"})
+  private String recovery;
+
+  private Path directory;
+  private byte[] snapshot;
+  private long expectedBalance;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Files.createDirectories(Path.of("build", "tmp"));
+    directory = Files.createTempDirectory(Path.of("build", "tmp"), "events");
+
+    // 이벤트마다 fsync를 기다리지 않도록 원장에 직접 append하고, 스냅샷은 tailEvents건 앞에서 남긴다
+    try (AccountLedger ledger = AccountLedger.open(directory.resolve(EventSourcedAccount.EVENTS_FILE))) {
+      long balance = 0;
+      long sequence = 0;
+      for (int i = 0; i < events; i++) {
+        if (i == events - tailEvents) {
+          ledger.awaitDurable(sequence);
+          EventSourcedAccount.writeSnapshot(directory, ledger.durablePosition());
+        }
+        if (i % 3 == 2) {
+          balance -= 500;
+          sequence = ledger.append(ACC_NO, AccountLedger.WITHDRAW, 500, balance);
+        } else {
+          balance += 1000;
+          sequence = ledger.append(ACC_NO, AccountLedger.DEPOSIT, 1000, balance);
+        }
+      }
+      expectedBalance = balance;
+    }
+    snapshot = Files.readAllBytes(directory.resolve(EventSourcedAccount.SNAPSHOT_FILE));
+  }
+
+  @Setup(Level.Invocation)
+  public void restoreSnapshot() throws IOException {
+    Files.write(directory.resolve(EventSourcedAccount.SNAPSHOT_FILE), snapshot);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Benchmark
+  public long recover() throws IOException {
+    try (EventSourcedAccount account = EventSourcedAccount.open(
+        directory, ACC_NO, Duration.ZERO, "snapshot".equals(recovery))) {
+      long balance = account.currentBalance();
+      if (balance != expectedBalance) {
+        throw new IllegalStateException("복구된 잔액 불일치 : 예상 " + expectedBalance + "원, 실제 " + balance + "원");
+      }
+      return balance;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.mycompany.common;
+
+/* 비교 기준 : 기존 PersonalAccount의 입금/출금 로직을 synchronized 메서드로 감싼 계좌 */
+public class SynchronizedAccount implements Account {
+
+  private final String accNo;
+  private long balance;
+
+  public SynchronizedAccount(String accNo) {
+    this.accNo = accNo;
+  }
+
+  @Override
+  public synchronized String getBalance() {
+    return AccountMessages.balance(this.accNo, this.balance);
+  }
+
+  @Override
+  public String deposit(int money) {
+    return AccountMessages.render(tryDeposit(money), money);
+  }
+
+  @Override
+  public String withDraw(int money) {
+    return AccountMessages.render(tryWithDraw(money), money);
+  }
+
+  @Override
+  public synchronized long currentBalance() {
+    return this.balance;
+  }
+
+  @Override
+  public synchronized long tryDeposit(int money) {
+    if (money < 0) {
+      return AccountResult.of(AccountResult.INVALID_AMOUNT, this.balance);
+    }
+    this.balance += money;
+    return AccountResult.of(AccountResult.DEPOSITED, this.balance);
+  }
+
+  @Override
+  public synchronized long tryWithDraw(int money) {
+    if (money < 0) {
+      return AccountResult.of(AccountResult.INVALID_AMOUNT, this.balance);
+    }
+    if (this.balance >= money) {
+      this.balance -= money;
+      return AccountResult.of(AccountResult.WITHDRAWN, this.balance);
+    }
+    return AccountResult.of(AccountResult.INSUFFICIENT_BALANCE, this.balance);
+  }
+}
@@ -0,0 +1,65 @@
+package com.mycompany.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/* 출금 한도(VelocityLimit) 확인이 출금 한 건에 더하는 지연 시간
+ * - plain   : PersonalAccount.tryWithDraw
+ * - limited : VelocityLimitedAccount (1분 window, 구간 60개). 한도는 측정 중에 걸리지 않도록 크게 둔다
+ * - *_ownAccount : 스레드마다 자기 계좌, *_sharedAccount : 8개 스레드가 한 계좌를 함께 사용 (계좌별 lock 경합)
+ * - 매 호출마다 같은 금액을 입금한 뒤 출금하므로 잔액은 줄지 않는다 (입금 비용은 두 방식에 똑같이 들어간다) */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VelocityLimitBenchmark {
+
+  private static final int MONEY = 1000;
+  private static final VelocityLimit LIMIT = VelocityLimit.of(Duration.ofMinutes(1), Integer.MAX_VALUE, Long.MAX_VALUE);
+
+  @Param({"plain", "limited"})
+  private String impl;
+
+  private Account shared;
+
+  @Setup
+  public void setUp() {
+    shared = newAccount(impl);
+  }
+
+  @State(Scope.Thread)
+  public static class Own {
+    Account account;
+
+    @Setup
+    public void setUp(VelocityLimitBenchmark benchmark) {
+      account = newAccount(benchmark.impl);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long withdraw_ownAccount(Own own) {
+    own.account.tryDeposit(MONEY);
+    return own.account.tryWithDraw(MONEY);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long withdraw_sharedAccount() {
+    shared.tryDeposit(MONEY);
+    return shared.tryWithDraw(MONEY);
+  }
+
+  private static Account newAccount(String impl) {
+    PersonalAccount account = new PersonalAccount(20, "111-1111-1111111");
+    account.tryDeposit(1_000_000);
+    return "limited".equals(impl)
+        ? new VelocityLimitedAccount(account.getAccNo(), account, LIMIT)
+        : account;
+  }
+}
@@ -11,4 +11,13 @@ public interface Account {
   /* 출금 */
   String withDraw(int money);
 
+  /* 잔액 조회 (문자열을 만들지 않는다) */
+  long currentBalance();
+
+  /* 입금 : 처리 결과와 입금 후 잔액을 AccountResult 형식의 long 하나로 리턴한다 (객체 생성 없음) */
+  long tryDeposit(int money);
+
+  /* 출금 : 처리 결과와 출금 후 잔액을 AccountResult 형식의 long 하나로 리턴한다 (객체 생성 없음) */
+  long tryWithDraw(int money);
+
 }
@@ -0,0 +1,354 @@
+package com.mycompany.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 계좌에 이자/수수료 규칙(AccountBatchRule)을 한 번에 적용하는 일괄 처리기
+ * - 계좌 목록을 chunkSize개씩 구간(chunk)으로 나누고, ForkJoinPool에서 구간을 반씩 쪼개며 병렬로 처리한다.
+ * - 결과는 runDirectory/results.dat 에 계좌 위치(index)마다 고정 크기 레코드로 기록한다.
+ *   구간마다 자기 위치에 바로 쓰므로(positional write), 메모리에는 처리 중인 구간의 버퍼만 둔다.
+ * - 구간 처리 순서
+ *   1. 적용 전 잔액과 적용할 금액(계획)을 기록하고 fsync
+ *   2. 계좌에 입금/출금
+ *   3. 실제 결과를 기록하고 fsync한 뒤 checkpoint.dat 에 그 구간을 완료로 표시
+ *      (결과가 디스크에 내려가기 전에 완료 표시가 먼저 내려가 계획 레코드가 남는 일이 없게 한다)
+ * - 중간에 죽은 뒤 같은 runDirectory로 다시 실행하면 완료된 구간은 건너뛰고,
+ *   완료되지 않은 구간은 계획 레코드와 현재 잔액을 비교해 이미 적용된 계좌에는 다시 적용하지 않는다.
+ *   (일괄 처리 중에는 다른 곳에서 계좌 잔액을 바꾸지 않는다고 가정한다)
+ * - 적용할 금액이 int 범위(입금/출금 한 번의 최대 금액)를 넘는 계좌는 적용하지 않고 INVALID_AMOUNT(거절)로 기록한다.
+ * - progress는 구간 하나를 마칠 때마다 (처리한 계좌 수, 전체 계좌 수)로 호출된다 (여러 스레드에서 호출될 수 있다)
+ */
+public class AccountBatchEngine {
+
+  /**
+   * 진행 상황을 받는 콜백
+   */
+  @FunctionalInterface
+  public interface Progress {
+    void onProgress(long processed, long total);
+  }
+
+  /**
+   * 일괄 처리 결과 요약 (results.dat 전체를 다시 읽어 만든다)
+   */
+  public static final class Summary {
+    private final long applied;
+    private final long rejected;
+    private final long totalAdjustment;
+    private final long unfinished;
+
+    Summary(long applied, long rejected, long totalAdjustment, long unfinished) {
+      this.applied = applied;
+      this.rejected = rejected;
+      this.totalAdjustment = totalAdjustment;
+      this.unfinished = unfinished;
+    }
+
+    /* 입금/출금이 반영된 계좌 수 */
+    public long getApplied() {
+      return applied;
+    }
+
+    /* 잔액 부족 등으로 반영되지 않은 계좌 수 */
+    public long getRejected() {
+      return rejected;
+    }
+
+    /* 반영된 금액 합계 (이자는 양수, 수수료는 음수) */
+    public long getTotalAdjustment() {
+      return totalAdjustment;
+    }
+
+    /* 결과가 기록되지 않은(계획 상태로 남은) 계좌 수. 반영/거절 어느 쪽에도 세지 않는다 (0이 아니면 결과 파일이 손상된 것) */
+    public long getUnfinished() {
+      return unfinished;
+    }
+  }
+
+  static final String RESULTS_FILE = "results.dat";
+  static final String CHECKPOINT_FILE = "checkpoint.dat";
+
+  private static final int RESULTS_MAGIC = 0x42525354;      // "BRST"
+  private static final int CHECKPOINT_MAGIC = 0x4243484B;   // "BCHK"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 24;                // magic(4) + version(4) + 계좌 수(8) + chunkSize(4) + 예비(4)
+  private static final int RECORD_SIZE = 32;                // 적용 전 잔액(8) + 금액(8) + 적용 후 잔액(8) + 결과 코드(4) + 상태(4)
+  private static final int DEFAULT_CHUNK_SIZE = 4096;
+
+  private static final int STATE_EMPTY = 0;
+  private static final int STATE_PLANNED = 1;
+  private static final int STATE_DONE = 2;
+
+  private static final int STATUS_PLANNED = -1;             // 계획 레코드의 결과 코드 (어떤 AccountResult 코드와도 다르다)
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  public AccountBatchEngine() {
+    this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  public AccountBatchEngine(ForkJoinPool pool, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다 : " + chunkSize);
+    }
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * accounts 전체에 rule을 적용한다. runDirectory에 이전 실행 기록이 있으면 이어서 처리한다.
+   * - accounts는 실행할 때마다 같은 순서여야 한다 (결과와 checkpoint가 목록의 위치 기준이다)
+   */
+  public Summary run(List<? extends Account> accounts, AccountBatchRule rule,
+                     Path runDirectory, Progress progress) throws IOException {
+    Files.createDirectories(runDirectory);
+    long count = accounts.size();
+    int chunks = (int) ((count + chunkSize - 1) / chunkSize);
+    try (FileChannel results = openRunFile(runDirectory.resolve(RESULTS_FILE), RESULTS_MAGIC, count);
+         FileChannel checkpoint = openRunFile(runDirectory.resolve(CHECKPOINT_FILE), CHECKPOINT_MAGIC, count)) {
+      byte[] done = new byte[chunks];
+      readFully(checkpoint, ByteBuffer.wrap(done), HEADER_SIZE);
+
+      Run run = new Run(accounts, rule, results, checkpoint, done, progress);
+      long alreadyDone = 0;
+      for (int c = 0; c < chunks; c++) {
+        if (done[c] != 0) {
+          alreadyDone += chunkLength(c, count);
+        }
+      }
+      run.processed.set(alreadyDone);
+      try {
+        pool.invoke(new ChunkTask(run, 0, chunks));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      results.force(false);
+      checkpoint.force(false);
+      return summarize(results, count);
+    }
+  }
+
+  private int chunkLength(int chunk, long count) {
+    return (int) Math.min(chunkSize, count - (long) chunk * chunkSize);
+  }
+
+  /* 실행 하나의 공유 상태 */
+  private final class Run {
+    final List<? extends Account> accounts;
+    final AccountBatchRule rule;
+    final FileChannel results;
+    final FileChannel checkpoint;
+    final byte[] done;
+    final Progress progress;
+    final AtomicLong processed = new AtomicLong();
+
+    Run(List<? extends Account> accounts, AccountBatchRule rule, FileChannel results,
+        FileChannel checkpoint, byte[] done, Progress progress) {
+      this.accounts = accounts;
+      this.rule = rule;
+      this.results = results;
+      this.checkpoint = checkpoint;
+      this.done = done;
+      this.progress = progress;
+    }
+  }
+
+  /* chunk 구간 [from, to)를 반씩 나누어 처리 */
+  private final class ChunkTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Run run;
+    private final int from;
+    private final int to;
+
+    ChunkTask(Run run, int from, int to) {
+      this.run = run;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new ChunkTask(run, from, middle), new ChunkTask(run, middle, to));
+        return;
+      }
+      if (from == to || run.done[from] != 0) {
+        return;
+      }
+      try {
+        processChunk(run, from);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void processChunk(Run run, int chunk) throws IOException {
+    long count = run.accounts.size();
+    int first = chunk * chunkSize;
+    int length = chunkLength(chunk, count);
+    long position = HEADER_SIZE + (long) first * RECORD_SIZE;
+    ByteBuffer records = ByteBuffer.allocate(length * RECORD_SIZE);
+    readFully(run.results, records, position);
+
+    // 1. 계획 : 이전 실행에서 이미 적용된 계좌(계획의 적용 후 잔액 == 현재 잔액)는 그대로 둔다
+    boolean[] apply = new boolean[length];
+    for (int i = 0; i < length; i++) {
+      int at = i * RECORD_SIZE;
+      long balance = run.accounts.get(first + i).currentBalance();
+      int state = records.getInt(at + 28);
+      if (state != STATE_EMPTY && records.getLong(at + 16) == balance
+          && (state == STATE_DONE || records.getLong(at) != balance)) {
+        if (state == STATE_PLANNED) {
+          records.putInt(at + 24, records.getLong(at + 8) > 0 ? AccountResult.DEPOSITED : AccountResult.WITHDRAWN)
+              .putInt(at + 28, STATE_DONE);
+        }
+        continue;
+      }
+      long adjustment = adjustment(run.rule, balance);
+      if (adjustment < -Integer.MAX_VALUE || adjustment > Integer.MAX_VALUE) {
+        // 입금/출금 한 번으로 처리할 수 없는 금액은 적용하지 않고 거절로 기록한다 (나누어 적용하면 재실행 시 적용 여부를 알 수 없다)
+        records.putLong(at, balance)
+            .putLong(at + 8, adjustment)
+            .putLong(at + 16, balance)
+            .putInt(at + 24, AccountResult.INVALID_AMOUNT)
+            .putInt(at + 28, STATE_DONE);
+        continue;
+      }
+      records.putLong(at, balance)
+          .putLong(at + 8, adjustment)
+          .putLong(at + 16, balance + adjustment)
+          .putInt(at + 24, STATUS_PLANNED)
+          .putInt(at + 28, STATE_PLANNED);
+      apply[i] = adjustment != 0;
+    }
+    writeFully(run.results, records, position);
+    run.results.force(false);
+
+    // 2. 적용 후 3. 결과 기록
+    for (int i = 0; i < length; i++) {
+      int at = i * RECORD_SIZE;
+      if (records.getInt(at + 28) == STATE_DONE) {
+        continue;
+      }
+      long adjustment = records.getLong(at + 8);
+      long result = AccountResult.of(AccountResult.DEPOSITED, records.getLong(at));
+      if (apply[i]) {
+        Account account = run.accounts.get(first + i);
+        result = adjustment > 0
+            ? account.tryDeposit((int) adjustment)
+            : account.tryWithDraw((int) -adjustment);
+      }
+      records.putLong(at + 16, AccountResult.balance(result))
+          .putInt(at + 24, AccountResult.status(result))
+          .putInt(at + 28, STATE_DONE);
+    }
+    writeFully(run.results, records, position);
+    run.results.force(false);       // 결과가 내려간 뒤에만 완료로 표시한다
+    run.done[chunk] = 1;
+    writeFully(run.checkpoint, ByteBuffer.wrap(new byte[] {1}), HEADER_SIZE + chunk);
+
+    long processed = run.processed.addAndGet(length);
+    if (run.progress != null) {
+      run.progress.onProgress(processed, count);
+    }
+  }
+
+  /* rule이 돌려준 금액. 계산이 long 범위를 넘으면(ArithmeticException) 넘친 방향의 끝 값으로 두어 거절되게 한다 */
+  private static long adjustment(AccountBatchRule rule, long balance) {
+    try {
+      return rule.adjustment(balance);
+    } catch (ArithmeticException e) {
+      return balance < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+  }
+
+  private static Summary summarize(FileChannel results, long count) throws IOException {
+    long applied = 0;
+    long rejected = 0;
+    long total = 0;
+    long unfinished = 0;
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * DEFAULT_CHUNK_SIZE);
+    for (long i = 0; i < count; i += DEFAULT_CHUNK_SIZE) {
+      int length = (int) Math.min(DEFAULT_CHUNK_SIZE, count - i);
+      buffer.clear().limit(length * RECORD_SIZE);
+      readFully(results, buffer, HEADER_SIZE + i * RECORD_SIZE);
+      for (int r = 0; r < length; r++) {
+        int at = r * RECORD_SIZE;
+        long adjustment = buffer.getLong(at + 8);
+        int status = buffer.getInt(at + 24);
+        if (buffer.getInt(at + 28) != STATE_DONE || status == STATUS_PLANNED) {
+          unfinished++;       // 완료로 표시된 구간인데 결과가 없다
+          continue;
+        }
+        if (adjustment == 0) {
+          continue;
+        }
+        if (AccountResult.isSuccess(AccountResult.of(status, 0))) {
+          applied++;
+          total += adjustment;
+        } else {
+          rejected++;
+        }
+      }
+    }
+    return new Summary(applied, rejected, total, unfinished);
+  }
+
+  /* 실행 파일을 열고 헤더를 확인한다. 새 파일이면 헤더를 쓴다 */
+  private FileChannel openRunFile(Path path, int magic, long count) throws IOException {
+    FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      if (channel.size() == 0) {
+        header.putInt(magic).putInt(VERSION).putLong(count).putInt(chunkSize).putInt(0).flip();
+        writeFully(channel, header, 0);
+        return channel;
+      }
+      readFully(channel, header, 0);
+      if (header.getInt(0) != magic || header.getInt(4) != VERSION) {
+        throw new IOException("일괄 처리 파일이 아니거나 버전이 다릅니다 : " + path);
+      }
+      if (header.getLong(8) != count || header.getInt(16) != chunkSize) {
+        throw new IOException("다른 일괄 처리의 파일입니다 (계좌 수 " + header.getLong(8)
+            + ", chunkSize " + header.getInt(16) + ") : " + path);
+      }
+      return channel;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /* position부터 buffer를 채운다. 파일 끝을 넘는 부분은 0으로 남는다 */
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    int start = buffer.position();
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position() - start) < 0) {
+        break;
+      }
+    }
+    buffer.position(start);
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    ByteBuffer view = buffer.duplicate().clear().limit(buffer.limit());
+    while (view.hasRemaining()) {
+      channel.write(view, position + view.position());
+    }
+  }
+}
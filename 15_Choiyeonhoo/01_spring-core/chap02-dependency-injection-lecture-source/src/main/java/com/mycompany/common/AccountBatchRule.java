@@ -0,0 +1,29 @@
+package com.mycompany.common;
+
+/**
+ * 일괄 처리(AccountBatchEngine)에서 계좌마다 적용할 규칙
+ * - 양수는 입금(이자), 음수는 출금(수수료), 0은 변경 없음
+ * - 중단 후 다시 실행할 때 같은 잔액에는 같은 금액을 돌려주어야 한다.
+ */
+@FunctionalInterface
+public interface AccountBatchRule {
+
+  /* balance에 적용할 금액 */
+  long adjustment(long balance);
+
+  /* 이자 : 잔액 × basisPoints / 10,000 (1bp = 0.01%, 원 단위 미만은 버림) */
+  static AccountBatchRule interest(int basisPoints) {
+    if (basisPoints < 0) {
+      throw new IllegalArgumentException("이율은 0 이상이어야 합니다 : " + basisPoints);
+    }
+    return balance -> Math.multiplyExact(balance, (long) basisPoints) / 10_000;
+  }
+
+  /* 수수료 : 잔액과 관계없이 fee만큼 출금 (잔액이 부족한 계좌는 처리하지 않는다) */
+  static AccountBatchRule fee(int fee) {
+    if (fee < 0) {
+      throw new IllegalArgumentException("수수료는 0 이상이어야 합니다 : " + fee);
+    }
+    return balance -> -fee;
+  }
+}
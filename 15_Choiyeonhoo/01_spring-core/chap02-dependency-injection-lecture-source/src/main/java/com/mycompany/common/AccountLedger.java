@@ -0,0 +1,449 @@
+package com.mycompany.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * 입금/출금 내역을 파일 끝에 이어 붙이기만 하는(append-only) 거래 원장
+ * - 파일 : 헤더 magic(4) + version(4) 뒤에 레코드가 이어진다.
+ * - 레코드 : 본문 길이(4) + 본문 CRC32C(4) + 본문
+ *           [순번(8) + 종류(1) + 금액(4) + 처리 후 잔액(8) + 계좌번호 길이(2) + 계좌번호(UTF-8)]
+ * - group commit : 여러 스레드의 레코드를 메모리 버퍼에 모아 두고, 기록 스레드가
+ *   write 1번 + fsync(FileChannel.force) 1번으로 한꺼번에 내려 쓴다.
+ *   record()는 자기 레코드가 디스크에 내려간 뒤에 리턴한다.
+ * - maxLatency : 배치의 첫 레코드가 들어온 뒤 다른 레코드를 더 모으려고 기다리는 최대 시간.
+ *   0이면 기다리지 않는다. 그래도 fsync하는 동안 들어온 레코드는 다음 배치로 묶여 내려간다.
+ * - open 시 마지막 레코드가 중간까지만 기록되어 있으면(길이 또는 CRC 불일치) 그 뒤를 잘라낸다.
+ *   이미 확인된 위치(Position, 예 : 스냅샷)를 주면 그 위치부터만 읽는다.
+ */
+public class AccountLedger implements Closeable {
+
+  public static final byte DEPOSIT = 1;     // 입금
+  public static final byte WITHDRAW = 2;    // 출금
+
+  private static final int MAGIC = 0x4C444752;          // "LDGR"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 8;             // magic(4) + version(4)
+  private static final int RECORD_HEADER_SIZE = 8;      // 본문 길이(4) + CRC32C(4)
+  private static final int FIXED_BODY_SIZE = 23;        // 순번(8) + 종류(1) + 금액(4) + 잔액(8) + 계좌번호 길이(2)
+  private static final int MAX_ACC_NO_BYTES = 255;
+  private static final int MAX_RECORD_SIZE = RECORD_HEADER_SIZE + FIXED_BODY_SIZE + MAX_ACC_NO_BYTES;
+  private static final int BATCH_BYTES = 1 << 20;
+  private static final int READ_BUFFER_SIZE = 1 << 20;
+
+  /**
+   * 원장의 한 지점 : 그 지점까지의 마지막 순번, 파일 위치(다음 레코드가 시작되는 곳), 마지막 레코드의 잔액
+   */
+  public static final class Position {
+    private final long sequence;
+    private final long offset;
+    private final long balance;
+
+    public Position(long sequence, long offset, long balance) {
+      this.sequence = sequence;
+      this.offset = offset;
+      this.balance = balance;
+    }
+
+    public long getSequence() {
+      return sequence;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public long getBalance() {
+      return balance;
+    }
+  }
+
+  /**
+   * 원장 레코드를 하나씩 받는 콜백
+   */
+  @FunctionalInterface
+  public interface Visitor {
+    void visit(long sequence, String accNo, byte type, int amount, long balance);
+  }
+
+  private final Path path;
+  private final FileChannel channel;
+  private final long maxLatencyNanos;
+  private final Thread writer;
+  private final CRC32C crc = new CRC32C();                     // lock 안에서만 사용
+  private volatile Position durablePosition;                   // 디스크에 내려간 마지막 지점
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition flushNeeded = lock.newCondition();   // 기록 스레드를 깨운다
+  private final Condition flushed = lock.newCondition();       // 배치 하나를 다 썼음 (버퍼 공간도 생김)
+
+  // 아래 필드는 lock 안에서만 접근
+  private ByteBuffer pending = ByteBuffer.allocateDirect(BATCH_BYTES);
+  private ByteBuffer spare = ByteBuffer.allocateDirect(BATCH_BYTES);
+  private long nextSequence;
+  private long durableSequence;
+  private long lastBalance;
+  private long batchStartedAt;
+  private IOException failure;
+  private boolean closed;
+
+  private AccountLedger(Path path, Duration maxLatency, Position start, Visitor visitor) throws IOException {
+    this.path = path;
+    this.maxLatencyNanos = maxLatency.toNanos();
+    this.channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      Position end;
+      if (channel.size() == 0) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+          channel.write(header, HEADER_SIZE - header.remaining());
+        }
+        channel.force(true);
+        end = new Position(0, HEADER_SIZE, 0);
+      } else {
+        end = scan(channel, path, start, visitor);
+        if (end.offset < channel.size()) {
+          channel.truncate(end.offset);     // 중간까지만 기록된 마지막 레코드 제거
+        }
+      }
+      channel.position(end.offset);
+      nextSequence = end.sequence + 1;
+      durableSequence = end.sequence;
+      durablePosition = end;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    writer = new Thread(this::writeLoop, "account-ledger-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * path의 원장 파일을 열고, 없으면 새로 만든다. (배치를 모으려고 기다리지 않는다)
+   */
+  public static AccountLedger open(Path path) throws IOException {
+    return new AccountLedger(path, Duration.ZERO, null, null);
+  }
+
+  /**
+   * path의 원장 파일을 열고, 없으면 새로 만든다.
+   * - maxLatency : 한 배치의 레코드를 모으기 위해 fsync를 미루는 최대 시간
+   */
+  public static AccountLedger open(Path path, Duration maxLatency) throws IOException {
+    return open(path, maxLatency, null, null);
+  }
+
+  /**
+   * path의 원장 파일을 열고, 없으면 새로 만든다.
+   * - start : 이미 확인된 지점(예 : 스냅샷). 그 뒤의 레코드만 읽는다. null이면 처음부터 읽는다.
+   * - visitor : start 뒤의 레코드마다 호출된다 (상태 복구용). null이면 호출하지 않는다.
+   */
+  public static AccountLedger open(Path path, Duration maxLatency, Position start, Visitor visitor)
+      throws IOException {
+    if (maxLatency.isNegative()) {
+      throw new IllegalArgumentException("maxLatency는 0 이상이어야 합니다 : " + maxLatency);
+    }
+    return new AccountLedger(path, maxLatency, start, visitor);
+  }
+
+  /**
+   * path의 원장 레코드를 순번 순서대로 visitor에 전달한다. (파일은 읽기만 한다)
+   */
+  public static void replay(Path path, Visitor visitor) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      scan(channel, path, null, visitor);
+    }
+  }
+
+  /**
+   * 레코드 하나를 기록하고, 디스크에 내려간 뒤 그 순번을 리턴한다.
+   */
+  public long record(String accNo, byte type, int amount, long balance) {
+    long sequence = append(accNo, type, amount, balance);
+    awaitDurable(sequence);
+    return sequence;
+  }
+
+  /**
+   * 레코드 하나를 기록 버퍼에 넣고 순번을 리턴한다. 디스크에 내려가기를 기다리지 않는다.
+   * - 순번은 append를 호출한 순서대로 붙는다.
+   * - 버퍼가 가득 차 있으면 기록 스레드가 비울 때까지 기다린다.
+   */
+  public long append(String accNo, byte type, int amount, long balance) {
+    byte[] accNoBytes = accNo.getBytes(StandardCharsets.UTF_8);
+    if (accNoBytes.length > MAX_ACC_NO_BYTES) {
+      throw new IllegalArgumentException("계좌번호가 너무 깁니다 : " + accNo);
+    }
+    int size = RECORD_HEADER_SIZE + FIXED_BODY_SIZE + accNoBytes.length;
+
+    lock.lock();
+    try {
+      checkOpen();
+      while (pending.remaining() < size) {
+        flushNeeded.signal();
+        flushed.awaitUninterruptibly();
+        checkOpen();
+      }
+      long sequence = nextSequence++;
+      if (pending.position() == 0) {
+        batchStartedAt = System.nanoTime();
+        flushNeeded.signal();
+      }
+      encode(sequence, accNoBytes, type, amount, balance);
+      lastBalance = balance;
+      if (pending.remaining() < MAX_RECORD_SIZE) {
+        flushNeeded.signal();       // 버퍼가 찼으므로 기다리지 말고 바로 쓰게 한다
+      }
+      return sequence;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * sequence까지의 레코드가 디스크에 내려갈 때까지 기다린다.
+   */
+  public void awaitDurable(long sequence) {
+    lock.lock();
+    try {
+      while (durableSequence < sequence) {
+        if (failure != null) {
+          throw new UncheckedIOException("거래 원장 기록 실패 : " + path, failure);
+        }
+        flushed.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 디스크에 내려간 마지막 지점. 기록 중인 스레드를 멈추지 않고 읽는다.
+   */
+  public Position durablePosition() {
+    return durablePosition;
+  }
+
+  /**
+   * 기록 대기 중인 레코드를 모두 내려 쓰고 파일을 닫는다.
+   */
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      flushNeeded.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    boolean interrupted = false;
+    while (writer.isAlive()) {
+      try {
+        writer.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    channel.close();
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void checkOpen() {
+    if (failure != null) {
+      throw new UncheckedIOException("거래 원장 기록 실패 : " + path, failure);
+    }
+    if (closed) {
+      throw new IllegalStateException("거래 원장이 닫혀 있습니다 : " + path);
+    }
+  }
+
+  /* 기록 스레드 : 배치를 모아 write + force 한 뒤 기다리는 스레드들을 깨운다 */
+  private void writeLoop() {
+    long offset = durablePosition.offset;
+    while (true) {
+      ByteBuffer batch;
+      long lastSequence;
+      long batchBalance;
+      lock.lock();
+      try {
+        while (pending.position() == 0 && !closed) {
+          flushNeeded.awaitUninterruptibly();
+        }
+        if (pending.position() == 0) {
+          return;       // 닫혔고 남은 레코드도 없음
+        }
+        long remaining;
+        while (!closed && pending.remaining() >= MAX_RECORD_SIZE
+            && (remaining = batchStartedAt + maxLatencyNanos - System.nanoTime()) > 0) {
+          try {
+            flushNeeded.awaitNanos(remaining);
+          } catch (InterruptedException e) {
+            break;
+          }
+        }
+        batch = pending;
+        pending = spare;
+        spare = null;
+        lastSequence = nextSequence - 1;
+        batchBalance = lastBalance;
+        flushed.signalAll();      // 버퍼 공간을 기다리던 스레드는 새 버퍼에 기록한다
+      } finally {
+        lock.unlock();
+      }
+
+      IOException error = null;
+      try {
+        batch.flip();
+        offset += batch.remaining();
+        while (batch.hasRemaining()) {
+          channel.write(batch);
+        }
+        channel.force(false);
+      } catch (IOException e) {
+        error = e;
+      }
+
+      lock.lock();
+      try {
+        spare = batch.clear();
+        if (error != null) {
+          failure = error;
+        } else {
+          durableSequence = lastSequence;
+          durablePosition = new Position(lastSequence, offset, batchBalance);
+        }
+        flushed.signalAll();
+        if (error != null) {
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void encode(long sequence, byte[] accNo, byte type, int amount, long balance) {
+    ByteBuffer buffer = pending;
+    int start = buffer.position();
+    buffer.putInt(FIXED_BODY_SIZE + accNo.length)
+        .putInt(0)                       // CRC는 본문을 쓴 뒤 채운다
+        .putLong(sequence)
+        .put(type)
+        .putInt(amount)
+        .putLong(balance)
+        .putShort((short) accNo.length)
+        .put(accNo);
+    int end = buffer.position();
+    crc.reset();
+    crc.update(buffer.position(start + RECORD_HEADER_SIZE).limit(end));
+    buffer.limit(buffer.capacity()).position(end);
+    buffer.putInt(start + 4, (int) crc.getValue());
+  }
+
+  /**
+   * 헤더를 확인하고 start(없으면 처음)부터 온전한 레코드를 끝까지 읽는다. visitor가 있으면 레코드마다 호출한다.
+   * @return 마지막 온전한 레코드까지의 지점
+   */
+  private static Position scan(FileChannel channel, Path path, Position start, Visitor visitor)
+      throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        break;
+      }
+    }
+    header.flip();
+    if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+      throw new IOException("거래 원장 파일이 아니거나 버전이 다릅니다 : " + path);
+    }
+    if (start == null) {
+      start = new Position(0, HEADER_SIZE, 0);
+    } else if (start.offset < HEADER_SIZE || start.offset > channel.size()) {
+      throw new IOException("원장 파일에 없는 위치입니다 : " + path + " (" + start.offset + ")");
+    }
+
+    Reader reader = new Reader(channel, start.offset);
+    long end = start.offset;
+    long lastSequence = start.sequence;
+    long lastBalance = start.balance;
+    CRC32C crc = new CRC32C();
+    while (reader.require(RECORD_HEADER_SIZE)) {
+      ByteBuffer buffer = reader.buffer;
+      int bodySize = buffer.getInt();
+      int checksum = buffer.getInt();
+      if (bodySize < FIXED_BODY_SIZE || bodySize > FIXED_BODY_SIZE + MAX_ACC_NO_BYTES
+          || !reader.require(bodySize)) {
+        break;
+      }
+      crc.reset();
+      crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), bodySize);
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+      long sequence = buffer.getLong();
+      byte type = buffer.get();
+      int amount = buffer.getInt();
+      long balance = buffer.getLong();
+      int accNoLength = buffer.getShort() & 0xFFFF;
+      if (visitor != null) {
+        String accNo = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+            accNoLength, StandardCharsets.UTF_8);
+        visitor.visit(sequence, accNo, type, amount, balance);
+      }
+      buffer.position(buffer.position() + accNoLength);
+      lastSequence = sequence;
+      lastBalance = balance;
+      end += RECORD_HEADER_SIZE + bodySize;
+    }
+    return new Position(lastSequence, end, lastBalance);
+  }
+
+  /* 파일을 READ_BUFFER_SIZE 단위로 읽어 들이는 순차 reader */
+  private static final class Reader {
+    final FileChannel channel;
+    final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+    long filePosition;
+
+    Reader(FileChannel channel, long filePosition) {
+      this.channel = channel;
+      this.filePosition = filePosition;
+    }
+
+    /* 버퍼에 최소 n byte가 남도록 채운다. 파일 끝이라 채우지 못하면 false */
+    boolean require(int n) throws IOException {
+      if (buffer.remaining() >= n) {
+        return true;
+      }
+      buffer.compact();
+      try {
+        while (buffer.position() < n) {
+          int read = channel.read(buffer, filePosition);
+          if (read < 0) {
+            return false;
+          }
+          filePosition += read;
+        }
+        return true;
+      } finally {
+        buffer.flip();
+      }
+    }
+  }
+}
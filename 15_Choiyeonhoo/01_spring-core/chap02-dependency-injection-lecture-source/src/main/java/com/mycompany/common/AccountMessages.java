@@ -0,0 +1,97 @@
+package com.mycompany.common;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 계좌 처리 결과(AccountResult)를 안내 문구로 바꾼다.
+ * - 문구는 AccountMessages*.properties에서 읽고, 처리 결과 코드와 Locale별로 한 번만 파싱해 캐시한다.
+ * - 인자가 없는 문구(금액 오류, 잔액 부족)는 캐시된 String을 그대로 리턴하므로 새로 만들지 않는다.
+ * - 문구의 {0}, {1}은 나타나는 순서대로 채운다.
+ */
+public final class AccountMessages {
+
+  /* 기존 String API(deposit, withDraw, getBalance)가 사용하는 Locale */
+  public static final Locale DEFAULT_LOCALE = Locale.KOREAN;
+
+  private static final String BUNDLE = "com.mycompany.common.AccountMessages";
+  private static final String[] STATUS_KEYS = {
+      "account.deposited", "account.withdrawn", "account.invalidAmount", "account.insufficientBalance",
+      "account.transferred", "account.notFound", "account.velocityLimited"
+  };
+  private static final String BALANCE_KEY = "account.balance";
+
+  private static final ConcurrentHashMap<Locale, Templates> TEMPLATES = new ConcurrentHashMap<>();
+
+  private AccountMessages() {
+  }
+
+  /* 입금/출금/이체 결과 안내 문구 (money : 요청 금액) */
+  public static String render(long result, int money) {
+    return render(result, money, DEFAULT_LOCALE);
+  }
+
+  public static String render(long result, int money, Locale locale) {
+    return templates(locale).byStatus[AccountResult.status(result)].render(money);
+  }
+
+  /* 잔액 조회 안내 문구 */
+  public static String balance(String accNo, long balance) {
+    return balance(accNo, balance, DEFAULT_LOCALE);
+  }
+
+  public static String balance(String accNo, long balance, Locale locale) {
+    return templates(locale).balance.render(accNo, balance);
+  }
+
+  private static Templates templates(Locale locale) {
+    Templates templates = TEMPLATES.get(locale);
+    return templates != null ? templates : TEMPLATES.computeIfAbsent(locale, Templates::load);
+  }
+
+  private static final class Templates {
+    final Template[] byStatus = new Template[AccountResult.STATUS_COUNT];
+    final Template balance;
+
+    private Templates(ResourceBundle bundle) {
+      for (int i = 0; i < byStatus.length; i++) {
+        byStatus[i] = new Template(bundle.getString(STATUS_KEYS[i]));
+      }
+      balance = new Template(bundle.getString(BALANCE_KEY));
+    }
+
+    static Templates load(Locale locale) {
+      // 기본 Locale로 대체하지 않고, 해당 Locale 문구가 없으면 기본 파일(한국어)을 사용한다
+      return new Templates(ResourceBundle.getBundle(BUNDLE, locale,
+          ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES)));
+    }
+  }
+
+  /* "{0}원이 입금되었습니다." 같은 문구를 고정 문자열 조각(parts)과 인자 자리로 나누어 둔 것 */
+  private static final class Template {
+    final String[] parts;   // parts.length - 1 개의 인자가 사이사이에 들어간다
+
+    Template(String pattern) {
+      parts = pattern.split("\\{\\d}", -1);
+    }
+
+    String render(Object... args) {
+      if (parts.length == 1) {
+        return parts[0];
+      }
+      StringBuilder sb = new StringBuilder(parts[0]);
+      for (int i = 1; i < parts.length; i++) {
+        sb.append(args[i - 1]).append(parts[i]);
+      }
+      return sb.toString();
+    }
+
+    String render(long arg) {
+      if (parts.length == 1) {
+        return parts[0];
+      }
+      return parts[0] + arg + parts[1];
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.mycompany.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌번호(accNo)로 계좌를 찾고, 계좌 간 이체를 처리하는 저장소
+ * - 계좌는 accNo의 hash로 고른 shard(ConcurrentHashMap)에 나누어 두므로,
+ *   수백만 개를 담아도 한 map의 resize가 전체를 멈추지 않고 조회는 O(1)이다.
+ * - 이체는 두 계좌가 속한 stripe lock을 stripe 번호 순서대로 잡은 뒤 출금 → 입금하므로
+ *   여러 스레드가 서로 반대 방향으로 이체해도 교착(deadlock)되지 않는다.
+ * - totalBalance()는 모든 stripe를 같은 순서로 잡고 합계를 구하므로, 이체 도중의 금액이 빠지거나 겹치지 않는다.
+ *   (이 저장소를 거치지 않고 계좌를 직접 바꾼 금액은 보장하지 않는다)
+ */
+public class AccountRegistry {
+
+  private static final int SHARDS = 64;
+  private static final int DEFAULT_STRIPES = 1024;
+
+  private final ConcurrentHashMap<String, PersonalAccount>[] shards;
+  private final ReentrantLock[] stripes;
+  private final int stripeMask;
+
+  public AccountRegistry() {
+    this(16, DEFAULT_STRIPES);
+  }
+
+  /**
+   * expectedAccounts : 담을 계좌 수 (shard 초기 크기), stripes : 이체용 lock 개수 (2의 거듭제곱으로 올림)
+   */
+  @SuppressWarnings("unchecked")
+  public AccountRegistry(int expectedAccounts, int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("stripe 개수는 1 이상이어야 합니다 : " + stripes);
+    }
+    this.shards = (ConcurrentHashMap<String, PersonalAccount>[]) new ConcurrentHashMap<?, ?>[SHARDS];
+    for (int i = 0; i < SHARDS; i++) {
+      this.shards[i] = new ConcurrentHashMap<>(Math.max(16, expectedAccounts / SHARDS));
+    }
+    int size = Integer.highestOneBit(stripes - 1) << 1;
+    this.stripes = new ReentrantLock[Math.max(1, size)];
+    for (int i = 0; i < this.stripes.length; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.stripeMask = this.stripes.length - 1;
+  }
+
+  /**
+   * 계좌를 등록한다. 같은 계좌번호가 이미 있으면 등록하지 않고 false
+   */
+  public boolean register(PersonalAccount account) {
+    return shard(account.getAccNo()).putIfAbsent(account.getAccNo(), account) == null;
+  }
+
+  /* 계좌번호로 계좌를 찾는다. 없으면 null */
+  public PersonalAccount find(String accNo) {
+    return shard(accNo).get(accNo);
+  }
+
+  /* 등록된 계좌 수 */
+  public int size() {
+    int size = 0;
+    for (ConcurrentHashMap<String, PersonalAccount> shard : shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  /**
+   * fromAccNo 계좌에서 toAccNo 계좌로 amount를 이체한다.
+   * - 출금 계좌의 잔액이 부족하면 두 계좌 모두 그대로 둔다.
+   * @return AccountResult 형식의 결과 (TRANSFERRED이면 출금 계좌의 이체 후 잔액, 실패하면 출금 계좌의 그 시점 잔액.
+   *         출금 계좌가 없는 ACCOUNT_NOT_FOUND만 잔액이 없으므로 0)
+   */
+  public long transfer(String fromAccNo, String toAccNo, int amount) {
+    if (fromAccNo.equals(toAccNo)) {
+      throw new IllegalArgumentException("같은 계좌로는 이체할 수 없습니다 : " + fromAccNo);
+    }
+    PersonalAccount from = find(fromAccNo);
+    if (from == null) {
+      return AccountResult.of(AccountResult.ACCOUNT_NOT_FOUND, 0);
+    }
+    if (amount < 0) {
+      return AccountResult.of(AccountResult.INVALID_AMOUNT, from.currentBalance());
+    }
+    PersonalAccount to = find(toAccNo);
+    if (to == null) {
+      return AccountResult.of(AccountResult.ACCOUNT_NOT_FOUND, from.currentBalance());
+    }
+
+    int fromStripe = stripe(fromAccNo);
+    int toStripe = stripe(toAccNo);
+    ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+    ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+    first.lock();
+    if (second != first) {
+      second.lock();
+    }
+    try {
+      long withdrawn = from.tryWithDraw(amount);
+      if (!AccountResult.isSuccess(withdrawn)) {
+        return withdrawn;
+      }
+      to.tryDeposit(amount);
+      return AccountResult.of(AccountResult.TRANSFERRED, AccountResult.balance(withdrawn));
+    } finally {
+      if (second != first) {
+        second.unlock();
+      }
+      first.unlock();
+    }
+  }
+
+  /**
+   * 등록된 모든 계좌의 잔액 합계. 모든 stripe를 순서대로 잡고 구하므로 진행 중인 이체는 끝난 뒤에 센다.
+   */
+  public long totalBalance() {
+    for (ReentrantLock stripe : stripes) {
+      stripe.lock();
+    }
+    try {
+      long total = 0;
+      for (ConcurrentHashMap<String, PersonalAccount> shard : shards) {
+        for (PersonalAccount account : shard.values()) {
+          total += account.currentBalance();
+        }
+      }
+      return total;
+    } finally {
+      for (int i = stripes.length - 1; i >= 0; i--) {
+        stripes[i].unlock();
+      }
+    }
+  }
+
+  private ConcurrentHashMap<String, PersonalAccount> shard(String accNo) {
+    return shards[spread(accNo.hashCode()) & (SHARDS - 1)];
+  }
+
+  /* shard와 다른 hash 비트를 쓰도록 상위 비트로 stripe를 고른다 */
+  private int stripe(String accNo) {
+    return (spread(accNo.hashCode()) >>> 16) & stripeMask;
+  }
+
+  private static int spread(int h) {
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    return h;
+  }
+}
@@ -0,0 +1,47 @@
+package com.mycompany.common;
+
+/**
+ * 계좌 처리 결과를 long 하나에 담는 방식
+ * - 상위 8비트 : 처리 결과 코드 (DEPOSITED, WITHDRAWN, INVALID_AMOUNT, INSUFFICIENT_BALANCE, TRANSFERRED, ACCOUNT_NOT_FOUND, VELOCITY_LIMITED)
+ * - 하위 56비트 : 처리 후 잔액 (실패한 경우에는 처리 시점의 잔액. 잔액을 알 계좌가 없는 ACCOUNT_NOT_FOUND는 0)
+ * - 결과마다 객체를 만들지 않으므로, 성공 여부만 필요한 호출에서는 메모리 할당이 없다.
+ *   안내 문구가 필요할 때만 AccountMessages.render로 만든다.
+ */
+public final class AccountResult {
+
+  public static final int DEPOSITED = 0;               // 입금 완료
+  public static final int WITHDRAWN = 1;               // 출금 완료
+  public static final int INVALID_AMOUNT = 2;          // 금액 오류 (음수, 일괄 처리에서는 int 범위 밖)
+  public static final int INSUFFICIENT_BALANCE = 3;    // 잔액 부족
+  public static final int TRANSFERRED = 4;             // 이체 완료
+  public static final int ACCOUNT_NOT_FOUND = 5;       // 계좌 없음
+  public static final int VELOCITY_LIMITED = 6;        // 기간당 출금 한도 초과
+
+  static final int STATUS_COUNT = 7;
+
+  private static final int STATUS_SHIFT = 56;
+  private static final long BALANCE_MASK = (1L << STATUS_SHIFT) - 1;
+
+  private AccountResult() {
+  }
+
+  static long of(int status, long balance) {
+    return ((long) status << STATUS_SHIFT) | (balance & BALANCE_MASK);
+  }
+
+  /* 처리 결과 코드 */
+  public static int status(long result) {
+    return (int) (result >>> STATUS_SHIFT);
+  }
+
+  /* 처리 후 잔액 */
+  public static long balance(long result) {
+    return result & BALANCE_MASK;
+  }
+
+  /* 입금, 출금 또는 이체가 반영되었는지 여부 */
+  public static boolean isSuccess(long result) {
+    int status = status(result);
+    return status == DEPOSITED || status == WITHDRAWN || status == TRANSFERRED;
+  }
+}
@@ -0,0 +1,274 @@
+package com.mycompany.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * 입금/출금을 이벤트로 기록하고, 잔액은 이벤트를 다시 적용해 복구하는 계좌 (event sourcing)
+ * - directory/events.ledger : 이 계좌 전용 AccountLedger. 입금/출금 이벤트가 순서대로 쌓인다.
+ * - directory/balance.snapshot : (마지막 순번, 원장 파일 위치, 잔액)만 담은 작은 스냅샷
+ * - 복구 : 스냅샷이 있으면 그 위치부터 뒤쪽(tail) 이벤트만 다시 적용하고, 없으면 원장 전체를 다시 적용한다.
+ * - 스냅샷은 snapshotPeriod마다 별도 스레드가 원장의 durablePosition()으로 만든다.
+ *   입금/출금 스레드를 멈추지 않으며, 이미 디스크에 내려간 지점만 기록하므로 원장과 어긋나지 않는다.
+ * - 이벤트 순서와 잔액 변경 순서가 같아야 하므로 잔액 확인 → 이벤트 추가 → 잔액 변경은 lock 안에서 하고,
+ *   디스크에 내려가기를 기다리는 것은 lock 밖에서 한다. (동시에 들어온 이벤트는 한 번의 fsync로 묶인다)
+ * - 이벤트가 디스크에 내려가지 못하면 잔액을 디스크에 내려간 마지막 이벤트의 잔액으로 되돌리고 계좌를 실패 상태로 둔다.
+ *   실패 상태에서는 입금/출금이 모두 예외를 던진다. (다시 열면 원장에 남은 이벤트로 복구된다)
+ */
+public class EventSourcedAccount implements Account, Closeable {
+
+  static final String EVENTS_FILE = "events.ledger";
+  static final String SNAPSHOT_FILE = "balance.snapshot";
+
+  private static final int SNAPSHOT_MAGIC = 0x534E4150;    // "SNAP"
+  private static final int SNAPSHOT_VERSION = 1;
+  private static final int SNAPSHOT_SIZE = 36;             // magic(4) + version(4) + 순번(8) + 위치(8) + 잔액(8) + CRC32C(4)
+
+  private final String accNo;
+  private final Path directory;
+  private final AccountLedger events;
+  private final ScheduledExecutorService snapshotter;     // snapshotPeriod가 0이면 null
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile long balance;                          // lock 안에서만 변경
+  private volatile RuntimeException failure;              // 실패 상태의 원인 (정상이면 null, lock 안에서만 변경)
+  private long snapshotSequence;                          // snapshot() 안에서만 접근
+
+  private EventSourcedAccount(String accNo, Path directory, AccountLedger events,
+                              long balance, long snapshotSequence, Duration snapshotPeriod) {
+    this.accNo = accNo;
+    this.directory = directory;
+    this.events = events;
+    this.balance = balance;
+    this.snapshotSequence = snapshotSequence;
+    if (snapshotPeriod.isZero()) {
+      this.snapshotter = null;
+    } else {
+      this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-snapshot-" + accNo);
+        thread.setDaemon(true);
+        return thread;
+      });
+      long period = snapshotPeriod.toNanos();
+      this.snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * directory의 이벤트 원장과 스냅샷으로 계좌를 복구하고, 없으면 새로 만든다.
+   * - snapshotPeriod : 스냅샷을 만드는 주기. 0이면 close() 또는 snapshot() 호출 때만 만든다.
+   */
+  public static EventSourcedAccount open(Path directory, String accNo, Duration snapshotPeriod)
+      throws IOException {
+    return open(directory, accNo, snapshotPeriod, true);
+  }
+
+  /* useSnapshot이 false이면 스냅샷을 무시하고 원장 전체를 다시 적용한다 (복구 시간 비교용) */
+  static EventSourcedAccount open(Path directory, String accNo, Duration snapshotPeriod,
+                                  boolean useSnapshot) throws IOException {
+    if (snapshotPeriod.isNegative()) {
+      throw new IllegalArgumentException("snapshotPeriod는 0 이상이어야 합니다 : " + snapshotPeriod);
+    }
+    Files.createDirectories(directory);
+    Path eventsFile = directory.resolve(EVENTS_FILE);
+    AccountLedger.Position snapshot = useSnapshot ? readSnapshot(directory.resolve(SNAPSHOT_FILE)) : null;
+    if (snapshot != null && (!Files.exists(eventsFile) || snapshot.getOffset() > Files.size(eventsFile))) {
+      snapshot = null;      // 원장보다 앞선 스냅샷은 쓸 수 없다
+    }
+
+    long[] replayed = {snapshot == null ? 0 : snapshot.getBalance()};
+    AccountLedger events = AccountLedger.open(eventsFile, Duration.ZERO, snapshot,
+        (sequence, eventAccNo, type, amount, eventBalance) ->
+            replayed[0] += type == AccountLedger.DEPOSIT ? amount : -amount);
+    return new EventSourcedAccount(accNo, directory, events, replayed[0],
+        snapshot == null ? 0 : snapshot.getSequence(), snapshotPeriod);
+  }
+
+  @Override
+  public String getBalance() {
+
+    return AccountMessages.balance(this.accNo, this.balance);
+  }
+
+  @Override
+  public String deposit(int money) {
+
+    return AccountMessages.render(tryDeposit(money), money);
+  }
+
+  @Override
+  public String withDraw(int money) {
+
+    return AccountMessages.render(tryWithDraw(money), money);
+  }
+
+  @Override
+  public long currentBalance() {
+
+    return this.balance;
+  }
+
+  @Override
+  public long tryDeposit(int money) {
+
+    if(money < 0) {
+      return AccountResult.of(AccountResult.INVALID_AMOUNT, this.balance);
+    }
+    long updated;
+    long sequence;
+    lock.lock();
+    try {
+      checkUsable();
+      updated = this.balance + money;
+      sequence = events.append(accNo, AccountLedger.DEPOSIT, money, updated);
+      this.balance = updated;
+    } finally {
+      lock.unlock();
+    }
+    awaitDurable(sequence);
+    return AccountResult.of(AccountResult.DEPOSITED, updated);
+  }
+
+  @Override
+  public long tryWithDraw(int money) {
+
+    if(money < 0) {
+      return AccountResult.of(AccountResult.INVALID_AMOUNT, this.balance);
+    }
+    long updated;
+    long sequence;
+    lock.lock();
+    try {
+      checkUsable();
+      if(this.balance < money) {
+        return AccountResult.of(AccountResult.INSUFFICIENT_BALANCE, this.balance);
+      }
+      updated = this.balance - money;
+      sequence = events.append(accNo, AccountLedger.WITHDRAW, money, updated);
+      this.balance = updated;
+    } finally {
+      lock.unlock();
+    }
+    awaitDurable(sequence);
+    return AccountResult.of(AccountResult.WITHDRAWN, updated);
+  }
+
+  /* 실패 상태이면 예외를 던진다 */
+  public void checkUsable() {
+    RuntimeException cause = failure;
+    if (cause != null) {
+      throw new IllegalStateException("이벤트 기록에 실패해 사용할 수 없는 계좌입니다 : " + accNo, cause);
+    }
+  }
+
+  /* 이벤트 기록에 실패해 더 이상 입금/출금을 받지 않으면 true */
+  public boolean isFailed() {
+    return failure != null;
+  }
+
+  /**
+   * 디스크에 내려간 마지막 이벤트까지의 잔액을 스냅샷으로 남긴다. 새 이벤트가 없으면 아무것도 하지 않는다.
+   * - 임시 파일에 쓰고 fsync한 뒤 이름을 바꾸므로, 중간에 죽어도 이전 스냅샷은 온전히 남는다.
+   */
+  public synchronized void snapshot() throws IOException {
+    AccountLedger.Position position = events.durablePosition();
+    if (position.getSequence() <= snapshotSequence) {
+      return;
+    }
+    writeSnapshot(directory, position);
+    snapshotSequence = position.getSequence();
+  }
+
+  /**
+   * 스냅샷 스레드를 멈추고, 남은 이벤트를 내려 쓴 뒤 마지막 스냅샷을 남긴다.
+   */
+  @Override
+  public void close() throws IOException {
+    if (snapshotter != null) {
+      snapshotter.shutdown();
+      try {
+        snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    events.close();
+    snapshot();
+  }
+
+  /* position을 directory의 스냅샷 파일로 남긴다 */
+  static void writeSnapshot(Path directory, AccountLedger.Position position) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_SIZE)
+        .putInt(SNAPSHOT_MAGIC)
+        .putInt(SNAPSHOT_VERSION)
+        .putLong(position.getSequence())
+        .putLong(position.getOffset())
+        .putLong(position.getBalance());
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) crc.getValue()).flip();
+
+    Path target = directory.resolve(SNAPSHOT_FILE);
+    Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /* sequence가 디스크에 내려가기를 기다리고, 실패하면 잔액을 디스크에 내려간 지점으로 되돌리고 실패 상태로 둔다 */
+  private void awaitDurable(long sequence) {
+    try {
+      events.awaitDurable(sequence);
+    } catch (RuntimeException e) {
+      lock.lock();
+      try {
+        if (failure == null) {
+          failure = e;
+          this.balance = events.durablePosition().getBalance();   // 원장이 실패하면 더 내려가는 이벤트는 없다
+        }
+      } finally {
+        lock.unlock();
+      }
+      throw e;
+    }
+  }
+
+  private void snapshotQuietly() {
+    try {
+      snapshot();
+    } catch (IOException e) {
+      // 스냅샷은 복구 시간을 줄이기 위한 것이므로, 실패해도 다음 주기에 다시 시도한다
+    }
+  }
+
+  /* 스냅샷 파일을 읽는다. 없거나 손상되었으면 null */
+  private static AccountLedger.Position readSnapshot(Path file) throws IOException {
+    if (!Files.exists(file) || Files.size(file) != SNAPSHOT_SIZE) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.array(), 0, SNAPSHOT_SIZE - 4);
+    if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION
+        || buffer.getInt(SNAPSHOT_SIZE - 4) != (int) crc.getValue()) {
+      return null;
+    }
+    return new AccountLedger.Position(buffer.getLong(), buffer.getLong(), buffer.getLong());
+  }
+}
@@ -0,0 +1,220 @@
+package com.mycompany.common;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 입금/출금이 반영될 때마다 거래 원장(AccountLedger)에 기록하는 계좌
+ * - 잔액 변경은 감싼 계좌(account)에 맡기고, 성공한 입금/출금만 원장에 기록한다.
+ * - 원장 기록이 디스크에 내려간 뒤에 결과를 리턴하므로, 호출자가 받은 결과는 모두 원장에 남아 있다.
+ * - 여러 계좌가 원장 하나를 함께 쓰면 동시에 들어온 기록이 한 번의 fsync로 묶인다.
+ * - 원장의 기록 순서와 잔액 변경 순서가 같아야 하므로 잔액 변경 → 원장 버퍼에 추가는 계좌별 lock 안에서 하고,
+ *   디스크에 내려가기를 기다리는 것은 lock 밖에서 한다. (EventSourcedAccount와 같은 방식)
+ * - 원장 버퍼에 넣지 못하면 바꾼 잔액을 되돌리고 예외를 던진다.
+ * - 디스크에 내려가지 못하면 감싼 계좌의 잔액을 이 계좌의 기록 중 디스크에 내려간 마지막 기록의 잔액으로 되돌리고
+ *   계좌를 실패 상태로 둔다. 되돌리지 못한 경우도 실패 상태로 둔다. 실패 상태에서는 입금/출금이 모두 예외를 던진다.
+ *   (원장에 없는 잔액 변경이 성공으로 리턴되거나, 잔액으로 보이거나, 그 위에 다른 거래가 쌓이지 않게 한다)
+ * - 처음 잔액(만들 때의 account 잔액)은 원장과 맞는다고 본다.
+ */
+public class LedgerAccount implements Account {
+
+  private final String accNo;
+  private final Account account;
+  private final AccountLedger ledger;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile RuntimeException failure;      // 실패 상태의 원인 (정상이면 null)
+
+  // 아래 필드는 lock 안에서만 접근
+  private final Pending pending = new Pending();   // 원장에 넣었지만 디스크에 내려갔는지 아직 모르는 기록
+  private long durableBalance;                      // 디스크에 내려간 마지막 기록의 잔액
+
+  public LedgerAccount(String accNo, Account account, AccountLedger ledger) {
+    this.accNo = accNo;
+    this.account = account;
+    this.ledger = ledger;
+    this.durableBalance = account.currentBalance();
+  }
+
+  @Override
+  public String getBalance() {
+
+    return AccountMessages.balance(this.accNo, account.currentBalance());
+  }
+
+  @Override
+  public String deposit(int money) {
+
+    return AccountMessages.render(tryDeposit(money), money);
+  }
+
+  @Override
+  public String withDraw(int money) {
+
+    return AccountMessages.render(tryWithDraw(money), money);
+  }
+
+  @Override
+  public long currentBalance() {
+
+    return account.currentBalance();
+  }
+
+  @Override
+  public long tryDeposit(int money) {
+
+    return apply(AccountLedger.DEPOSIT, money);
+  }
+
+  @Override
+  public long tryWithDraw(int money) {
+
+    return apply(AccountLedger.WITHDRAW, money);
+  }
+
+  /* 실패 상태이면 예외를 던진다 */
+  public void checkUsable() {
+    RuntimeException cause = failure;
+    if (cause != null) {
+      throw new IllegalStateException("거래 원장 기록에 실패해 사용할 수 없는 계좌입니다 : " + accNo, cause);
+    }
+  }
+
+  /* 원장 기록에 실패해 더 이상 입금/출금을 받지 않으면 true */
+  public boolean isFailed() {
+    return failure != null;
+  }
+
+  private long apply(byte type, int money) {
+    long result;
+    long sequence;
+    lock.lock();
+    try {
+      checkUsable();
+      result = type == AccountLedger.DEPOSIT ? account.tryDeposit(money) : account.tryWithDraw(money);
+      if(!AccountResult.isSuccess(result)) {
+        return result;
+      }
+      try {
+        sequence = ledger.append(accNo, type, money, AccountResult.balance(result));
+      } catch (RuntimeException e) {
+        rollback(type, money, e);
+        throw e;
+      }
+      pending.add(sequence, AccountResult.balance(result));
+    } finally {
+      lock.unlock();
+    }
+    try {
+      ledger.awaitDurable(sequence);
+    } catch (RuntimeException e) {
+      restoreDurableBalance(e);
+      throw e;
+    }
+    lock.lock();
+    try {
+      confirm(sequence);
+    } finally {
+      lock.unlock();
+    }
+    return result;
+  }
+
+  /* sequence까지의 기록이 디스크에 내려갔으므로 durableBalance를 앞으로 옮긴다 (lock 안에서 호출) */
+  private void confirm(long sequence) {
+    while (!pending.isEmpty() && pending.firstSequence() <= sequence) {
+      durableBalance = pending.removeFirst();
+    }
+  }
+
+  /**
+   * 원장이 실패했을 때 감싼 계좌의 잔액을 디스크에 내려간 마지막 기록의 잔액으로 되돌리고 실패 상태로 둔다.
+   * - 원장의 durablePosition까지는 내려갔으므로 그때까지의 이 계좌 기록은 확정하고, 나머지는 반대 거래로 한 번에 되돌린다.
+   * - 같은 원장 실패를 여러 스레드가 보더라도 되돌리기는 처음 한 번만 한다. (그 뒤로는 이 계좌의 잔액이 바뀌지 않는다)
+   */
+  private void restoreDurableBalance(RuntimeException cause) {
+    lock.lock();
+    try {
+      if (failure != null) {
+        return;
+      }
+      failure = cause;
+      confirm(ledger.durablePosition().getSequence());
+      pending.clear();
+      long delta = durableBalance - account.currentBalance();
+      while (delta != 0) {
+        int money = (int) Math.min(Math.abs(delta), Integer.MAX_VALUE);
+        long undone = delta > 0 ? account.tryDeposit(money) : account.tryWithDraw(money);
+        if (!AccountResult.isSuccess(undone)) {
+          return;       // 되돌리지 못했다. 실패 상태로만 둔다
+        }
+        delta += delta > 0 ? -money : money;
+      }
+    } catch (RuntimeException e) {
+      cause.addSuppressed(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /* 원장에 넣지 못한 잔액 변경을 반대 거래로 되돌린다. 되돌리지 못하면 실패 상태로 둔다 (lock 안에서 호출) */
+  private void rollback(byte type, int money, RuntimeException cause) {
+    try {
+      long undone = type == AccountLedger.DEPOSIT ? account.tryWithDraw(money) : account.tryDeposit(money);
+      if(!AccountResult.isSuccess(undone)) {
+        failure = cause;
+      }
+    } catch (RuntimeException e) {
+      cause.addSuppressed(e);
+      failure = cause;
+    }
+  }
+
+  /* (순번, 처리 후 잔액)을 순번 순서로 담는 원형 큐. 기록마다 객체를 만들지 않는다 */
+  private static final class Pending {
+    private long[] sequences = new long[16];
+    private long[] balances = new long[16];
+    private int head;
+    private int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void add(long sequence, long balance) {
+      if (size == sequences.length) {
+        sequences = unroll(sequences);
+        balances = unroll(balances);
+        head = 0;
+      }
+      int tail = (head + size++) & (sequences.length - 1);
+      sequences[tail] = sequence;
+      balances[tail] = balance;
+    }
+
+    long firstSequence() {
+      return sequences[head];
+    }
+
+    /* 가장 앞의 기록을 빼고 그 잔액을 리턴한다 */
+    long removeFirst() {
+      long balance = balances[head];
+      head = (head + 1) & (sequences.length - 1);
+      size--;
+      return balance;
+    }
+
+    void clear() {
+      head = 0;
+      size = 0;
+    }
+
+    /* head부터 순서대로 두 배 크기 배열에 옮긴다 */
+    private long[] unroll(long[] values) {
+      long[] grown = new long[values.length * 2];
+      int first = values.length - head;
+      System.arraycopy(values, head, grown, 0, first);
+      System.arraycopy(values, 0, grown, first, head);
+      return grown;
+    }
+  }
+
+}
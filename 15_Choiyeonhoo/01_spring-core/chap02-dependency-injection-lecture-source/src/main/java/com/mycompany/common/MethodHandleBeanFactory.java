@@ -0,0 +1,191 @@
+package com.mycompany.common;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * prototype 빈을 반복해서 만들 때의 리플렉션 비용을 줄인 BeanFactory
+ * - 생성자 / 팩토리 메서드 호출은 MethodHandleInstantiationStrategy가 캐시된 MethodHandle로 한다.
+ * - XML property(Setter) 주입은 빈 이름별로 "setter MethodHandle + 미리 변환한 값" 목록을 한 번 만들어 두고,
+ *   다음부터는 BeanWrapper의 property 경로 해석과 타입 변환 없이 setter를 바로 호출한다.
+ * - 미리 변환할 수 있는 값은 문자열 값(TypedStringValue, SpEL 제외)과 다른 빈 참조(ref)뿐이며,
+ *   그 밖의 값(list, map, 내부 빈 등)이나 autowire가 있는 빈은 기존 방식(applyPropertyValues)을 그대로 쓴다.
+ */
+public class MethodHandleBeanFactory extends DefaultListableBeanFactory {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final ConcurrentHashMap<String, SetterPlan> setterPlans = new ConcurrentHashMap<>();
+
+  public MethodHandleBeanFactory() {
+    setInstantiationStrategy(new MethodHandleInstantiationStrategy());
+  }
+
+  @Override
+  protected void applyPropertyValues(String beanName, BeanDefinition mbd, BeanWrapper bw, PropertyValues pvs) {
+    if (pvs.isEmpty() || !(bw instanceof BeanWrapperImpl)
+        || (mbd instanceof AbstractBeanDefinition abd
+            && abd.getResolvedAutowireMode() != AbstractBeanDefinition.AUTOWIRE_NO)) {
+      super.applyPropertyValues(beanName, mbd, bw, pvs);
+      return;
+    }
+    SetterPlan plan = setterPlans.get(beanName);
+    if (plan == null || plan.source != pvs) {     // 빈 정의가 바뀌었으면 다시 만든다
+      plan = SetterPlan.build(pvs, (BeanWrapperImpl) bw);
+      setterPlans.put(beanName, plan);
+    }
+    if (plan.setters == null) {
+      super.applyPropertyValues(beanName, mbd, bw, pvs);
+      return;
+    }
+
+    // 참조할 빈의 타입을 꺼내기 전에 확인하고, 맞지 않으면 변환이 필요한 것이므로 기존 방식으로 넘긴다
+    // (꺼낸 뒤에 넘기면 기존 방식이 같은 빈을 다시 꺼내 prototype 빈이 두 번 만들어진다)
+    for (Setter setter : plan.setters) {
+      if (!setter.matches(this)) {
+        super.applyPropertyValues(beanName, mbd, bw, pvs);
+        return;
+      }
+    }
+    Object[] values = new Object[plan.setters.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = plan.setters[i].resolve(this, beanName);
+    }
+    Object bean = bw.getWrappedInstance();
+    for (int i = 0; i < values.length; i++) {
+      try {
+        if (plan.setters[i].accepts(values[i])) {
+          plan.setters[i].handle.invokeExact(bean, values[i]);
+        } else {
+          bw.setPropertyValue(plan.setters[i].propertyName, values[i]);   // 예측과 다른 값(null 등)은 꺼낸 값을 변환해 넣는다
+        }
+      } catch (Throwable ex) {
+        throw new BeanCreationException(mbd.getResourceDescription(), beanName,
+            "property 값을 설정하지 못했습니다 : " + plan.setters[i].propertyName, ex);
+      }
+    }
+  }
+
+  /* 한 빈의 property 주입 순서대로 만든 setter 목록. setters가 null이면 미리 만들 수 없는 빈 */
+  private static final class SetterPlan {
+    final PropertyValues source;
+    final Setter[] setters;
+
+    private SetterPlan(PropertyValues source, Setter[] setters) {
+      this.source = source;
+      this.setters = setters;
+    }
+
+    static SetterPlan build(PropertyValues pvs, BeanWrapperImpl bw) {
+      PropertyValue[] values = pvs.getPropertyValues();
+      Setter[] setters = new Setter[values.length];
+      try {
+        for (int i = 0; i < values.length; i++) {
+          setters[i] = Setter.of(values[i], bw);
+          if (setters[i] == null) {
+            return new SetterPlan(pvs, null);
+          }
+        }
+      } catch (RuntimeException | IllegalAccessException ex) {
+        return new SetterPlan(pvs, null);         // 변환 실패 등의 예외는 기존 방식에서 다시 보고된다
+      }
+      return new SetterPlan(pvs, setters);
+    }
+  }
+
+  /* property 하나 : setter MethodHandle (Object 빈, Object 값)void 와, 미리 변환한 값 또는 참조할 빈 이름 */
+  private static final class Setter {
+    final String propertyName;
+    final MethodHandle handle;
+    final Class<?> valueType;       // 기본형은 wrapper 타입
+    final boolean primitive;        // setter 파라미터가 기본형인지
+    final Object value;             // ref가 null일 때 주입할 값
+    final String ref;               // 참조할 빈 이름
+
+    private Setter(String propertyName, MethodHandle handle, Class<?> parameterType, Object value, String ref) {
+      this.propertyName = propertyName;
+      this.handle = handle;
+      this.valueType = ClassUtils.resolvePrimitiveIfNecessary(parameterType);
+      this.primitive = parameterType.isPrimitive();
+      this.value = value;
+      this.ref = ref;
+    }
+
+    /* 미리 만들 수 없는 property이면 null */
+    static Setter of(PropertyValue pv, BeanWrapperImpl bw) throws IllegalAccessException {
+      String name = pv.getName();
+      PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(bw.getWrappedClass(), name);
+      Method writeMethod = descriptor == null ? null : descriptor.getWriteMethod();
+      if (writeMethod == null) {
+        return null;                // 중첩 경로(a.b)나 setter가 없는 property
+      }
+      Class<?> parameterType = writeMethod.getParameterTypes()[0];
+      MethodHandle handle = MethodHandles.publicLookup().unreflect(writeMethod).asType(SETTER_TYPE);
+
+      Object raw = pv.getValue();
+      if (raw instanceof RuntimeBeanReference reference) {
+        if (reference.isToParent() || reference.getBeanType() != null) {
+          return null;
+        }
+        return new Setter(name, handle, parameterType, null, reference.getBeanName());
+      }
+      if (raw instanceof TypedStringValue typed) {
+        String text = typed.getValue();
+        if (text == null || typed.hasTargetType() || typed.isDynamic() || text.contains("#{")) {
+          return null;
+        }
+        Object converted = bw.convertForProperty(text, name);
+        // 같은 객체를 여러 빈에 나누어 주므로 바뀌지 않는 타입만 미리 변환해 둔다
+        if (converted == null || !ClassUtils.isAssignableValue(parameterType, converted) || !isImmutable(converted)) {
+          return null;
+        }
+        return new Setter(name, handle, parameterType, converted, null);
+      }
+      return null;
+    }
+
+    /* 빈을 만들지 않고 확인한 참조 대상의 타입이 setter에 그대로 넘길 수 있는 타입이면 true (값은 만들 때 확인했다) */
+    boolean matches(MethodHandleBeanFactory factory) {
+      return ref == null || (factory.containsBean(ref) && factory.isTypeMatch(ref, valueType));
+    }
+
+    Object resolve(MethodHandleBeanFactory factory, String beanName) {
+      if (ref == null) {
+        return value;
+      }
+      Object bean = factory.getBean(ref);
+      factory.registerDependentBean(ref, beanName);
+      // 팩토리 메서드가 null을 반환한 빈은 NullBean(package-private)으로 나오며, equals(null)이 true이다
+      return bean.equals(null) ? null : bean;
+    }
+
+    /* 값을 변환 없이 그대로 setter에 넘길 수 있으면 true (기본형 setter에는 null을 넘길 수 없다) */
+    boolean accepts(Object resolved) {
+      return resolved == null ? !primitive : valueType.isInstance(resolved);
+    }
+
+    private static boolean isImmutable(Object value) {
+      return value instanceof String || value instanceof Enum<?> || value instanceof Class<?>
+          || ClassUtils.isPrimitiveWrapper(value.getClass());
+    }
+  }
+}
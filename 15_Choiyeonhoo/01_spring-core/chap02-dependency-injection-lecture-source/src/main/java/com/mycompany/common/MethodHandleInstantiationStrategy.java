@@ -0,0 +1,160 @@
+package com.mycompany.common;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.factory.support.SimpleInstantiationStrategy;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 생성자 / @Bean 팩토리 메서드를 리플렉션(Constructor.newInstance, Method.invoke) 대신
+ * 미리 만들어 둔 MethodHandle로 호출하는 InstantiationStrategy
+ * - 처음 호출할 때 Constructor/Method별로 (Object 대상, Object[] 인자) → Object 형태의 MethodHandle을 만들어 캐시한다.
+ *   prototype 빈처럼 같은 빈을 반복해서 만들 때 리플렉션 접근 검사와 인자 배열 검사를 다시 하지 않는다.
+ * - 팩토리 메서드가 null을 반환하면 SimpleInstantiationStrategy처럼 NullBean으로 감싸서 돌려준다.
+ * - lookup-method 같은 method override가 있거나, 기본형 파라미터에 null이 들어오거나,
+ *   MethodHandle을 만들 수 없는 경우에는 SimpleInstantiationStrategy의 기본 동작을 그대로 쓴다.
+ */
+public class MethodHandleInstantiationStrategy extends SimpleInstantiationStrategy {
+
+  private static final Invoker UNSUPPORTED = new Invoker(null, new boolean[0]);
+
+  // null을 반환한 팩토리 메서드의 빈을 나타내는 Spring의 NullBean (package-private이라 생성자로 만든다)
+  private static final Constructor<?> NULL_BEAN;
+
+  static {
+    try {
+      NULL_BEAN = ReflectionUtils.accessibleConstructor(ClassUtils.forName(
+          "org.springframework.beans.factory.support.NullBean", MethodHandleInstantiationStrategy.class.getClassLoader()));
+    } catch (ClassNotFoundException | NoSuchMethodException ex) {
+      throw new IllegalStateException("NullBean을 찾을 수 없습니다 : " + ex.getMessage(), ex);
+    }
+  }
+
+  private final ConcurrentHashMap<Object, Invoker> invokers = new ConcurrentHashMap<>();
+
+  @Override
+  public Object instantiate(RootBeanDefinition bd, String beanName, BeanFactory owner) {
+    if (bd.hasMethodOverrides()) {
+      return super.instantiate(bd, beanName, owner);
+    }
+    Class<?> beanClass = bd.getBeanClass();
+    Invoker invoker = invokers.computeIfAbsent(beanClass, key -> noArgConstructorInvoker(beanClass));
+    if (invoker == UNSUPPORTED) {
+      return super.instantiate(bd, beanName, owner);
+    }
+    try {
+      return (Object) invoker.handle.invokeExact((Object) null, (Object[]) null);
+    } catch (Throwable ex) {
+      throw new BeanInstantiationException(beanClass, "생성자 실행 중 예외가 발생했습니다", ex);
+    }
+  }
+
+  @Override
+  public Object instantiate(RootBeanDefinition bd, String beanName, BeanFactory owner,
+                            Constructor<?> ctor, Object... args) {
+    Invoker invoker = bd.hasMethodOverrides() ? UNSUPPORTED : invokers.computeIfAbsent(ctor, key -> invoker(ctor));
+    if (invoker == UNSUPPORTED || !invoker.accepts(args)) {
+      return super.instantiate(bd, beanName, owner, ctor, args);
+    }
+    try {
+      return (Object) invoker.handle.invokeExact((Object) null, args);
+    } catch (Throwable ex) {
+      throw new BeanInstantiationException(ctor, "생성자 실행 중 예외가 발생했습니다", ex);
+    }
+  }
+
+  @Override
+  public Object instantiate(RootBeanDefinition bd, String beanName, BeanFactory owner,
+                            Object factoryBean, Method factoryMethod, Object... args) {
+    Invoker invoker = invokers.computeIfAbsent(factoryMethod, key -> invoker(factoryMethod));
+    if (invoker == UNSUPPORTED || !invoker.accepts(args)) {
+      return super.instantiate(bd, beanName, owner, factoryBean, factoryMethod, args);
+    }
+    // @Configuration 클래스의 빈 메서드 호출 처리를 위해 지금 실행 중인 팩토리 메서드를 알려 준다
+    return instantiateWithFactoryMethod(factoryMethod, () -> {
+      try {
+        Object result = (Object) invoker.handle.invokeExact(factoryBean, args);
+        return result != null ? result : NULL_BEAN.newInstance();
+      } catch (BeansException ex) {
+        throw ex;       // 팩토리 메서드 안에서 다른 빈을 만들다 실패한 경우
+      } catch (Throwable ex) {
+        throw new BeanInstantiationException(factoryMethod, "팩토리 메서드 실행 중 예외가 발생했습니다", ex);
+      }
+    });
+  }
+
+  private static Invoker noArgConstructorInvoker(Class<?> beanClass) {
+    if (beanClass.isInterface() || Modifier.isAbstract(beanClass.getModifiers())) {
+      return UNSUPPORTED;
+    }
+    try {
+      return invoker(beanClass.getDeclaredConstructor());
+    } catch (NoSuchMethodException ex) {
+      return UNSUPPORTED;
+    }
+  }
+
+  /* (Object 대상, Object[] 인자) → Object 형태로 맞춘 MethodHandle. 만들 수 없으면 UNSUPPORTED */
+  private static Invoker invoker(Executable executable) {
+    try {
+      MethodHandle handle;
+      if (executable instanceof Constructor<?> ctor) {
+        ReflectionUtils.makeAccessible(ctor);
+        handle = MethodHandles.dropArguments(MethodHandles.lookup().unreflectConstructor(ctor), 0, Object.class);
+      } else {
+        Method method = (Method) executable;
+        ReflectionUtils.makeAccessible(method);
+        handle = MethodHandles.lookup().unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+          handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+      }
+      Class<?>[] types = executable.getParameterTypes();
+      boolean[] primitives = new boolean[types.length];
+      for (int i = 0; i < types.length; i++) {
+        primitives[i] = types[i].isPrimitive();
+      }
+      return new Invoker(handle.asType(MethodType.genericMethodType(types.length + 1))
+          .asSpreader(Object[].class, types.length), primitives);
+    } catch (IllegalAccessException | RuntimeException ex) {
+      return UNSUPPORTED;
+    }
+  }
+
+  /* 캐시된 MethodHandle : (Object 대상, Object[] 인자) → Object */
+  private static final class Invoker {
+    final MethodHandle handle;
+    final boolean[] primitives;     // 파라미터별 기본형 여부
+
+    Invoker(MethodHandle handle, boolean[] primitives) {
+      this.handle = handle;
+      this.primitives = primitives;
+    }
+
+    /* 인자 개수가 맞고 기본형 파라미터에 null이 없으면 true (null 기본형은 Spring이 기본값으로 바꿔 준다) */
+    boolean accepts(Object[] args) {
+      int length = args == null ? 0 : args.length;
+      if (length != primitives.length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (primitives[i] && args[i] == null) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
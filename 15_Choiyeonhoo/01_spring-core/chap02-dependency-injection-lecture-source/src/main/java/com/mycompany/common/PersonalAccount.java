@@ -2,47 +2,84 @@ package com.mycompany.common;
 
 import lombok.Data;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 개인 계좌
+ * - 잔액은 long으로 두고 VarHandle의 CAS(compareAndSet)로 갱신하므로 lock 없이도
+ *   여러 스레드가 동시에 입금/출금할 수 있다.
+ * - 출금은 "잔액 확인 → 차감"을 CAS 한 번으로 처리하므로, 동시에 출금해도 잔액이 음수가 되지 않는다.
+ * - tryDeposit / tryWithDraw는 결과를 long(AccountResult)으로 리턴하고,
+ *   문자열을 리턴하는 기존 메서드는 그 결과를 AccountMessages로 문구로 바꾼다.
+ */
 @Data
 public class PersonalAccount implements Account {
 
+  private static final VarHandle BALANCE;
+
+  static {
+    try {
+      BALANCE = MethodHandles.lookup().findVarHandle(PersonalAccount.class, "balance", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
   private final int bankCode;       //은행코드
   private final String accNo;       //계좌번호
-  private int balance;              //잔액
+  private volatile long balance;    //잔액
 
   @Override
   public String getBalance() {
 
-    return this.accNo + " 계좌의 현재 잔액은 " + this.balance + "원 입니다.";
+    return AccountMessages.balance(this.accNo, this.balance);
   }
 
   @Override
   public String deposit(int money) {
 
-    String str = "";
+    return AccountMessages.render(tryDeposit(money), money);
+  }
 
-    if(money >= 0) {
-      this.balance += money;
-      str = money + "원이 입금되었습니다.";
-    } else {
-      str = "금액을 잘못 입력하셨습니다.";
-    }
+  @Override
+  public String withDraw(int money) {
 
-    return str;
+    return AccountMessages.render(tryWithDraw(money), money);
   }
 
   @Override
-  public String withDraw(int money) {
+  public long currentBalance() {
 
-    String str = "";
+    return this.balance;
+  }
 
-    if(this.balance >= money) {
-      this.balance -= money;
-      str = money + "원이 출금되었습니다.";
-    } else {
-      str = "잔액이 부족합니다. 잔액을 확인해주세요.";
+  @Override
+  public long tryDeposit(int money) {
+
+    if(money < 0) {
+      return AccountResult.of(AccountResult.INVALID_AMOUNT, this.balance);
     }
+    long previous = (long) BALANCE.getAndAdd(this, (long) money);
+    return AccountResult.of(AccountResult.DEPOSITED, previous + money);
+  }
 
-    return str;
+  /* 잔액이 충분하면 money만큼 차감하고, 부족하면 잔액을 그대로 둔다 */
+  @Override
+  public long tryWithDraw(int money) {
+
+    if(money < 0) {
+      return AccountResult.of(AccountResult.INVALID_AMOUNT, this.balance);
+    }
+    long current = this.balance;
+    while (current >= money) {
+      long witness = (long) BALANCE.compareAndExchange(this, current, current - money);
+      if (witness == current) {
+        return AccountResult.of(AccountResult.WITHDRAWN, current - money);
+      }
+      current = witness;    // 다른 스레드가 먼저 바꾼 잔액으로 다시 확인
+    }
+    return AccountResult.of(AccountResult.INSUFFICIENT_BALANCE, current);
   }
 
 }
@@ -0,0 +1,90 @@
+package com.mycompany.common;
+
+import java.util.Arrays;
+
+/**
+ * 계좌 하나의 출금 횟수/금액을 구간(bucket)별로 세는 sliding window
+ * - 구간마다 횟수와 금액을 long 배열(ring buffer)에 두고, 살아 있는 구간의 합계를 따로 유지한다.
+ *   시간이 흐르면 지나간 구간만 합계에서 빼고 비우므로, 확인 비용은 구간 수와 관계없이 일정하다.
+ * - 한도 확인과 예약(횟수/금액 추가)은 이 객체의 lock 하나로 묶는다. 계좌마다 따로 있으므로 전역 lock은 없다.
+ */
+final class SlidingWindowCounter {
+
+  static final long REJECTED = Long.MIN_VALUE;
+
+  private final VelocityLimit limit;
+  private final long bucketNanos;
+  private final int buckets;
+  private final long[] counts;
+  private final long[] amounts;
+
+  // 아래 필드는 lock(this) 안에서만 접근
+  private long currentEpoch = Long.MIN_VALUE;   // 마지막으로 반영한 구간 번호
+  private long totalCount;
+  private long totalAmount;
+
+  SlidingWindowCounter(VelocityLimit limit) {
+    this.limit = limit;
+    this.buckets = limit.getBuckets();
+    this.bucketNanos = limit.getWindowNanos() / buckets;
+    this.counts = new long[buckets];
+    this.amounts = new long[buckets];
+  }
+
+  /**
+   * 한도 안이면 출금 1회와 amount를 window에 예약하고 그 구간 번호를 리턴한다. 한도를 넘으면 REJECTED
+   */
+  synchronized long tryAcquire(long nanoTime, long amount) {
+    long epoch = Math.floorDiv(nanoTime, bucketNanos);
+    advance(epoch);
+    if (totalCount + 1 > limit.getMaxCount() || totalAmount + amount > limit.getMaxAmount()) {
+      return REJECTED;
+    }
+    int slot = slot(epoch);
+    counts[slot]++;
+    amounts[slot] += amount;
+    totalCount++;
+    totalAmount += amount;
+    return epoch;
+  }
+
+  /**
+   * tryAcquire로 예약한 출금을 취소한다 (잔액 부족 등으로 출금하지 못한 경우). 구간이 이미 지나갔으면 무시한다.
+   */
+  synchronized void release(long epoch, long amount) {
+    if (epoch <= currentEpoch - buckets || epoch > currentEpoch) {
+      return;
+    }
+    int slot = slot(epoch);
+    counts[slot]--;
+    amounts[slot] -= amount;
+    totalCount--;
+    totalAmount -= amount;
+  }
+
+  /* epoch 구간까지 지나간 구간을 합계에서 빼고 비운다 */
+  private void advance(long epoch) {
+    if (epoch <= currentEpoch) {
+      return;
+    }
+    if (currentEpoch == Long.MIN_VALUE || epoch - currentEpoch >= buckets) {
+      Arrays.fill(counts, 0);
+      Arrays.fill(amounts, 0);
+      totalCount = 0;
+      totalAmount = 0;
+    } else {
+      for (long e = currentEpoch + 1; e <= epoch; e++) {
+        int slot = slot(e);
+        totalCount -= counts[slot];
+        totalAmount -= amounts[slot];
+        counts[slot] = 0;
+        amounts[slot] = 0;
+      }
+    }
+    currentEpoch = epoch;
+  }
+
+  private int slot(long epoch) {
+    return (int) Math.floorMod(epoch, (long) buckets);
+  }
+}
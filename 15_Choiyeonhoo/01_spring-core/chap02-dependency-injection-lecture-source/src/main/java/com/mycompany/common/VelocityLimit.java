@@ -0,0 +1,59 @@
+package com.mycompany.common;
+
+import java.time.Duration;
+
+/**
+ * 계좌별 출금 속도 제한 : window 동안 출금 횟수 maxCount회, 출금 금액 합계 maxAmount원까지
+ * - window를 buckets개의 구간으로 나누어 세므로, 한도는 구간 크기(window / buckets) 단위로 풀린다.
+ */
+public final class VelocityLimit {
+
+  private static final int DEFAULT_BUCKETS = 60;
+
+  private final long windowNanos;
+  private final int buckets;
+  private final int maxCount;
+  private final long maxAmount;
+
+  private VelocityLimit(Duration window, int buckets, int maxCount, long maxAmount) {
+    if (window.isNegative() || window.isZero()) {
+      throw new IllegalArgumentException("window는 0보다 커야 합니다 : " + window);
+    }
+    if (buckets <= 0 || window.toNanos() < buckets) {
+      throw new IllegalArgumentException("구간 개수가 잘못되었습니다 : " + buckets);
+    }
+    if (maxCount < 0 || maxAmount < 0) {
+      throw new IllegalArgumentException("한도는 0 이상이어야 합니다 : " + maxCount + "회, " + maxAmount + "원");
+    }
+    this.windowNanos = window.toNanos();
+    this.buckets = buckets;
+    this.maxCount = maxCount;
+    this.maxAmount = maxAmount;
+  }
+
+  /* window 동안 최대 maxCount회, 합계 maxAmount원 (구간 60개) */
+  public static VelocityLimit of(Duration window, int maxCount, long maxAmount) {
+    return new VelocityLimit(window, DEFAULT_BUCKETS, maxCount, maxAmount);
+  }
+
+  /* window 동안 최대 maxCount회, 합계 maxAmount원 (구간 buckets개) */
+  public static VelocityLimit of(Duration window, int buckets, int maxCount, long maxAmount) {
+    return new VelocityLimit(window, buckets, maxCount, maxAmount);
+  }
+
+  public long getWindowNanos() {
+    return windowNanos;
+  }
+
+  public int getBuckets() {
+    return buckets;
+  }
+
+  public int getMaxCount() {
+    return maxCount;
+  }
+
+  public long getMaxAmount() {
+    return maxAmount;
+  }
+}
@@ -0,0 +1,77 @@
+package com.mycompany.common;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 출금에 잔액 확인과 함께 기간당 횟수/금액 한도(VelocityLimit)를 적용하는 계좌
+ * - 한도 예약 → 출금 순서로 처리하고, 출금이 실패하면 예약을 취소하므로 실패한 출금은 한도에 세지 않는다.
+ * - 한도를 넘으면 잔액을 바꾸지 않고 VELOCITY_LIMITED를 리턴한다.
+ * - 입금에는 한도를 적용하지 않는다.
+ */
+public class VelocityLimitedAccount implements Account {
+
+  private final String accNo;
+  private final Account account;
+  private final SlidingWindowCounter window;
+  private final LongSupplier clock;
+
+  public VelocityLimitedAccount(String accNo, Account account, VelocityLimit limit) {
+    this(accNo, account, limit, System::nanoTime);
+  }
+
+  /* clock : 현재 시각(ns)을 돌려주는 함수 */
+  public VelocityLimitedAccount(String accNo, Account account, VelocityLimit limit, LongSupplier clock) {
+    this.accNo = accNo;
+    this.account = account;
+    this.window = new SlidingWindowCounter(limit);
+    this.clock = clock;
+  }
+
+  @Override
+  public String getBalance() {
+
+    return AccountMessages.balance(this.accNo, account.currentBalance());
+  }
+
+  @Override
+  public String deposit(int money) {
+
+    return AccountMessages.render(tryDeposit(money), money);
+  }
+
+  @Override
+  public String withDraw(int money) {
+
+    return AccountMessages.render(tryWithDraw(money), money);
+  }
+
+  @Override
+  public long currentBalance() {
+
+    return account.currentBalance();
+  }
+
+  @Override
+  public long tryDeposit(int money) {
+
+    return account.tryDeposit(money);
+  }
+
+  @Override
+  public long tryWithDraw(int money) {
+
+    if(money < 0) {
+      return account.tryWithDraw(money);
+    }
+    long epoch = window.tryAcquire(clock.getAsLong(), money);
+    if(epoch == SlidingWindowCounter.REJECTED) {
+      return AccountResult.of(AccountResult.VELOCITY_LIMITED, account.currentBalance());
+    }
+    long result = account.tryWithDraw(money);
+    if(!AccountResult.isSuccess(result)) {
+      window.release(epoch, money);
+    }
+    return result;
+  }
+
+}
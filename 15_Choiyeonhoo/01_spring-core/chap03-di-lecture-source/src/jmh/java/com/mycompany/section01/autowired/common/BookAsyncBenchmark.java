@@ -0,0 +1,146 @@
+package com.mycompany.section01.autowired.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* 저장소가 느릴 때(조회마다 STORAGE_DELAY_MS 대기) 동시 조회 lookups건을 처리하는 시간과 스레드 수
+ * - platformPool       : 기존 blocking BookDAO를 요청 스레드 pool(REQUEST_THREADS개)에서 호출 (요청마다 스레드가 막힌다)
+ * - platformPerRequest : 요청마다 OS 스레드를 하나씩 만들어 blocking 호출
+ * - async              : AsyncBookDAOImpl (가상 스레드, Java 21 미만에서는 AsyncBookDAOImpl.FALLBACK_THREADS개의 pool)
+ * - 점수는 lookups건이 모두 끝나는 시간이고, iteration마다 최대 OS 스레드 수와 조회별 지연 시간(p50 / p99 / max)을 출력한다.
+ *   (가상 스레드는 ThreadMXBean의 스레드 수에 잡히지 않으므로, async의 최대 스레드 수는 carrier 스레드를 포함한 OS 스레드 수다) */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookAsyncBenchmark {
+
+  private static final int CATALOG_SIZE = 1000;
+  private static final long STORAGE_DELAY_MS = 10;
+  private static final int REQUEST_THREADS = 200;
+
+  @Param({"platformPool", "platformPerRequest", "async"})
+  private String style;
+
+  @Param({"10000"})
+  private int lookups;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private BookDAO bookDAO;
+  private ExecutorService requestThreads;
+  private AsyncBookDAOImpl asyncBookDAO;
+  private long[] latencies;
+  private final AtomicInteger found = new AtomicInteger();
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    List<BookDTO> books = new ArrayList<>(CATALOG_SIZE);
+    Date createdDate = new Date();
+    for (int sequence = 1; sequence <= CATALOG_SIZE; sequence++) {
+      books.add(new BookDTO(sequence, 100_000 + sequence, "도서" + sequence, "저자", "출판사", createdDate));
+    }
+    bookDAO = new SlowBookDAO(new BookDAOImpl(books));
+    latencies = new long[lookups];
+    switch (style) {
+      case "platformPool" -> requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+      case "platformPerRequest" -> requestThreads = Executors.newCachedThreadPool();
+      case "async" -> asyncBookDAO = new AsyncBookDAOImpl(bookDAO);
+      default -> throw new IllegalArgumentException("알 수 없는 방식 : " + style);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void resetPeak() {
+    threads.resetPeakThreadCount();
+  }
+
+  @Benchmark
+  public int lookup() {
+    found.set(0);
+    long start = System.nanoTime();
+    CompletableFuture<?>[] done = new CompletableFuture<?>[lookups];
+    for (int i = 0; i < lookups; i++) {
+      int index = i;
+      int sequence = 1 + i % CATALOG_SIZE;
+      if (asyncBookDAO != null) {
+        done[i] = asyncBookDAO.selectOneBook(sequence).thenAccept(book -> record(index, start, book));
+      } else {
+        done[i] = CompletableFuture.runAsync(() -> record(index, start, bookDAO.selectOneBook(sequence)), requestThreads);
+      }
+    }
+    CompletableFuture.allOf(done).join();
+    return found.get();
+  }
+
+  @TearDown(Level.Iteration)
+  public void report() {
+    if (found.get() != lookups) {
+      throw new IllegalStateException("찾은 도서 수가 다릅니다 : " + found.get());
+    }
+    long[] sorted = latencies.clone();
+    Arrays.sort(sorted);
+    System.out.printf("%n[%s%s] 최대 스레드 %d개, 조회 지연 p50 %.1fms / p99 %.1fms / max %.1fms%n",
+        style, "async".equals(style) && !AsyncBookDAOImpl.isVirtualThreadSupported() ? " (가상 스레드 없음)" : "",
+        threads.getPeakThreadCount(), sorted[lookups / 2] / 1e6, sorted[lookups * 99 / 100] / 1e6, sorted[lookups - 1] / 1e6);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() {
+    if (requestThreads != null) {
+      requestThreads.shutdown();
+    }
+    if (asyncBookDAO != null) {
+      asyncBookDAO.close();
+    }
+  }
+
+  private void record(int index, long start, BookDTO book) {
+    latencies[index] = System.nanoTime() - start;
+    if (book != null) {
+      found.incrementAndGet();
+    }
+  }
+
+  /* 조회마다 STORAGE_DELAY_MS만큼 기다리는 저장소 (네트워크 / 디스크 I/O 흉내) */
+  static final class SlowBookDAO implements BookDAO {
+    private final BookDAO storage;
+
+    SlowBookDAO(BookDAO storage) {
+      this.storage = storage;
+    }
+
+    @Override
+    public List<BookDTO> selectBookList() {
+      pause();
+      return storage.selectBookList();
+    }
+
+    @Override
+    public BookDTO selectOneBook(int sequence) {
+      pause();
+      return storage.selectOneBook(sequence);
+    }
+
+    private static void pause() {
+      try {
+        Thread.sleep(STORAGE_DELAY_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("저장소 조회가 중단되었습니다", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.mycompany.section01.autowired.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* 없는 도서번호 조회(miss)와 있는 도서번호 조회(hit)에서 BloomFilterBookDAO의 효과
+ * - none : 느린 저장소를 흉내 낸 BookDAOImpl을 바로 호출 (조회마다 Blackhole.consumeCPU(STORAGE_COST))
+ * - 0.01, 0.001 : 같은 BookDAOImpl 앞에 그 오탐률의 BloomFilterBookDAO (메모리 한도 MAX_BYTES)
+ * - 도서번호는 홀수만 있고, miss는 그 사이의 짝수를 조회한다. (오탐이면 저장소까지 간다)
+ * - 저장소 호출 수와 오탐 수, filter 크기는 Trial이 끝날 때 BloomFilterBookDAO.stats()로 출력한다. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookBloomBenchmark {
+
+  private static final int KEY_COUNT = 1 << 16;
+  private static final long STORAGE_COST = 2_000;
+  private static final long MAX_BYTES = 16L << 20;
+
+  @Param({"none", "0.01", "0.001"})
+  private String guard;
+
+  @Param({"100000"})
+  private int bookCount;
+
+  private BookDAO bookDAO;
+  private int[] hitKeys;
+  private int[] missKeys;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    List<BookDTO> books = new ArrayList<>(bookCount);
+    Date createdDate = new Date();
+    for (int i = 0; i < bookCount; i++) {
+      int sequence = 2 * i + 1;
+      books.add(new BookDTO(sequence, 100_000 + sequence, "도서" + sequence, "저자", "출판사", createdDate));
+    }
+    SlowBookDAO storage = new SlowBookDAO(books);
+    bookDAO = "none".equals(guard) ? storage : new BloomFilterBookDAO(storage, Double.parseDouble(guard), MAX_BYTES);
+    SplittableRandom random = new SplittableRandom(42);
+    hitKeys = new int[KEY_COUNT];
+    missKeys = new int[KEY_COUNT];
+    for (int i = 0; i < KEY_COUNT; i++) {
+      hitKeys[i] = 2 * random.nextInt(bookCount) + 1;
+      missKeys[i] = 2 * random.nextInt(bookCount) + 2;
+    }
+    for (int key : hitKeys) {
+      if (bookDAO.selectOneBook(key) == null) {
+        throw new IllegalStateException("있는 도서를 없다고 판정했습니다 : " + key);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next;
+
+    @Setup
+    public void setUp() {
+      next = new SplittableRandom().nextInt(KEY_COUNT);
+    }
+  }
+
+  @Benchmark
+  public BookDTO miss(Cursor cursor) {
+    return bookDAO.selectOneBook(missKeys[cursor.next++ & (KEY_COUNT - 1)]);
+  }
+
+  @Benchmark
+  public BookDTO hit(Cursor cursor) {
+    return bookDAO.selectOneBook(hitKeys[cursor.next++ & (KEY_COUNT - 1)]);
+  }
+
+  @TearDown(Level.Trial)
+  public void report() {
+    if (bookDAO instanceof BloomFilterBookDAO filtered) {
+      System.out.println();
+      System.out.println(guard + " : " + filtered.stats());
+    }
+  }
+
+  /* 조회마다 STORAGE_COST만큼 CPU를 쓰는 저장소 */
+  static final class SlowBookDAO extends BookDAOImpl {
+
+    SlowBookDAO(Collection<BookDTO> books) {
+      super(books);
+    }
+
+    @Override
+    public BookDTO selectOneBook(int sequence) {
+      Blackhole.consumeCPU(STORAGE_COST);
+      return super.selectOneBook(sequence);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.mycompany.section01.autowired.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* Zipf 분포(인기 도서에 조회가 몰리는) 도서 조회에서 CachingBookDAO의 효과
+ * - direct : 느린 저장소를 흉내 낸 BookDAO를 바로 호출 (조회마다 Blackhole.consumeCPU(STORAGE_COST))
+ * - cached : 같은 BookDAO 앞에 CachingBookDAO(최대 cacheSize권, 10분 만료)
+ * - 도서 CATALOG_SIZE권 중 순위 r의 도서를 1/r^0.99 비율로 조회한다.
+ * - 적중률/저장소 호출 수는 Trial이 끝날 때 CachingBookDAO.stats()로 출력한다. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookCacheBenchmark {
+
+  private static final int CATALOG_SIZE = 100_000;
+  private static final int KEY_COUNT = 1 << 20;
+  private static final double ZIPF_EXPONENT = 0.99;
+  private static final long STORAGE_COST = 2_000;
+
+  @Param({"direct", "cached"})
+  private String impl;
+
+  @Param({"1000", "10000"})
+  private int cacheSize;
+
+  private int[] keys;
+  private BookDAO bookDAO;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    keys = zipfKeys(KEY_COUNT, CATALOG_SIZE, ZIPF_EXPONENT, 42);
+    BookDAO storage = new SlowBookDAO(CATALOG_SIZE);
+    bookDAO = "cached".equals(impl) ? new CachingBookDAO(storage, cacheSize, Duration.ofMinutes(10)) : storage;
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next;
+
+    @Setup
+    public void setUp() {
+      next = new SplittableRandom().nextInt(KEY_COUNT);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public BookDTO lookup(Cursor cursor) {
+    return bookDAO.selectOneBook(keys[cursor.next++ & (KEY_COUNT - 1)]);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public BookDTO lookup_8threads(Cursor cursor) {
+    return bookDAO.selectOneBook(keys[cursor.next++ & (KEY_COUNT - 1)]);
+  }
+
+  @TearDown(Level.Trial)
+  public void report() {
+    if (bookDAO instanceof CachingBookDAO cache) {
+      System.out.println("cacheSize=" + cacheSize + " " + cache.stats());
+    }
+  }
+
+  /* 도서번호 1 ~ catalogSize를 Zipf 분포로 count개 뽑는다 (누적 분포를 이진 탐색) */
+  static int[] zipfKeys(int count, int catalogSize, double exponent, long seed) {
+    double[] cumulative = new double[catalogSize];
+    double sum = 0;
+    for (int rank = 0; rank < catalogSize; rank++) {
+      sum += 1 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = sum;
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] keys = new int[count];
+    for (int i = 0; i < count; i++) {
+      int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+      keys[i] = Math.min(rank < 0 ? -rank - 1 : rank, catalogSize - 1) + 1;
+    }
+    return keys;
+  }
+
+  /* 조회마다 STORAGE_COST만큼 CPU를 쓰는 저장소 */
+  static final class SlowBookDAO implements BookDAO {
+    private final BookDTO[] books;
+
+    SlowBookDAO(int catalogSize) {
+      books = new BookDTO[catalogSize + 1];
+      Date createdDate = new Date();
+      for (int sequence = 1; sequence <= catalogSize; sequence++) {
+        books[sequence] = new BookDTO(sequence, 100_000 + sequence, "도서" + sequence, "저자" + sequence % 1000,
+            "출판사" + sequence % 100, createdDate);
+      }
+    }
+
+    @Override
+    public List<BookDTO> selectBookList() {
+      return Arrays.asList(books).subList(1, books.length);
+    }
+
+    @Override
+    public BookDTO selectOneBook(int sequence) {
+      Blackhole.consumeCPU(STORAGE_COST);
+      return sequence > 0 && sequence < books.length ? books[sequence] : null;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.section01.autowired.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/* 도서 BOOK_COUNT권에서 ISBN 조회와 출판일 범위 조회 비교
+ * - scan    : BookDAO의 기본 구현 (전체 목록을 훑는다)
+ * - indexed : BookDAOImpl의 색인 (ISBN : IsbnIndex, 출판일 : ConcurrentSkipListMap)
+ * - 도서 n의 출판일은 기준 시각 + n분이므로, rangeMinutes분 범위에는 rangeMinutes권이 들어 있다. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookIndexBenchmark {
+
+  private static final int BOOK_COUNT = 1_000_000;
+  private static final long BASE_TIME = 1_700_000_000_000L;
+  private static final long MINUTE = 60_000L;
+
+  @Param({"scan", "indexed"})
+  private String impl;
+
+  @Param({"60", "1440"})
+  private int rangeMinutes;
+
+  private BookDAO bookDAO;
+  private final SplittableRandom random = new SplittableRandom(42);
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    List<BookDTO> books = new ArrayList<>(BOOK_COUNT);
+    for (int sequence = 1; sequence <= BOOK_COUNT; sequence++) {
+      books.add(new BookDTO(sequence, isbnOf(sequence), "도서" + sequence, "저자" + sequence % 1000,
+          "출판사" + sequence % 100, new Date(BASE_TIME + sequence * MINUTE)));
+    }
+    BookDAOImpl indexed = new BookDAOImpl(books);
+    bookDAO = "indexed".equals(impl) ? indexed : new ScanOnly(indexed);
+
+    BookDTO book = bookDAO.selectBookByIsbn(isbnOf(BOOK_COUNT / 2));
+    int found = bookDAO.selectBookListByCreatedDate(new Date(BASE_TIME + MINUTE), new Date(BASE_TIME + rangeMinutes * MINUTE)).size();
+    if (book == null || book.getSequence() != BOOK_COUNT / 2 || found != rangeMinutes) {
+      throw new IllegalStateException("색인 조회 결과가 다릅니다 : " + book + ", " + found);
+    }
+  }
+
+  @Benchmark
+  public BookDTO isbn() {
+    return bookDAO.selectBookByIsbn(isbnOf(1 + random.nextInt(BOOK_COUNT)));
+  }
+
+  @Benchmark
+  public List<BookDTO> createdDateRange() {
+    long from = BASE_TIME + (1 + random.nextInt(BOOK_COUNT - rangeMinutes)) * MINUTE;
+    return bookDAO.selectBookListByCreatedDate(new Date(from), new Date(from + (rangeMinutes - 1) * MINUTE));
+  }
+
+  /* 도서번호와 순서가 다른 ISBN (홀수를 곱하면 2^32 안에서 1:1) */
+  private static int isbnOf(int sequence) {
+    return sequence * 0x2545F491;
+  }
+
+  /* 색인 없이 BookDAO의 기본 구현으로 조회 */
+  private static final class ScanOnly implements BookDAO {
+    private final BookDAO bookDAO;
+
+    ScanOnly(BookDAO bookDAO) {
+      this.bookDAO = bookDAO;
+    }
+
+    @Override
+    public List<BookDTO> selectBookList() {
+      return bookDAO.selectBookList();
+    }
+
+    @Override
+    public BookDTO selectOneBook(int sequence) {
+      return bookDAO.selectOneBook(sequence);
+    }
+
+    @Override
+    public Stream<BookDTO> streamBookList(String continuationToken) {
+      return bookDAO.streamBookList(continuationToken);
+    }
+  }
+}
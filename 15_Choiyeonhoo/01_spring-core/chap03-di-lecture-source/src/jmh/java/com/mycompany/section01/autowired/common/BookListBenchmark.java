@@ -0,0 +1,82 @@
+package com.mycompany.section01.autowired.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* 도서 BOOK_COUNT권에서 목록 조회 방식별 시간과 할당량 비교
+ * - list_*   : selectBookList() (호출마다 전체 목록을 ArrayList로 복사)
+ * - stream_* : streamBookList(token) (ConcurrentSkipListMap view를 그대로 순회, 복사 없음)
+ * - page_*   : selectBookPage(token, pageSize) (페이지 크기만큼의 List만 만든다)
+ * - *_firstPage : 첫 화면처럼 앞의 pageSize권만 필요한 경우, *_fullScan : 전체를 한 번 훑는 경우
+ * - 할당량은 gc 프로파일러 결과의 gc.alloc.rate.norm (B/op)으로 확인한다. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookListBenchmark {
+
+  static final int BOOK_COUNT = 1_000_000;
+
+  @Param({"100", "1000"})
+  private int pageSize;
+
+  private BookDAO bookDAO;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    bookDAO = new BookDAOImpl(books(BOOK_COUNT));
+  }
+
+  @Benchmark
+  public List<BookDTO> list_firstPage() {
+    return bookDAO.selectBookList().subList(0, pageSize);
+  }
+
+  @Benchmark
+  public BookPage page_firstPage() {
+    return bookDAO.selectBookPage(null, pageSize);
+  }
+
+  @Benchmark
+  public void list_fullScan(Blackhole blackhole) {
+    for (BookDTO book : bookDAO.selectBookList()) {
+      blackhole.consume(book);
+    }
+  }
+
+  @Benchmark
+  public void stream_fullScan(Blackhole blackhole) {
+    bookDAO.streamBookList(null).forEach(blackhole::consume);
+  }
+
+  @Benchmark
+  public int page_fullScan(Blackhole blackhole) {
+    int pages = 0;
+    String token = null;
+    do {
+      BookPage page = bookDAO.selectBookPage(token, pageSize);
+      page.getBooks().forEach(blackhole::consume);
+      token = page.getNextToken();
+      pages++;
+    } while (token != null);
+    return pages;
+  }
+
+  /* 도서번호 1 ~ count인 도서 목록 */
+  static List<BookDTO> books(int count) {
+    List<BookDTO> books = new ArrayList<>(count);
+    Date createdDate = new Date();
+    for (int sequence = 1; sequence <= count; sequence++) {
+      books.add(new BookDTO(sequence, 100_000 + sequence, "도서" + sequence, "저자" + sequence % 1000,
+          "출판사" + sequence % 100, createdDate));
+    }
+    return books;
+  }
+}
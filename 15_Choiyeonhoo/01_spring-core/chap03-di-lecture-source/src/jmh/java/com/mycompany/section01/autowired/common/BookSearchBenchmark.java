@@ -0,0 +1,134 @@
+package com.mycompany.section01.autowired.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* 도서 BOOK_COUNT권의 제목/저자 검색
+ * - search_*  : 상위 10권 검색 한 번의 시간
+ *   index : BookSearchIndex (bi-gram 역색인), scan : BookDAO 기본 구현 (전체 목록을 훑는다)
+ * - indexing  : 도서 BOOK_COUNT권을 새 색인에 넣는 시간 (결과는 도서 한 권당 시간, 초당 권수 = 10^9 / ns)
+ * - 제목은 자주 쓰이는 음절로 만든 단어 VOCABULARY_SIZE개 중 Zipf 분포로 2 ~ 5개를 골라 만든다.
+ *   자주 나오는 단어(흔한 검색어)와 드문 단어가 섞이도록 검색어는 상위 단어, 단어 두 개, 실제 제목에서 고른다. */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookSearchBenchmark {
+
+  private static final int BOOK_COUNT = 1_000_000;
+  private static final int VOCABULARY_SIZE = 20_000;
+  private static final int QUERY_COUNT = 64;
+
+  private List<BookDTO> books;
+  private String[] queries;
+  private BookSearchIndex index;
+  private BookDAO scan;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    SplittableRandom random = new SplittableRandom(7);
+    String[] vocabulary = vocabulary(random);
+    books = books(vocabulary, random);
+    index = new BookSearchIndex();
+    books.forEach(index::add);
+    scan = new BookDAO() {
+      @Override
+      public List<BookDTO> selectBookList() {
+        return books;
+      }
+
+      @Override
+      public BookDTO selectOneBook(int sequence) {
+        return books.get(sequence - 1);
+      }
+    };
+
+    queries = new String[QUERY_COUNT];
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      queries[i] = switch (i % 3) {
+        case 0 -> vocabulary[i / 3];
+        case 1 -> vocabulary[i] + " " + vocabulary[i * 7];
+        default -> books.get(random.nextInt(BOOK_COUNT)).getTitle();
+      };
+    }
+    if (index.search("자바의 정석", 1).isEmpty()) {
+      throw new IllegalStateException("검색 색인이 만들어지지 않았습니다");
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public List<BookDTO> search_index() {
+    return index.search(queries[next++ & (QUERY_COUNT - 1)], 10);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public List<BookDTO> search_scan() {
+    return scan.searchBooks(queries[next++ & (QUERY_COUNT - 1)], 10);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @OperationsPerInvocation(BOOK_COUNT)
+  @Warmup(iterations = 2)
+  @Measurement(iterations = 5)
+  public BookSearchIndex indexing() {
+    BookSearchIndex fresh = new BookSearchIndex();
+    for (BookDTO book : books) {
+      fresh.add(book);
+    }
+    return fresh;
+  }
+
+  /* 음절 300개 중 앞쪽 음절이 자주 쓰이도록 골라 2 ~ 4음절 단어를 만든다 (단어끼리 bi-gram이 겹친다) */
+  private static String[] vocabulary(SplittableRandom random) {
+    char[] syllables = new char[300];
+    for (int i = 0; i < syllables.length; i++) {
+      syllables[i] = (char) ('가' + random.nextInt('힣' - '가' + 1));
+    }
+    String[] vocabulary = new String[VOCABULARY_SIZE];
+    for (int i = 0; i < VOCABULARY_SIZE; i++) {
+      int length = 2 + random.nextInt(3);
+      StringBuilder word = new StringBuilder(length);
+      for (int j = 0; j < length; j++) {
+        double skew = random.nextDouble();
+        word.append(syllables[(int) (skew * skew * syllables.length)]);
+      }
+      vocabulary[i] = word.toString();
+    }
+    return vocabulary;
+  }
+
+  /* 순위 r의 단어를 1/r 비율로 골라 제목을 만든다. 첫 두 권은 예제 도서 */
+  private static List<BookDTO> books(String[] vocabulary, SplittableRandom random) {
+    double[] cumulative = new double[vocabulary.length];
+    double sum = 0;
+    for (int rank = 0; rank < vocabulary.length; rank++) {
+      sum += 1.0 / (rank + 1);
+      cumulative[rank] = sum;
+    }
+    List<BookDTO> books = new ArrayList<>(BOOK_COUNT);
+    books.add(new BookDTO(1, 123456, "자바의 정석", "남궁성", "도우출판", null));
+    books.add(new BookDTO(2, 654321, "칭찬은 고래도 춤추게 한다", "고래", "고래출판", null));
+    for (int sequence = 3; sequence <= BOOK_COUNT; sequence++) {
+      int words = 2 + random.nextInt(4);
+      StringBuilder title = new StringBuilder();
+      for (int w = 0; w < words; w++) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+        title.append(w == 0 ? "" : " ").append(vocabulary[Math.min(rank < 0 ? -rank - 1 : rank, vocabulary.length - 1)]);
+      }
+      books.add(new BookDTO(sequence, sequence, title.toString(), vocabulary[random.nextInt(vocabulary.length)],
+          "출판사" + sequence % 100, null));
+    }
+    return books;
+  }
+}
@@ -0,0 +1,155 @@
+package com.mycompany.section01.autowired.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/* 쓰기가 계속되는 동안의 도서번호 조회 지연 시간 (읽기 7 스레드 + 쓰기 1 스레드)
+ * - snapshot          : SnapshotBookDAO (읽기는 lock 없음, 쓰기마다 새 스냅샷)
+ * - concurrentHashMap : ConcurrentHashMap<Integer, BookDTO>
+ * - readWriteLock     : HashMap + ReentrantReadWriteLock
+ * - 쓰기 스레드는 쉬지 않고 기존 도서를 바꾼다. SampleTime 결과의 p0.99, p0.999로 읽기 지연의 꼬리를 비교한다.
+ *   (snapshot의 쓰기 처리량은 스냅샷 복사 때문에 bookCount에 반비례한다) */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSnapshotBenchmark {
+
+  @Param({"snapshot", "concurrentHashMap", "readWriteLock"})
+  private String impl;
+
+  @Param({"10000", "100000"})
+  private int bookCount;
+
+  private BookDAO bookDAO;
+  private Consumer<BookDTO> writer;
+  private BookDTO[] replacements;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    List<BookDTO> books = new ArrayList<>(bookCount);
+    replacements = new BookDTO[bookCount];
+    Date createdDate = new Date();
+    for (int sequence = 1; sequence <= bookCount; sequence++) {
+      books.add(new BookDTO(sequence, 100_000 + sequence, "도서" + sequence, "저자", "출판사", createdDate));
+      replacements[sequence - 1] = new BookDTO(sequence, 100_000 + sequence, "개정판" + sequence, "저자", "출판사", createdDate);
+    }
+    switch (impl) {
+      case "snapshot" -> {
+        SnapshotBookDAO snapshot = new SnapshotBookDAO(books);
+        bookDAO = snapshot;
+        writer = snapshot::insertBook;
+      }
+      case "concurrentHashMap" -> {
+        ConcurrentMapBookDAO map = new ConcurrentMapBookDAO(books);
+        bookDAO = map;
+        writer = map::insertBook;
+      }
+      case "readWriteLock" -> {
+        ReadWriteLockBookDAO locked = new ReadWriteLockBookDAO(books);
+        bookDAO = locked;
+        writer = locked::insertBook;
+      }
+      default -> throw new IllegalArgumentException("알 수 없는 구현 : " + impl);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    final SplittableRandom random = new SplittableRandom();
+  }
+
+  @Benchmark
+  @Group("readWhileWriting")
+  @GroupThreads(7)
+  public BookDTO read(Cursor cursor) {
+    return bookDAO.selectOneBook(1 + cursor.random.nextInt(bookCount));
+  }
+
+  @Benchmark
+  @Group("readWhileWriting")
+  @GroupThreads(1)
+  public void write(Cursor cursor) {
+    writer.accept(replacements[cursor.random.nextInt(bookCount)]);
+  }
+
+  @TearDown(Level.Trial)
+  public void verify() {
+    if (bookDAO.selectBookList().size() != bookCount) {
+      throw new IllegalStateException("도서 수가 달라졌습니다 : " + bookDAO.selectBookList().size());
+    }
+  }
+
+  /* 비교용 : ConcurrentHashMap 하나에 담는 BookDAO */
+  static final class ConcurrentMapBookDAO implements BookDAO {
+    private final ConcurrentHashMap<Integer, BookDTO> books = new ConcurrentHashMap<>();
+
+    ConcurrentMapBookDAO(List<BookDTO> books) {
+      books.forEach(this::insertBook);
+    }
+
+    void insertBook(BookDTO book) {
+      books.put(book.getSequence(), book);
+    }
+
+    @Override
+    public List<BookDTO> selectBookList() {
+      return new ArrayList<>(books.values());
+    }
+
+    @Override
+    public BookDTO selectOneBook(int sequence) {
+      return books.get(sequence);
+    }
+  }
+
+  /* 비교용 : HashMap을 ReentrantReadWriteLock으로 보호하는 BookDAO */
+  static final class ReadWriteLockBookDAO implements BookDAO {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<Integer, BookDTO> books = new HashMap<>();
+
+    ReadWriteLockBookDAO(List<BookDTO> books) {
+      books.forEach(this::insertBook);
+    }
+
+    void insertBook(BookDTO book) {
+      lock.writeLock().lock();
+      try {
+        books.put(book.getSequence(), book);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    @Override
+    public List<BookDTO> selectBookList() {
+      lock.readLock().lock();
+      try {
+        return new ArrayList<>(books.values());
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    @Override
+    public BookDTO selectOneBook(int sequence) {
+      lock.readLock().lock();
+      try {
+        return books.get(sequence);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.mycompany.section01.autowired.common;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/* BookDAO의 비동기 버전 : 조회를 요청한 스레드는 기다리지 않고, 결과는 CompletableFuture로 받는다 */
+public interface AsyncBookDAO {
+  /* 도서 목록 전체 조회 */
+  CompletableFuture<List<BookDTO>> selectBookList();
+
+  /* 도서 번호로 도서 조회 (없으면 null로 완료) */
+  CompletableFuture<BookDTO> selectOneBook(int sequence);
+}
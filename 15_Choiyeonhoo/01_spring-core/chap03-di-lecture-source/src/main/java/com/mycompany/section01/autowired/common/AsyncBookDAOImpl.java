@@ -0,0 +1,97 @@
+package com.mycompany.section01.autowired.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 기존(blocking) BookDAO를 executor에서 호출해 AsyncBookDAO로 쓰게 하는 어댑터
+ * - 기본 executor는 조회마다 가상 스레드(virtual thread)를 하나씩 쓴다. 저장소를 기다리는 동안 가상 스레드는
+ *   carrier 스레드를 내려놓으므로, 동시 조회가 수만 건이어도 OS 스레드는 CPU 코어 수 정도만 쓴다.
+ * - 가상 스레드는 Java 21부터 있으므로, 그보다 낮은 버전에서는 FALLBACK_THREADS개의 스레드 pool을 대신 쓴다.
+ *   (동시 조회가 FALLBACK_THREADS를 넘으면 나머지는 대기열에서 기다린다)
+ * - 조회 중 발생한 예외는 CompletableFuture를 예외로 완료한다.
+ * - executor는 이 객체가 소유하며 close()에서 종료한다. (bean이면 컨텍스트 종료 시 호출된다)
+ */
+@Repository("asyncBookDAO")
+public class AsyncBookDAOImpl implements AsyncBookDAO, AutoCloseable {
+
+  static final int FALLBACK_THREADS = 256;
+
+  private final BookDAO bookDAO;
+  private final ExecutorService executor;
+
+  /* BookDAO 타입의 빈 객체를 주입받아 가상 스레드 executor에서 호출한다 */
+  @Autowired
+  public AsyncBookDAOImpl(BookDAO bookDAO) {
+    this(bookDAO, newVirtualThreadExecutor());
+  }
+
+  public AsyncBookDAOImpl(BookDAO bookDAO, ExecutorService executor) {
+    this.bookDAO = bookDAO;
+    this.executor = executor;
+  }
+
+  @Override
+  public CompletableFuture<List<BookDTO>> selectBookList() {
+    return CompletableFuture.supplyAsync(bookDAO::selectBookList, executor);
+  }
+
+  @Override
+  public CompletableFuture<BookDTO> selectOneBook(int sequence) {
+    return CompletableFuture.supplyAsync(() -> bookDAO.selectOneBook(sequence), executor);
+  }
+
+  /* 새 조회를 더 받지 않는다. 이미 요청한 조회는 끝까지 실행된다 */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * 작업마다 가상 스레드를 만드는 executor (Executors.newVirtualThreadPerTaskExecutor)
+   * - Java 17에서도 컴파일되도록 reflection으로 찾고, 없으면 FALLBACK_THREADS개의 daemon 스레드 pool을 만든다.
+   */
+  public static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (NoSuchMethodException e) {
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(FALLBACK_THREADS, FALLBACK_THREADS,
+          60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemonThreads("async-book-dao-"));
+      pool.allowCoreThreadTimeOut(true);
+      return pool;
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("가상 스레드 executor를 만들 수 없습니다 : " + e.getMessage(), e);
+    }
+  }
+
+  /* 가상 스레드를 쓸 수 있는 Java 버전인지 */
+  public static boolean isVirtualThreadSupported() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return task -> {
+      Thread thread = new Thread(task, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,190 @@
+package com.mycompany.section01.autowired.common;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 없는 도서번호 조회를 저장소까지 보내지 않는 BookDAO 장식자 (Bloom filter guard)
+ * - selectOneBook은 먼저 ScalableBloomFilter에 묻고, 확실히 없다고 하면 BookDAOImpl을 호출하지 않고 null을 돌려준다.
+ *   있을 수도 있다고 하면 BookDAOImpl에서 읽는다. (오탐이면 저장소를 한 번 헛걸음한다)
+ * - 만들 때 저장소의 도서번호를 모두 담고, 이후 insertBook은 저장소에 넣기 전에 filter에 담는다.
+ *   그래서 없다고 잘못 답하는 일(false negative)은 없다. 쓰기는 반드시 이 객체를 통해야 한다.
+ * - deleteBook으로 지운 도서번호는 filter에 남아 오탐이 된다. 지운 수가 담은 수의 REBUILD_RATIO를 넘으면
+ *   저장소의 지금 도서번호로 filter를 새로 만들어 바꾼다. (만드는 동안 조회는 이전 filter로 계속된다)
+ * - 도서번호 조회 외의 조회(목록, 페이지, ISBN, 출판일, 검색)는 BookDAOImpl을 그대로 호출한다.
+ */
+public class BloomFilterBookDAO implements BookDAO {
+
+  static final double REBUILD_RATIO = 0.25;
+
+  /**
+   * filter 사용 통계
+   */
+  public static final class Stats {
+    private final long skipCount;
+    private final long passCount;
+    private final long falsePositiveCount;
+    private final long rebuildCount;
+    private final long bytes;
+    private final double expectedFalsePositiveRate;
+    private final boolean saturated;
+
+    Stats(long skipCount, long passCount, long falsePositiveCount, long rebuildCount,
+          long bytes, double expectedFalsePositiveRate, boolean saturated) {
+      this.skipCount = skipCount;
+      this.passCount = passCount;
+      this.falsePositiveCount = falsePositiveCount;
+      this.rebuildCount = rebuildCount;
+      this.bytes = bytes;
+      this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+      this.saturated = saturated;
+    }
+
+    /* 저장소를 호출하지 않고 null을 돌려준 조회 수 */
+    public long getSkipCount() {
+      return skipCount;
+    }
+
+    /* filter를 통과해 저장소를 호출한 조회 수 */
+    public long getPassCount() {
+      return passCount;
+    }
+
+    /* filter를 통과했지만 저장소에 없던 조회 수 */
+    public long getFalsePositiveCount() {
+      return falsePositiveCount;
+    }
+
+    /* 지운 도서번호가 쌓여 filter를 새로 만든 횟수 */
+    public long getRebuildCount() {
+      return rebuildCount;
+    }
+
+    /* filter의 비트 배열 크기 (byte) */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /* 지금 담긴 수로 계산한 오탐률 (지운 도서번호는 빠진다) */
+    public double getExpectedFalsePositiveRate() {
+      return expectedFalsePositiveRate;
+    }
+
+    /* 메모리 한도 때문에 목표 오탐률을 지키지 못하고 있으면 true */
+    public boolean isSaturated() {
+      return saturated;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Stats(skip=%d, pass=%d, falsePositive=%d, rebuild=%d, bytes=%d, expectedFpp=%.5f, saturated=%s)",
+          skipCount, passCount, falsePositiveCount, rebuildCount, bytes, expectedFalsePositiveRate, saturated);
+    }
+  }
+
+  private final BookDAOImpl bookDAO;
+  private final double falsePositiveRate;
+  private final long maxBytes;
+  private volatile ScalableBloomFilter filter;
+
+  // 아래 필드는 this의 lock 안에서만 바꾼다
+  private long staleCount;
+  private volatile long rebuildCount;
+
+  private final LongAdder skips = new LongAdder();
+  private final LongAdder passes = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+
+  /**
+   * - falsePositiveRate : 목표 오탐률 (예: 0.01)
+   * - maxBytes : filter 비트 배열의 최대 크기. 넘게 되면 filter를 더 늘리지 않고 오탐률이 올라간다.
+   */
+  public BloomFilterBookDAO(BookDAOImpl bookDAO, double falsePositiveRate, long maxBytes) {
+    this.bookDAO = bookDAO;
+    this.falsePositiveRate = falsePositiveRate;
+    this.maxBytes = maxBytes;
+    synchronized (this) {
+      rebuild();
+    }
+  }
+
+  @Override
+  public List<BookDTO> selectBookList() {
+    return bookDAO.selectBookList();
+  }
+
+  @Override
+  public Stream<BookDTO> streamBookList(String continuationToken) {
+    return bookDAO.streamBookList(continuationToken);
+  }
+
+  @Override
+  public BookPage selectBookPage(String continuationToken, int pageSize) {
+    return bookDAO.selectBookPage(continuationToken, pageSize);
+  }
+
+  @Override
+  public BookDTO selectBookByIsbn(int isbn) {
+    return bookDAO.selectBookByIsbn(isbn);
+  }
+
+  @Override
+  public List<BookDTO> selectBookListByCreatedDate(Date from, Date to) {
+    return bookDAO.selectBookListByCreatedDate(from, to);
+  }
+
+  @Override
+  public List<BookDTO> searchBooks(String keyword, int limit) {
+    return bookDAO.searchBooks(keyword, limit);
+  }
+
+  @Override
+  public BookDTO selectOneBook(int sequence) {
+    if (!filter.mightContain(sequence)) {
+      skips.increment();
+      return null;
+    }
+    passes.increment();
+    BookDTO book = bookDAO.selectOneBook(sequence);
+    if (book == null) {
+      falsePositives.increment();
+    }
+    return book;
+  }
+
+  /* 도서를 추가한다. 같은 도서번호가 있으면 바꾸고 이전 도서를 리턴 (BookDAOImpl.insertBook) */
+  public synchronized BookDTO insertBook(BookDTO book) {
+    filter.add(book.getSequence());       // 저장소에 보이기 전에 담는다
+    return bookDAO.insertBook(book);
+  }
+
+  /* 도서번호로 도서를 지운다. 지운 도서를 리턴 (없으면 null) */
+  public synchronized BookDTO deleteBook(int sequence) {
+    BookDTO removed = bookDAO.deleteBook(sequence);
+    if (removed != null && ++staleCount > filter.count() * REBUILD_RATIO) {
+      rebuild();
+      rebuildCount++;
+    }
+    return removed;
+  }
+
+  public Stats stats() {
+    ScalableBloomFilter current = filter;
+    return new Stats(skips.sum(), passes.sum(), falsePositives.sum(), rebuildCount,
+        current.bytes(), current.expectedFalsePositiveRate(), current.isSaturated());
+  }
+
+  /* 저장소의 지금 도서번호로 filter를 새로 만든다. 첫 단계는 지금 도서 수보다 25% 크게 잡는다 (this의 lock 안에서 호출) */
+  private void rebuild() {
+    List<BookDTO> books = bookDAO.selectBookList();
+    int capacity = Math.max(1024, books.size() + books.size() / 4);
+    ScalableBloomFilter rebuilt = new ScalableBloomFilter(capacity, falsePositiveRate, maxBytes);
+    for (BookDTO book : books) {
+      rebuilt.add(book.getSequence());
+    }
+    filter = rebuilt;
+    staleCount = 0;
+  }
+}
@@ -1,6 +1,9 @@
 package com.mycompany.section01.autowired.common;
 
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookDAO {
   /* 도서 목록 전체 조회 */
@@ -8,4 +11,63 @@ public interface BookDAO {
 
   /* 도서 번호로 도서 조회 */
   BookDTO selectOneBook(int sequence);
+
+  /* 도서 목록을 도서번호 순서로 조회 (continuationToken 다음부터, null이면 처음부터)
+   * - 기본 구현은 selectBookList()를 정렬하므로, 구현체는 목록을 복사하지 않는 방식으로 재정의한다. */
+  default Stream<BookDTO> streamBookList(String continuationToken) {
+    Stream<BookDTO> books = selectBookList().stream();
+    if (continuationToken != null) {
+      int after = BookPage.decode(continuationToken);
+      books = books.filter(book -> book.getSequence() > after);
+    }
+    return books.sorted(Comparator.comparingInt(BookDTO::getSequence));
+  }
+
+  /* 도서 목록을 pageSize권씩 나누어 조회. 다음 페이지는 BookPage.getNextToken()으로 이어서 조회한다 */
+  default BookPage selectBookPage(String continuationToken, int pageSize) {
+    BookPage.checkPageSize(pageSize);
+    return BookPage.of(streamBookList(continuationToken).limit(pageSize + 1L).toList(), pageSize);
+  }
+
+  /* ISBN으로 도서 조회 (없으면 null)
+   * - 기본 구현은 전체 목록을 훑으므로, 구현체는 색인으로 재정의한다. */
+  default BookDTO selectBookByIsbn(int isbn) {
+    return streamBookList(null).filter(book -> book.getIsbn() == isbn).findFirst().orElse(null);
+  }
+
+  /* 출판일이 from ~ to(양끝 포함)인 도서를 출판일, 도서번호 순서로 조회
+   * - 기본 구현은 전체 목록을 훑으므로, 구현체는 색인으로 재정의한다. */
+  default List<BookDTO> selectBookListByCreatedDate(Date from, Date to) {
+    long fromTime = from.getTime();
+    long toTime = to.getTime();
+    return streamBookList(null)
+        .filter(book -> book.getCreatedDate() != null
+            && book.getCreatedDate().getTime() >= fromTime && book.getCreatedDate().getTime() <= toTime)
+        .sorted(Comparator.comparing(BookDTO::getCreatedDate).thenComparingInt(BookDTO::getSequence))
+        .toList();
+  }
+
+  /* 제목이나 저자에 keyword의 단어가 모두 들어 있는 도서를 최대 limit권 조회
+   * - 기본 구현은 전체 목록을 훑어 도서번호 순서로 돌려주므로, 구현체는 색인(BookSearchIndex)으로 재정의한다. */
+  default List<BookDTO> searchBooks(String keyword, int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("검색 개수는 1 이상이어야 합니다 : " + limit);
+    }
+    String[] words = keyword.trim().toLowerCase().split("\\s+");
+    if (words[0].isEmpty()) {
+      return List.of();
+    }
+    return streamBookList(null)
+        .filter(book -> {
+          String text = (book.getTitle() + " " + book.getAuthor()).toLowerCase();
+          for (String word : words) {
+            if (!text.contains(word)) {
+              return false;
+            }
+          }
+          return true;
+        })
+        .limit(limit)
+        .toList();
+  }
 }
@@ -3,21 +3,42 @@ package com.mycompany.section01.autowired.common;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /* @Repository : @Component의 세분화 어노테이션의 한 종류로 DAO 타입의 객체에 사용한다. */
 @Repository("bookDAO")
 public class BookDAOImpl implements BookDAO {
 
-  private Map<Integer, BookDTO> bookList;
+  /* 도서번호 순서로 정렬해 두어 페이지 단위 조회(streamBookList)가 목록을 복사하지 않고 이어서 읽을 수 있다 */
+  private ConcurrentNavigableMap<Integer, BookDTO> bookList;
+
+  /* ISBN 색인, 출판일 색인, 제목/저자 검색 색인 : insertBook / deleteBook에서 bookList와 함께 바꾼다 */
+  private IsbnIndex isbnIndex;
+  private ConcurrentNavigableMap<DateKey, BookDTO> createdDateIndex;
+  private BookSearchIndex searchIndex;
 
   public BookDAOImpl() {
-    bookList = new HashMap<>();
-    bookList.put(1, new BookDTO(1, 123456, "자바의 정석", "남궁성", "도우출판", new Date()));
-    bookList.put(2,
-        new BookDTO(2, 654321, "칭찬은 고래도 춤추게 한다", "고래", "고래출판", new Date()));
+    this(List.of(
+        new BookDTO(1, 123456, "자바의 정석", "남궁성", "도우출판", new Date()),
+        new BookDTO(2, 654321, "칭찬은 고래도 춤추게 한다", "고래", "고래출판", new Date())));
+  }
+
+  /* 주어진 도서로 채운 DAO (같은 도서번호는 나중 것이 남는다) */
+  public BookDAOImpl(Collection<BookDTO> books) {
+    bookList = new ConcurrentSkipListMap<>();
+    isbnIndex = new IsbnIndex(books.size());
+    createdDateIndex = new ConcurrentSkipListMap<>();
+    searchIndex = new BookSearchIndex();
+    for (BookDTO book : books) {
+      insertBook(book);
+    }
   }
 
+  /* 기존 호환용 : 전체 목록을 새 List로 복사한다. 큰 목록은 streamBookList / selectBookPage를 사용 */
   @Override
   public List<BookDTO> selectBookList() {
     return new ArrayList<>(bookList.values());
@@ -27,6 +48,95 @@ public class BookDAOImpl implements BookDAO {
   public BookDTO selectOneBook(int sequence) {
     return bookList.get(sequence);
   }
-}
 
+  /* 정렬된 map의 view(tailMap)를 그대로 Spliterator로 감싸므로, 읽는 만큼만 순회하고 목록을 복사하지 않는다 */
+  @Override
+  public Stream<BookDTO> streamBookList(String continuationToken) {
+    SortedMap<Integer, BookDTO> books = continuationToken == null
+        ? bookList
+        : bookList.tailMap(BookPage.decode(continuationToken), false);
+    return StreamSupport.stream(books.values().spliterator(), false);
+  }
+
+  @Override
+  public BookDTO selectBookByIsbn(int isbn) {
+    return isbnIndex.get(isbn);
+  }
 
+  @Override
+  public List<BookDTO> selectBookListByCreatedDate(Date from, Date to) {
+    if (from.after(to)) {
+      return List.of();
+    }
+    return new ArrayList<>(createdDateIndex.subMap(
+        new DateKey(from.getTime(), Integer.MIN_VALUE), true,
+        new DateKey(to.getTime(), Integer.MAX_VALUE), true).values());
+  }
+
+  /* 점수(제목/저자에 검색어가 나온 정도) 순서로 돌려준다 */
+  @Override
+  public List<BookDTO> searchBooks(String keyword, int limit) {
+    return searchIndex.search(keyword, limit);
+  }
+
+  /**
+   * 도서를 추가한다. 같은 도서번호가 있으면 바꾸고 이전 도서를 리턴
+   * - 색인은 추가할 때의 isbn, createdDate로 만들므로, 추가한 BookDTO를 직접 고친 경우에는 다시 insertBook 해야 한다.
+   */
+  public synchronized BookDTO insertBook(BookDTO book) {
+    BookDTO previous = bookList.put(book.getSequence(), book);
+    if (previous != null) {
+      unindex(previous);
+    }
+    isbnIndex.add(book);
+    if (book.getCreatedDate() != null) {
+      createdDateIndex.put(new DateKey(book.getCreatedDate().getTime(), book.getSequence()), book);
+    }
+    searchIndex.add(book);
+    return previous;
+  }
+
+  /* 도서번호로 도서를 지운다. 지운 도서를 리턴 (없으면 null) */
+  public synchronized BookDTO deleteBook(int sequence) {
+    BookDTO removed = bookList.remove(sequence);
+    if (removed != null) {
+      unindex(removed);
+      searchIndex.remove(sequence);
+    }
+    return removed;
+  }
+
+  private void unindex(BookDTO book) {
+    isbnIndex.remove(book);
+    if (book.getCreatedDate() != null) {
+      createdDateIndex.remove(new DateKey(book.getCreatedDate().getTime(), book.getSequence()), book);
+    }
+  }
+
+  /* 출판일 색인의 키 : (출판 시각, 도서번호) 순서. 같은 날 출판된 도서도 도서번호로 구분된다 */
+  private static final class DateKey implements Comparable<DateKey> {
+    final long time;
+    final int sequence;
+
+    DateKey(long time, int sequence) {
+      this.time = time;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(DateKey other) {
+      int byTime = Long.compare(time, other.time);
+      return byTime != 0 ? byTime : Integer.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof DateKey other && time == other.time && sequence == other.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(time) * 31 + sequence;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.mycompany.section01.autowired.common;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 도서 목록의 한 페이지 (BookDAO.selectBookPage의 결과)
+ * - 도서는 도서번호 순서이며, 다음 페이지는 nextToken을 그대로 넘겨 이어서 조회한다.
+ * - token은 "이 페이지의 마지막 도서번호"를 담은 문자열이다. 도서가 추가/삭제되어도
+ *   offset 방식과 달리 이미 본 도서를 다시 받거나 건너뛰지 않는다.
+ */
+public final class BookPage {
+
+  private static final byte TOKEN_VERSION = 1;
+  private static final int TOKEN_SIZE = 5;      // version(1) + 마지막 도서번호(4)
+
+  private final List<BookDTO> books;
+  private final String nextToken;
+
+  private BookPage(List<BookDTO> books, String nextToken) {
+    this.books = books;
+    this.nextToken = nextToken;
+  }
+
+  /* 이 페이지의 도서 (수정 불가) */
+  public List<BookDTO> getBooks() {
+    return books;
+  }
+
+  /* 다음 페이지를 조회할 token. 마지막 페이지이면 null */
+  public String getNextToken() {
+    return nextToken;
+  }
+
+  public boolean hasNext() {
+    return nextToken != null;
+  }
+
+  /* 도서번호 순으로 pageSize + 1개까지 읽은 목록으로 페이지를 만든다 (1개 더 있으면 다음 페이지가 있다) */
+  static BookPage of(List<BookDTO> fetched, int pageSize) {
+    if (fetched.size() <= pageSize) {
+      return new BookPage(fetched, null);
+    }
+    List<BookDTO> books = fetched.subList(0, pageSize);
+    return new BookPage(books, encode(books.get(pageSize - 1).getSequence()));
+  }
+
+  static void checkPageSize(int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("페이지 크기는 1 이상이어야 합니다 : " + pageSize);
+    }
+  }
+
+  static String encode(int lastSequence) {
+    byte[] token = ByteBuffer.allocate(TOKEN_SIZE).put(TOKEN_VERSION).putInt(lastSequence).array();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+  }
+
+  /* token 다음부터 조회할 기준 도서번호 (이 번호는 제외). token이 null이면 처음부터 */
+  static int decode(String continuationToken) {
+    if (continuationToken == null) {
+      return Integer.MIN_VALUE;
+    }
+    byte[] token;
+    try {
+      token = Base64.getUrlDecoder().decode(continuationToken);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("잘못된 continuation token입니다 : " + continuationToken, e);
+    }
+    if (token.length != TOKEN_SIZE || token[0] != TOKEN_VERSION) {
+      throw new IllegalArgumentException("잘못된 continuation token입니다 : " + continuationToken);
+    }
+    return ByteBuffer.wrap(token, 1, 4).getInt();
+  }
+}
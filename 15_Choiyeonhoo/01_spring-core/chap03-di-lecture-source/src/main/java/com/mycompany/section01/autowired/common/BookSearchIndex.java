@@ -0,0 +1,368 @@
+package com.mycompany.section01.autowired.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 도서 제목/저자 검색용 역색인 (inverted index)
+ * - 제목과 저자를 단어(글자/숫자가 이어진 부분)로 나누고, 단어마다 이웃한 두 글자(bi-gram)를 검색어 조각(term)으로 쓴다.
+ *   한글은 띄어쓰기가 불규칙하고 조사가 붙으므로 형태소 분석 없이도 "자바의 정석"을 "자바", "정석"으로 찾을 수 있다.
+ *   "자바의 정석" → 자바, 바의, 정석 / 한 글자 단어는 그 글자 하나를 term으로 쓴다.
+ * - 색인할 때는 bi-gram과 함께 글자 하나(uni-gram)도 모두 term으로 넣는다. 검색어의 한 글자 단어는 uni-gram으로 찾으므로
+ *   "김", "자"로 "김철수", "자바의 정석"을 찾을 수 있다. (두 글자 이상인 검색어 단어는 bi-gram만 쓴다)
+ * - term마다 문서 목록(PostingList)을 varint로 압축해 두고, 검색은 검색어의 모든 term이 들어 있는 도서를
+ *   가장 짧은 목록부터 skip으로 맞춰 가며(AND) 찾는다.
+ * - 점수는 term마다 idf × 가중치(제목에 나온 횟수 × 2 + 저자에 나온 횟수)의 합이며, 상위 limit권만 힙으로 남긴다.
+ *   점수가 같으면 먼저 색인된 도서가 앞서므로, 힙이 찬 뒤에는 블록별 최대 가중치로 구한 점수 상한이
+ *   limit번째 점수 이하인 블록을 풀지 않고 건너뛴다. (block-max)
+ * - 삭제한 도서는 표시만 해 두고 검색 결과에서 뺀다. 같은 도서번호를 다시 추가하면 새 문서로 색인한다.
+ *   표시만 한 문서가 전체 문서의 COMPACT_RATIO를 넘으면 남은 도서만 문서 번호 0부터 (색인된 순서대로) 다시 색인해
+ *   문서 목록, books 배열과 idf가 지운 문서만큼 계속 커지거나 치우치지 않게 한다.
+ * - 검색은 여러 스레드가 동시에 할 수 있고, 추가/삭제는 한 번에 하나씩 한다. (ReadWriteLock)
+ */
+public class BookSearchIndex {
+
+  private static final int TITLE_WEIGHT = 2;
+  private static final int AUTHOR_WEIGHT = 1;
+  static final double COMPACT_RATIO = 0.25;
+  private static final int COMPACT_MIN_DELETED = 16;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Integer, PostingList> postings = new HashMap<>();
+  private final Map<Integer, Integer> docsBySequence = new HashMap<>();
+  private final BitSet deleted = new BitSet();
+  private BookDTO[] books = new BookDTO[16];     // 문서 번호 → 도서
+  private int docCount;
+  private int liveCount;
+  private int deletedCount;       // 표시만 하고 문서 목록에 남아 있는 문서 수
+
+  /* 도서를 색인한다. 같은 도서번호가 이미 있으면 바꾼다 */
+  public void add(BookDTO book) {
+    long[] terms = terms(book);
+    lock.writeLock().lock();
+    try {
+      removeDocument(book.getSequence());
+      int doc = docCount++;
+      if (doc == books.length) {
+        books = Arrays.copyOf(books, doc * 2);
+      }
+      books[doc] = book;
+      docsBySequence.put(book.getSequence(), doc);
+      liveCount++;
+      index(doc, terms);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* 도서번호의 도서를 검색 대상에서 뺀다 */
+  public void remove(int sequence) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(sequence);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* 색인된 도서 수 */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return liveCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * keyword의 모든 term이 제목이나 저자에 들어 있는 도서를 점수가 높은 순서로 최대 limit권 찾는다.
+   * - 점수가 같으면 먼저 색인된 도서가 앞선다.
+   */
+  public List<BookDTO> search(String keyword, int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("검색 개수는 1 이상이어야 합니다 : " + limit);
+    }
+    int[] keys = distinctKeys(keys(keyword, false));
+    if (keys.length == 0) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      PostingList[] lists = new PostingList[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        lists[i] = postings.get(keys[i]);
+        if (lists[i] == null) {
+          return List.of();
+        }
+      }
+      Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+      PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+      double[] idf = new double[lists.length];
+      double[] maxScores = new double[lists.length];
+      for (int i = 0; i < lists.length; i++) {
+        cursors[i] = lists[i].cursor();
+        idf[i] = Math.log(1 + (double) docCount / lists[i].size());
+        maxScores[i] = idf[i] * lists[i].maxWeight();
+      }
+      return collect(cursors, idf, maxScores, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /* 모든 cursor에 들어 있는 문서만 점수를 매겨 상위 limit개를 남긴다 (cursors[0]이 가장 짧은 목록) */
+  private List<BookDTO> collect(PostingList.Cursor[] cursors, double[] idf, double[] maxScores, int limit) {
+    TopK top = new TopK(limit);
+    double othersMax = 0;       // 가장 짧은 목록을 뺀 나머지 term 점수의 상한
+    for (int i = 1; i < maxScores.length; i++) {
+      othersMax += maxScores[i];
+    }
+    int candidate = cursors[0].next();
+    while (candidate != PostingList.NO_MORE_DOCS) {
+      // 문서 번호 순서로 보므로, 뒤의 문서는 점수가 같으면 힙의 문서를 이기지 못한다
+      if (top.isFull() && idf[0] * cursors[0].blockMaxWeight() + othersMax <= top.threshold()) {
+        candidate = cursors[0].nextBlock();
+        continue;
+      }
+      int matched = 1;
+      for (; matched < cursors.length; matched++) {
+        int doc = cursors[matched].advance(candidate);
+        if (doc != candidate) {
+          candidate = doc;      // 더 뒤의 문서부터 다시 맞춘다
+          break;
+        }
+      }
+      if (matched < cursors.length) {
+        candidate = cursors[0].advance(candidate);
+        continue;
+      }
+      if (top.isFull()) {
+        // 모든 목록이 candidate에 있으므로, 각 목록의 지금 블록이 끝날 때까지는 블록 최대 가중치로 상한을 구할 수 있다
+        double bound = 0;
+        int blockEnd = Integer.MAX_VALUE;
+        for (int i = 0; i < cursors.length; i++) {
+          bound += idf[i] * cursors[i].blockMaxWeight();
+          blockEnd = Math.min(blockEnd, cursors[i].blockLastDoc());
+        }
+        if (bound <= top.threshold()) {
+          candidate = cursors[0].advance(blockEnd + 1);
+          continue;
+        }
+      }
+      if (!deleted.get(candidate)) {
+        double score = 0;
+        for (int i = 0; i < cursors.length; i++) {
+          score += idf[i] * cursors[i].weight();
+        }
+        top.offer(candidate, score);
+      }
+      candidate = cursors[0].next();
+    }
+    return top.books(books);
+  }
+
+  private void removeDocument(int sequence) {
+    Integer doc = docsBySequence.remove(sequence);
+    if (doc != null) {
+      deleted.set(doc);
+      books[doc] = null;
+      liveCount--;
+      if (++deletedCount >= COMPACT_MIN_DELETED && deletedCount > docCount * COMPACT_RATIO) {
+        compact();
+      }
+    }
+  }
+
+  private void index(int doc, long[] terms) {
+    for (long term : terms) {
+      postings.computeIfAbsent((int) (term >> 32), key -> new PostingList()).add(doc, (int) term);
+    }
+  }
+
+  /* 지운 문서를 빼고 남은 도서를 원래 순서대로 문서 번호 0부터 다시 색인한다 (write lock 안에서 호출) */
+  private void compact() {
+    BookDTO[] live = new BookDTO[Math.max(16, liveCount * 2)];
+    int count = 0;
+    for (int doc = 0; doc < docCount; doc++) {
+      if (books[doc] != null) {
+        live[count++] = books[doc];
+      }
+    }
+    postings.clear();
+    docsBySequence.clear();
+    deleted.clear();
+    books = live;
+    docCount = count;
+    deletedCount = 0;
+    for (int doc = 0; doc < count; doc++) {
+      docsBySequence.put(live[doc].getSequence(), doc);
+      index(doc, terms(live[doc]));
+    }
+  }
+
+  /* 도서의 (term << 32 | 가중치) 목록. term 순서로 정렬되어 있고 term마다 하나씩이다 */
+  private static long[] terms(BookDTO book) {
+    long[] terms = new long[16];
+    int count = 0;
+    for (int pass = 0; pass < 2; pass++) {
+      String text = pass == 0 ? book.getTitle() : book.getAuthor();
+      int weight = pass == 0 ? TITLE_WEIGHT : AUTHOR_WEIGHT;
+      int[] keys = keys(text, true);
+      if (count + keys.length > terms.length) {
+        terms = Arrays.copyOf(terms, Math.max(terms.length * 2, count + keys.length));
+      }
+      for (int key : keys) {
+        terms[count++] = (long) key << 32 | weight;
+      }
+    }
+    Arrays.sort(terms, 0, count);
+    // 같은 term의 가중치를 합친다
+    int merged = 0;
+    for (int i = 0; i < count; i++) {
+      if (merged > 0 && (terms[merged - 1] >> 32) == (terms[i] >> 32)) {
+        terms[merged - 1] += (int) terms[i];
+      } else {
+        terms[merged++] = terms[i];
+      }
+    }
+    return Arrays.copyOf(terms, merged);
+  }
+
+  private static int[] distinctKeys(int[] keys) {
+    Arrays.sort(keys);
+    int distinct = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+        keys[distinct++] = keys[i];
+      }
+    }
+    return Arrays.copyOf(keys, distinct);
+  }
+
+  /**
+   * text의 term 목록 (중복 포함). 단어 안의 이웃한 두 글자를 (앞 글자 << 16 | 뒤 글자)로, 한 글자 단어는 (글자 << 16)으로
+   * - unigrams : true이면 (색인용) 두 글자 이상인 단어의 글자도 하나씩 (글자 << 16)으로 넣는다
+   */
+  static int[] keys(String text, boolean unigrams) {
+    if (text == null || text.isEmpty()) {
+      return new int[0];
+    }
+    int[] keys = new int[unigrams ? text.length() * 2 : text.length()];
+    int count = 0;
+    int wordStart = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (inWord && wordStart < 0) {
+        wordStart = i;
+      } else if (!inWord && wordStart >= 0) {
+        if (i - wordStart == 1 || unigrams) {
+          for (int j = wordStart; j < i; j++) {
+            keys[count++] = normalize(text.charAt(j)) << 16;
+          }
+        }
+        for (int j = wordStart + 1; j < i; j++) {
+          keys[count++] = normalize(text.charAt(j - 1)) << 16 | normalize(text.charAt(j));
+        }
+        wordStart = -1;
+      }
+    }
+    return Arrays.copyOf(keys, count);
+  }
+
+  private static char normalize(char c) {
+    return Character.toLowerCase(c);
+  }
+
+  /* 점수 상위 limit개를 남기는 최소 힙 (가장 약한 결과가 맨 위, 점수가 같으면 문서 번호가 큰 쪽이 약하다) */
+  private static final class TopK {
+    private final int[] docs;
+    private final double[] scores;
+    private int size;
+
+    TopK(int limit) {
+      docs = new int[limit];
+      scores = new double[limit];
+    }
+
+    boolean isFull() {
+      return size == docs.length;
+    }
+
+    /* 가장 약한 결과의 점수 (isFull일 때만 의미가 있다) */
+    double threshold() {
+      return scores[0];
+    }
+
+    /* 문서 번호 순서로 넣어야 한다 (점수가 같으면 나중 문서가 진다) */
+    void offer(int doc, double score) {
+      if (size < docs.length) {
+        docs[size] = doc;
+        scores[size] = score;
+        siftUp(size++);
+      } else if (score > scores[0]) {
+        docs[0] = doc;
+        scores[0] = score;
+        siftDown(0);
+      }
+    }
+
+    /* 점수가 높은 순서로 */
+    List<BookDTO> books(BookDTO[] books) {
+      BookDTO[] result = new BookDTO[size];
+      while (size > 0) {
+        result[size - 1] = books[docs[0]];
+        size--;
+        docs[0] = docs[size];
+        scores[0] = scores[size];
+        siftDown(0);
+      }
+      return new ArrayList<>(Arrays.asList(result));
+    }
+
+    private boolean weaker(int a, int b) {
+      return scores[a] < scores[b] || (scores[a] == scores[b] && docs[a] > docs[b]);
+    }
+
+    private void siftUp(int i) {
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (!weaker(i, parent)) {
+          return;
+        }
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    private void siftDown(int i) {
+      while (true) {
+        int weakest = i;
+        for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+          if (weaker(child, weakest)) {
+            weakest = child;
+          }
+        }
+        if (weakest == i) {
+          return;
+        }
+        swap(i, weakest);
+        i = weakest;
+      }
+    }
+
+    private void swap(int a, int b) {
+      int doc = docs[a];
+      double score = scores[a];
+      docs[a] = docs[b];
+      scores[a] = scores[b];
+      docs[b] = doc;
+      scores[b] = score;
+    }
+  }
+}
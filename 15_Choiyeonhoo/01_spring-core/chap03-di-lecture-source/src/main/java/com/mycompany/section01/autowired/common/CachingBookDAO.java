@@ -0,0 +1,499 @@
+package com.mycompany.section01.autowired.common;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * selectOneBook 결과를 메모리에 담아 두는 BookDAO 장식자 (read-through cache)
+ * - 캐시에 없으면 원래 BookDAO에서 읽어 담고 돌려준다. 같은 도서번호를 여러 스레드가 동시에 찾으면
+ *   한 스레드만 원래 BookDAO를 호출하고 나머지는 그 결과를 기다린다. (stampede 방지)
+ * - 크기 : 최대 maximumSize권. W-TinyLFU 방식으로 내보낼 도서를 고른다.
+ *   새 도서는 작은 window(LRU, 1%)에 먼저 들어가고, window에서 밀려나면 main(SLRU : probation 20% + protected 80%)의
+ *   가장 오래된 도서와 최근 접근 빈도(FrequencySketch)를 비교해 더 자주 쓰인 쪽만 남긴다.
+ *   한 번만 조회된 도서가 자주 조회되는 도서를 밀어내지 않는다.
+ * - 시간 : 담은 지 expireAfterWrite가 지난 도서는 다음 조회 때 원래 BookDAO에서 다시 읽는다.
+ * - 조회는 lock 없이 ConcurrentHashMap에서 읽고, 조회 기록(빈도 FrequencySketch와 순서 LRU 갱신)은 스레드별로 나눈
+ *   작은 read buffer에 넣어 둔다. lock을 바로 잡을 수 있으면 그 자리에서, 아니면 다음에 lock을 잡은 스레드가
+ *   buffer를 비우며 한꺼번에 반영한다. (조회가 lock을 기다리지 않는다)
+ *   buffer가 가득 찼거나 같은 칸을 두고 다른 스레드와 겹치면 그 조회 기록만 버린다. (lossy, Caffeine과 같은 방식)
+ * - invalidate는 진행 중인 읽기(loading)도 함께 지운다. 지우기 전에 시작한 읽기의 결과는 그 읽기를 기다리던 조회에만
+ *   돌려주고 캐시에는 담지 않으므로, 바뀌기 전의 도서가 invalidate 뒤에 다시 담기지 않는다.
+ * - 없는 도서(null)는 담지 않는다. 도서번호 조회 외의 조회(목록, 페이지, ISBN, 출판일, 검색)는 담지 않고
+ *   원래 BookDAO를 그대로 호출한다.
+ */
+public class CachingBookDAO implements BookDAO {
+
+  /**
+   * 캐시 사용 통계
+   */
+  public static final class Stats {
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long evictionCount;
+
+    Stats(long hitCount, long missCount, long loadCount, long evictionCount) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.loadCount = loadCount;
+      this.evictionCount = evictionCount;
+    }
+
+    /* 캐시에서 바로 돌려준 조회 수 */
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    /* 캐시에 없어 원래 BookDAO의 결과를 기다린 조회 수 (다른 스레드의 조회를 기다린 경우 포함) */
+    public long getMissCount() {
+      return missCount;
+    }
+
+    /* 원래 BookDAO를 실제로 호출한 횟수 */
+    public long getLoadCount() {
+      return loadCount;
+    }
+
+    /* 크기 또는 시간 제한으로 내보낸 도서 수 */
+    public long getEvictionCount() {
+      return evictionCount;
+    }
+
+    /* 적중률 (조회가 없으면 1.0) */
+    public double getHitRate() {
+      long requests = hitCount + missCount;
+      return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+      return "Stats(hitCount=" + hitCount + ", missCount=" + missCount + ", loadCount=" + loadCount
+          + ", evictionCount=" + evictionCount + ", hitRate=" + getHitRate() + ")";
+    }
+  }
+
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  private static final int READ_BUFFER_STRIPES = stripes();
+  private static final int READ_BUFFER_SIZE = 16;         // stripe 하나의 칸 수 (2의 거듭제곱)
+
+  private final BookDAO bookDAO;
+  private final int maximumSize;
+  private final long expireNanos;
+  private final LongSupplier clock;
+
+  private final ConcurrentHashMap<Integer, Node> data;
+  private final ConcurrentHashMap<Integer, CompletableFuture<BookDTO>> loading = new ConcurrentHashMap<>();
+  private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+
+  // 아래 필드는 lock 안에서만 접근
+  private final ReentrantLock lock = new ReentrantLock();
+  private final FrequencySketch sketch;
+  private final Queue[] queues = {new Queue(), new Queue(), new Queue()};
+  private final int windowMaximum;
+  private final int protectedMaximum;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public CachingBookDAO(BookDAO bookDAO, int maximumSize, Duration expireAfterWrite) {
+    this(bookDAO, maximumSize, expireAfterWrite, System::nanoTime);
+  }
+
+  /* clock : 현재 시각(ns)을 돌려주는 함수 */
+  public CachingBookDAO(BookDAO bookDAO, int maximumSize, Duration expireAfterWrite, LongSupplier clock) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("캐시 크기는 1 이상이어야 합니다 : " + maximumSize);
+    }
+    if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+      throw new IllegalArgumentException("만료 시간은 0보다 커야 합니다 : " + expireAfterWrite);
+    }
+    this.bookDAO = bookDAO;
+    this.maximumSize = maximumSize;
+    this.expireNanos = saturatedNanos(expireAfterWrite);
+    this.clock = clock;
+    this.data = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+    this.sketch = new FrequencySketch(maximumSize);
+    this.windowMaximum = Math.max(1, maximumSize / 100);
+    this.protectedMaximum = (int) ((maximumSize - windowMaximum) * 0.8);
+    for (int i = 0; i < readBuffers.length; i++) {
+      readBuffers[i] = new ReadBuffer();
+    }
+  }
+
+  @Override
+  public List<BookDTO> selectBookList() {
+    return bookDAO.selectBookList();
+  }
+
+  @Override
+  public Stream<BookDTO> streamBookList(String continuationToken) {
+    return bookDAO.streamBookList(continuationToken);
+  }
+
+  @Override
+  public BookPage selectBookPage(String continuationToken, int pageSize) {
+    return bookDAO.selectBookPage(continuationToken, pageSize);
+  }
+
+  @Override
+  public BookDTO selectBookByIsbn(int isbn) {
+    return bookDAO.selectBookByIsbn(isbn);
+  }
+
+  @Override
+  public List<BookDTO> selectBookListByCreatedDate(Date from, Date to) {
+    return bookDAO.selectBookListByCreatedDate(from, to);
+  }
+
+  @Override
+  public List<BookDTO> searchBooks(String keyword, int limit) {
+    return bookDAO.searchBooks(keyword, limit);
+  }
+
+  @Override
+  public BookDTO selectOneBook(int sequence) {
+    Node node = data.get(sequence);
+    if (node != null) {
+      if (clock.getAsLong() - node.writeTime < expireNanos) {
+        hits.increment();
+        afterRead(node);
+        return node.book;
+      }
+      expire(node);
+    }
+    misses.increment();
+    return load(sequence);
+  }
+
+  /* 도서 하나를 캐시에서 지운다 (원래 저장소의 도서가 바뀌었을 때). 진행 중인 읽기의 결과도 담지 않게 한다 */
+  public void invalidate(int sequence) {
+    lock.lock();
+    try {
+      loading.remove(sequence);
+      Node node = data.remove(sequence);
+      if (node != null) {
+        unlink(node);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /* 캐시를 모두 비운다 */
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      loading.clear();
+      data.clear();
+      for (Queue queue : queues) {
+        queue.clear();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /* 캐시에 담긴 도서 수 */
+  public int size() {
+    return data.size();
+  }
+
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), loads.sum(), evictions.sum());
+  }
+
+  /* 같은 도서번호를 읽고 있는 스레드가 있으면 그 결과를 기다리고, 없으면 직접 읽어 캐시에 담는다 */
+  private BookDTO load(int sequence) {
+    CompletableFuture<BookDTO> future = new CompletableFuture<>();
+    CompletableFuture<BookDTO> running = loading.putIfAbsent(sequence, future);
+    if (running != null) {
+      return await(running);
+    }
+    try {
+      BookDTO book;
+      Node node = data.get(sequence);     // 앞의 스레드가 방금 담고 빠져나갔을 수 있다
+      if (node != null && clock.getAsLong() - node.writeTime < expireNanos) {
+        book = node.book;
+      } else {
+        loads.increment();
+        book = bookDAO.selectOneBook(sequence);
+        if (book != null) {
+          put(sequence, book, future);
+        }
+      }
+      future.complete(book);
+      return book;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(sequence, future);
+    }
+  }
+
+  private static BookDTO await(CompletableFuture<BookDTO> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /* 읽은 도서를 담는다. 읽는 사이 invalidate되어 future가 loading에서 빠졌으면 담지 않는다 */
+  private void put(int sequence, BookDTO book, CompletableFuture<BookDTO> future) {
+    Node node = new Node(sequence, book, clock.getAsLong());
+    lock.lock();
+    try {
+      if (loading.get(sequence) != future) {
+        return;
+      }
+      drainReadBuffers();       // 입장 심사 전에 쌓인 조회 빈도를 반영한다
+      Node previous = data.put(sequence, node);
+      if (previous != null) {
+        unlink(previous);
+      }
+      sketch.increment(sequence);
+      queues[WINDOW].addLast(node, WINDOW);
+      if (queues[WINDOW].size > windowMaximum) {
+        // window에서 밀려난 도서는 main의 probation으로 옮긴 뒤 입장 심사를 받는다
+        Node candidate = queues[WINDOW].first;
+        queues[WINDOW].remove(candidate);
+        queues[PROBATION].addLast(candidate, PROBATION);
+      }
+      if (cachedSize() > maximumSize) {
+        evict();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /* probation의 가장 오래된 도서(victim)와 방금 들어온 도서(candidate) 중 덜 쓰인 쪽을 내보낸다 */
+  private void evict() {
+    while (cachedSize() > maximumSize) {
+      Queue main = queues[PROBATION].size > 0 ? queues[PROBATION] : queues[PROTECTED];
+      if (main.size == 0) {
+        main = queues[WINDOW];
+      }
+      Node victim = main.first;
+      Node candidate = main.last;
+      Node evicted = victim;
+      if (candidate != victim && sketch.frequency(candidate.sequence) <= sketch.frequency(victim.sequence)) {
+        evicted = candidate;
+      }
+      unlink(evicted);
+      if (data.remove(evicted.sequence, evicted)) {
+        evictions.increment();
+      }
+    }
+  }
+
+  /* 조회 기록을 read buffer에 넣고, lock을 바로 잡을 수 있으면 buffer를 비운다 */
+  private void afterRead(Node node) {
+    int stripe = (int) (Thread.currentThread().getId() * 0x9E3779B9L) & (READ_BUFFER_STRIPES - 1);
+    readBuffers[stripe].offer(node);
+    if (!lock.tryLock()) {
+      return;       // 정리 중인 스레드가 있으면 그 스레드나 다음에 lock을 잡는 스레드가 반영한다
+    }
+    try {
+      drainReadBuffers();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /* 쌓인 조회 기록을 모두 반영한다 (lock 안에서 호출) */
+  private void drainReadBuffers() {
+    for (ReadBuffer buffer : readBuffers) {
+      Node node;
+      while ((node = buffer.poll()) != null) {
+        onRead(node);
+      }
+    }
+  }
+
+  /* 조회 하나를 반영한다. 빈도는 내보낸 도서도 세고(입장 심사에 쓰인다), 순서는 담겨 있는 도서만 바꾼다 (lock 안에서 호출) */
+  private void onRead(Node node) {
+    sketch.increment(node.sequence);
+    if (node.queue < 0) {
+      return;       // 그 사이 내보내졌다
+    }
+    if (node.queue == PROBATION) {
+      // probation에서 다시 조회되면 protected로 올리고, 넘치는 protected는 probation으로 내린다
+      queues[PROBATION].remove(node);
+      queues[PROTECTED].addLast(node, PROTECTED);
+      if (queues[PROTECTED].size > protectedMaximum) {
+        Node demoted = queues[PROTECTED].first;
+        queues[PROTECTED].remove(demoted);
+        queues[PROBATION].addLast(demoted, PROBATION);
+      }
+    } else {
+      queues[node.queue].moveToLast(node);
+    }
+  }
+
+  private void expire(Node node) {
+    lock.lock();
+    try {
+      if (data.remove(node.sequence, node)) {
+        unlink(node);
+        evictions.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int cachedSize() {
+    return queues[WINDOW].size + queues[PROBATION].size + queues[PROTECTED].size;
+  }
+
+  private void unlink(Node node) {
+    if (node.queue >= 0) {
+      queues[node.queue].remove(node);
+    }
+  }
+
+  /* CPU 수 이상인 가장 작은 2의 거듭제곱 (최대 64) */
+  private static int stripes() {
+    int cpus = Math.min(64, Runtime.getRuntime().availableProcessors());
+    return Integer.highestOneBit(Math.max(1, cpus * 2 - 1));
+  }
+
+  private static long saturatedNanos(Duration duration) {
+    try {
+      return duration.toNanos();
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /* 캐시에 담긴 도서 하나. 값은 바뀌지 않고, 연결(prev/next/queue)은 lock 안에서만 바꾼다 */
+  private static final class Node {
+    final int sequence;
+    final BookDTO book;
+    final long writeTime;
+    Node prev;
+    Node next;
+    int queue = -1;         // WINDOW, PROBATION, PROTECTED, 없으면 -1
+
+    Node(int sequence, BookDTO book, long writeTime) {
+      this.sequence = sequence;
+      this.book = book;
+      this.writeTime = writeTime;
+    }
+  }
+
+  /**
+   * 조회 기록을 잠시 담는 고정 크기 원형 buffer (여러 스레드가 넣고, lock을 잡은 스레드 하나가 뺀다)
+   * - 넣기는 writes를 CAS로 한 칸 늘린 뒤 그 칸에 쓴다. 가득 찼거나 CAS가 실패하면 기다리지 않고 버린다.
+   * - 빼기는 reads부터 writes까지 읽는다. 칸을 예약했지만 아직 쓰지 않은 칸(null)을 만나면 다음 번에 이어서 읽는다.
+   */
+  private static final class ReadBuffer {
+    final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    final AtomicLong writes = new AtomicLong();
+    volatile long reads;            // 빼는 스레드(lock 안)만 바꾼다
+
+    void offer(Node node) {
+      long tail = writes.get();
+      if (tail - reads >= READ_BUFFER_SIZE || !writes.compareAndSet(tail, tail + 1)) {
+        return;
+      }
+      slots.lazySet((int) tail & (READ_BUFFER_SIZE - 1), node);
+    }
+
+    Node poll() {
+      long head = reads;
+      if (head == writes.get()) {
+        return null;
+      }
+      int index = (int) head & (READ_BUFFER_SIZE - 1);
+      Node node = slots.get(index);
+      if (node == null) {
+        return null;
+      }
+      slots.lazySet(index, null);
+      reads = head + 1;
+      return node;
+    }
+  }
+
+  /* 오래된 순서로 연결한 이중 연결 리스트 (first가 가장 오래됨) */
+  private static final class Queue {
+    Node first;
+    Node last;
+    int size;
+
+    void addLast(Node node, int queue) {
+      node.queue = queue;
+      node.prev = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      size++;
+    }
+
+    void remove(Node node) {
+      if (node.prev == null) {
+        first = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      node.queue = -1;
+      size--;
+    }
+
+    void moveToLast(Node node) {
+      if (node != last) {
+        int queue = node.queue;
+        remove(node);
+        addLast(node, queue);
+      }
+    }
+
+    void clear() {
+      for (Node node = first; node != null; ) {
+        Node next = node.next;
+        node.prev = null;
+        node.next = null;
+        node.queue = -1;
+        node = next;
+      }
+      first = null;
+      last = null;
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.mycompany.section01.autowired.common;
+
+/**
+ * 키별 최근 접근 빈도를 적은 메모리로 추정하는 count-min sketch (CachingBookDAO의 입장 심사용)
+ * - long 하나에 4bit 카운터 16개를 담고, 키마다 서로 다른 hash 4개로 고른 카운터 중 가장 작은 값을 빈도로 본다.
+ * - 카운터는 15에서 멈추고, 기록 횟수가 sampleSize(최대 크기 × 10)에 이르면 모든 카운터를 절반으로 줄여
+ *   오래전에 많이 쓰인 키가 계속 자리를 차지하지 않게 한다.
+ * - 동기화하지 않으므로 호출하는 쪽에서 lock을 잡아야 한다.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+      0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;   // 4bit 카운터마다 최상위 비트를 지운다
+
+  private final long[] table;
+  private final int counterMask;
+  private final int sampleSize;
+  private int additions;
+
+  FrequencySketch(int maximumSize) {
+    // 담을 수 있는 키 하나당 long 하나(카운터 16개) : 2의 거듭제곱으로 올림
+    int length = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 26)) - 1) << 1;
+    this.table = new long[length];
+    this.counterMask = (length << 4) - 1;
+    this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(1, maximumSize));
+  }
+
+  /* key의 추정 빈도 (0 ~ 15) */
+  int frequency(int key) {
+    int frequency = 15;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int index = indexOf(key, i);
+      frequency = Math.min(frequency, (int) (table[index >>> 4] >>> ((index & 15) << 2)) & 15);
+    }
+    return frequency;
+  }
+
+  /* key의 빈도를 1 올린다 */
+  void increment(int key) {
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int index = indexOf(key, i);
+      int shift = (index & 15) << 2;
+      if (((table[index >>> 4] >>> shift) & 15) != 15) {
+        table[index >>> 4] += 1L << shift;
+        added = true;
+      }
+    }
+    if (added && ++additions == sampleSize) {
+      reset();
+    }
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions >>>= 1;
+  }
+
+  private int indexOf(int key, int row) {
+    long hash = (key + SEEDS[row]) * SEEDS[row];
+    hash += hash >>> 32;
+    return (int) hash & counterMask;
+  }
+}
@@ -0,0 +1,199 @@
+package com.mycompany.section01.autowired.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * ISBN(int) → 도서 색인 (BookDAOImpl용)
+ * - int 키를 boxing하지 않도록 int[] / BookDTO[] 두 배열에 open addressing(linear probing)으로 담는다.
+ *   삭제는 뒤쪽 항목을 당겨 채우므로(backward shift) 삭제 표시(tombstone)가 쌓이지 않는다.
+ * - 조회는 StampedLock의 낙관적 읽기로 lock 없이 하고, 그 사이 쓰기가 있었으면 읽기 lock을 잡고 다시 찾는다.
+ * - 같은 ISBN의 도서가 여러 권이면 도서번호가 가장 작은 도서를 돌려준다. (BookDAO 기본 구현과 같은 결과)
+ *   그런 ISBN만 shared에 도서번호 순서로 모두 담아 두고, 돌려주던 도서를 지우면 남은 도서 중 가장 작은 것으로 바꾼다.
+ * - 쓰기는 한 번에 한 스레드만 한다.
+ */
+final class IsbnIndex {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private final StampedLock lock = new StampedLock();
+  private int[] keys;
+  private BookDTO[] books;        // null이면 빈 칸
+  private int size;
+  private final Map<Integer, TreeMap<Integer, BookDTO>> shared = new HashMap<>();   // 쓰는 스레드만 접근
+
+  IsbnIndex(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+      capacity <<= 1;
+    }
+    keys = new int[capacity];
+    books = new BookDTO[capacity];
+  }
+
+  /* isbn의 도서. 없으면 null */
+  BookDTO get(int isbn) {
+    long stamp = lock.tryOptimisticRead();
+    BookDTO book = find(keys, books, isbn);
+    if (lock.validate(stamp)) {
+      return book;
+    }
+    stamp = lock.readLock();
+    try {
+      return find(keys, books, isbn);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /* book을 그 ISBN으로 담는다. 같은 ISBN의 도서가 이미 있으면 도서번호가 작은 쪽을 돌려주게 한다 */
+  void add(BookDTO book) {
+    int isbn = book.getIsbn();
+    BookDTO current = get(isbn);
+    if (current == null) {
+      put(isbn, book);
+      return;
+    }
+    TreeMap<Integer, BookDTO> books = shared.computeIfAbsent(isbn, key -> new TreeMap<>());
+    books.putIfAbsent(current.getSequence(), current);
+    books.put(book.getSequence(), book);
+    if (book.getSequence() < current.getSequence()) {
+      put(isbn, book);
+    }
+  }
+
+  /* book을 지운다. book이 돌려주던 도서였으면 같은 ISBN의 남은 도서 중 도서번호가 가장 작은 것으로 바꾼다 */
+  void remove(BookDTO book) {
+    int isbn = book.getIsbn();
+    TreeMap<Integer, BookDTO> books = shared.get(isbn);
+    if (books == null) {
+      remove(isbn, book);
+      return;
+    }
+    books.remove(book.getSequence(), book);
+    if (get(isbn) == book) {
+      put(isbn, books.firstEntry().getValue());
+    }
+    if (books.size() <= 1) {
+      shared.remove(isbn);
+    }
+  }
+
+  /* isbn에 book을 담는다. 이전에 담긴 도서를 리턴 */
+  private BookDTO put(int isbn, BookDTO book) {
+    long stamp = lock.writeLock();
+    try {
+      if ((size + 1) * 2 > keys.length) {
+        resize(keys.length << 1);
+      }
+      int mask = keys.length - 1;
+      for (int i = hash(isbn) & mask; ; i = (i + 1) & mask) {
+        if (books[i] == null) {
+          keys[i] = isbn;
+          books[i] = book;
+          size++;
+          return null;
+        }
+        if (keys[i] == isbn) {
+          BookDTO previous = books[i];
+          books[i] = book;
+          return previous;
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /* isbn에 book이 담겨 있을 때만 지운다 (같은 ISBN을 다른 도서가 차지했으면 그대로 둔다) */
+  private boolean remove(int isbn, BookDTO book) {
+    long stamp = lock.writeLock();
+    try {
+      int mask = keys.length - 1;
+      for (int i = hash(isbn) & mask; books[i] != null; i = (i + 1) & mask) {
+        if (keys[i] == isbn) {
+          if (books[i] != book) {
+            return false;
+          }
+          shiftBack(i);
+          size--;
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  int size() {
+    long stamp = lock.readLock();
+    try {
+      return size;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /* 빈 칸 hole 뒤에 이어진 항목 중, 원래 자리(hash)에서 hole을 지나야 닿는 항목을 hole로 당긴다 */
+  private void shiftBack(int hole) {
+    int mask = keys.length - 1;
+    for (int i = (hole + 1) & mask; books[i] != null; i = (i + 1) & mask) {
+      int home = hash(keys[i]) & mask;
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        keys[hole] = keys[i];
+        books[hole] = books[i];
+        hole = i;
+      }
+    }
+    books[hole] = null;
+    keys[hole] = 0;
+  }
+
+  private void resize(int capacity) {
+    int[] oldKeys = keys;
+    BookDTO[] oldBooks = books;
+    int[] newKeys = new int[capacity];
+    BookDTO[] newBooks = new BookDTO[capacity];
+    int mask = capacity - 1;
+    for (int j = 0; j < oldKeys.length; j++) {
+      if (oldBooks[j] != null) {
+        int i = hash(oldKeys[j]) & mask;
+        while (newBooks[i] != null) {
+          i = (i + 1) & mask;
+        }
+        newKeys[i] = oldKeys[j];
+        newBooks[i] = oldBooks[j];
+      }
+    }
+    keys = newKeys;
+    books = newBooks;
+  }
+
+  /* 낙관적 읽기 중에는 쓰기와 겹쳐 배열이 바뀔 수 있으므로, 읽은 배열 안에서만 최대 한 바퀴 찾는다 */
+  private static BookDTO find(int[] keys, BookDTO[] books, int isbn) {
+    int length = Math.min(keys.length, books.length);
+    int mask = length - 1;
+    if (length == 0 || (length & mask) != 0) {
+      return null;      // 크기가 다른 두 배열을 읽었다 (validate에서 걸러진다)
+    }
+    int i = hash(isbn) & mask;
+    for (int probes = 0; probes < length; probes++, i = (i + 1) & mask) {
+      BookDTO book = books[i];
+      if (book == null) {
+        return null;
+      }
+      if (keys[i] == isbn) {
+        return book;
+      }
+    }
+    return null;
+  }
+
+  private static int hash(int isbn) {
+    int h = isbn * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
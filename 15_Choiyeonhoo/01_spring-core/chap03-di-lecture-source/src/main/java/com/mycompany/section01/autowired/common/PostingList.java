@@ -0,0 +1,174 @@
+package com.mycompany.section01.autowired.common;
+
+import java.util.Arrays;
+
+/**
+ * 한 검색어 조각(term)이 들어 있는 문서 목록 (BookSearchIndex용)
+ * - 문서 번호는 늘어나는 순서로만 추가하며, (앞 문서와의 차이, 가중치)를 varint로 이어 붙여 압축한다.
+ *   대부분 1 ~ 2 byte로 담긴다.
+ * - BLOCK_SIZE개마다 (블록의 마지막 문서 번호, 다음 블록 시작 위치, 블록 안의 최대 가중치)를 skip 목록에 남겨,
+ *   advance(target)가 앞부분을 풀지 않고 건너뛰고, 상위 k개 검색이 점수가 모자란 블록을 통째로 건너뛸 수 있다.
+ * - 동기화하지 않는다. (BookSearchIndex의 lock 안에서 쓴다)
+ */
+final class PostingList {
+
+  static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+  private static final int BLOCK_SIZE = 128;
+
+  private byte[] data = new byte[8];
+  private int length;
+  private int size;                 // 담긴 문서 수 (삭제 표시된 문서 포함)
+  private int lastDoc = -1;
+  private int[] skipLastDocs = new int[1];      // 다 찬 블록 b의 마지막 문서 번호
+  private int[] skipOffsets = new int[1];       // 블록 b + 1의 시작 위치
+  private int[] skipMaxWeights = new int[1];    // 다 찬 블록 b 안의 최대 가중치
+  private int lastBlockMaxWeight;               // 아직 다 차지 않은 마지막 블록의 최대 가중치
+  private int maxWeight;
+
+  void add(int doc, int weight) {
+    if (doc <= lastDoc) {
+      throw new IllegalArgumentException("문서 번호는 늘어나는 순서로 추가해야 합니다 : " + doc);
+    }
+    ensureCapacity(10);
+    writeVarint(doc - lastDoc);
+    writeVarint(weight);
+    lastDoc = doc;
+    lastBlockMaxWeight = Math.max(lastBlockMaxWeight, weight);
+    maxWeight = Math.max(maxWeight, weight);
+    if (++size % BLOCK_SIZE == 0) {
+      int block = size / BLOCK_SIZE - 1;
+      if (block == skipLastDocs.length) {
+        skipLastDocs = Arrays.copyOf(skipLastDocs, block * 2);
+        skipOffsets = Arrays.copyOf(skipOffsets, block * 2);
+        skipMaxWeights = Arrays.copyOf(skipMaxWeights, block * 2);
+      }
+      skipLastDocs[block] = doc;
+      skipOffsets[block] = length;
+      skipMaxWeights[block] = lastBlockMaxWeight;
+      lastBlockMaxWeight = 0;
+    }
+  }
+
+  /* 문서 수 (document frequency) */
+  int size() {
+    return size;
+  }
+
+  /* 모든 문서 중 최대 가중치 */
+  int maxWeight() {
+    return maxWeight;
+  }
+
+  /* 압축된 크기 (byte) */
+  int bytes() {
+    return length;
+  }
+
+  Cursor cursor() {
+    return new Cursor();
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > data.length) {
+      data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+    }
+  }
+
+  private void writeVarint(int value) {
+    while ((value & ~0x7F) != 0) {
+      data[length++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data[length++] = (byte) value;
+  }
+
+  /* 문서 번호 순서로 읽는 커서. 처음에는 아무 문서도 가리키지 않는다 (doc() == -1) */
+  final class Cursor {
+    private int offset;
+    private int index;              // 다음에 읽을 문서의 순번
+    private int doc = -1;
+    private int weight;
+
+    int doc() {
+      return doc;
+    }
+
+    int weight() {
+      return weight;
+    }
+
+    /* 지금 문서가 들어 있는 블록의 최대 가중치 */
+    int blockMaxWeight() {
+      int block = (index - 1) / BLOCK_SIZE;
+      return block < size / BLOCK_SIZE ? skipMaxWeights[block] : lastBlockMaxWeight;
+    }
+
+    /* 지금 문서가 들어 있는 블록의 마지막 문서 번호 */
+    int blockLastDoc() {
+      int block = (index - 1) / BLOCK_SIZE;
+      return block < size / BLOCK_SIZE ? skipLastDocs[block] : lastDoc;
+    }
+
+    /* 지금 블록의 남은 문서를 풀지 않고 다음 블록의 첫 문서로 이동. 더 없으면 NO_MORE_DOCS */
+    int nextBlock() {
+      int block = (index - 1) / BLOCK_SIZE;
+      if (block >= size / BLOCK_SIZE) {
+        index = size;
+        return doc = NO_MORE_DOCS;
+      }
+      offset = skipOffsets[block];
+      doc = skipLastDocs[block];
+      index = (block + 1) * BLOCK_SIZE;
+      return next();
+    }
+
+    /* 다음 문서로 이동. 더 없으면 NO_MORE_DOCS */
+    int next() {
+      if (index == size) {
+        return doc = NO_MORE_DOCS;
+      }
+      doc += readVarint();
+      weight = readVarint();
+      index++;
+      return doc;
+    }
+
+    /* target 이상인 첫 문서로 이동. 더 없으면 NO_MORE_DOCS */
+    int advance(int target) {
+      if (doc >= target) {
+        return doc;
+      }
+      if (target == NO_MORE_DOCS) {
+        index = size;
+        return doc = NO_MORE_DOCS;
+      }
+      // target이 들어 있을 수 있는 블록 앞까지 skip 목록으로 건너뛴다
+      int block = index / BLOCK_SIZE;
+      int fullBlocks = size / BLOCK_SIZE;
+      if (block < fullBlocks && skipLastDocs[block] < target) {
+        while (block + 1 < fullBlocks && skipLastDocs[block + 1] < target) {
+          block++;
+        }
+        doc = skipLastDocs[block];
+        offset = skipOffsets[block];
+        index = (block + 1) * BLOCK_SIZE;
+      }
+      do {
+        next();
+      } while (doc < target);
+      return doc;
+    }
+
+    private int readVarint() {
+      int value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = data[offset++];
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+  }
+}
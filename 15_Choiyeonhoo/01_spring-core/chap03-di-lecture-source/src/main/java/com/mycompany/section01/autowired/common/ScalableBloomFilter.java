@@ -0,0 +1,204 @@
+package com.mycompany.section01.autowired.common;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * 도서번호(int)가 "확실히 없음"을 빠르게 판정하는 scalable Bloom filter (BloomFilterBookDAO용)
+ * - 없다고 답하면 확실히 없고, 있다고 답하면 falsePositiveRate 정도의 확률로 틀린다.
+ * - 처음 단계(stage)가 initialCapacity개를 담으면 용량을 GROWTH배로 늘린 단계를 뒤에 붙이고, 단계마다 목표 오탐률을
+ *   TIGHTENING배로 줄인다. 그래서 몇 개를 담아도 전체 오탐률이 falsePositiveRate 안에 머문다.
+ *   (단계 i의 목표 오탐률 = falsePositiveRate × (1 - TIGHTENING) × TIGHTENING^i, 합이 falsePositiveRate)
+ * - 새 단계를 붙이면 maxBytes를 넘는 경우에는 더 붙이지 않고 마지막 단계에 계속 담는다. (isSaturated, 오탐률이 올라간다)
+ * - 지우기는 지원하지 않는다. 지운 키는 계속 "있을 수도 있음"으로 남으므로 필요하면 새로 만든다.
+ * - 조회는 lock 없이 여러 스레드가 동시에 할 수 있고, add는 한 번에 한 스레드만 해야 한다.
+ *   add가 끝난 뒤의 조회는 그 키를 반드시 찾는다. (비트는 release로 쓰고 acquire로 읽는다)
+ */
+final class ScalableBloomFilter {
+
+  static final int GROWTH = 2;
+  static final double TIGHTENING = 0.5;
+
+  private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final double LN2 = Math.log(2);
+
+  private final double falsePositiveRate;
+  private final long maxBytes;
+  private volatile Stage[] stages;
+  private volatile boolean saturated;     // add와 같은 스레드에서만 바꾼다
+
+  /**
+   * - initialCapacity : 첫 단계에 담을 키 수
+   * - falsePositiveRate : 전체 목표 오탐률 (0 ~ 1)
+   * - maxBytes : 비트 배열 전체의 최대 크기
+   */
+  ScalableBloomFilter(int initialCapacity, double falsePositiveRate, long maxBytes) {
+    if (initialCapacity <= 0) {
+      throw new IllegalArgumentException("첫 단계의 용량은 1 이상이어야 합니다 : " + initialCapacity);
+    }
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("오탐률은 0과 1 사이여야 합니다 : " + falsePositiveRate);
+    }
+    if (maxBytes < Long.BYTES) {
+      throw new IllegalArgumentException("메모리 한도는 " + Long.BYTES + " byte 이상이어야 합니다 : " + maxBytes);
+    }
+    this.falsePositiveRate = falsePositiveRate;
+    this.maxBytes = maxBytes;
+    Stage first = Stage.of(initialCapacity, stageFalsePositiveRate(0));
+    if (first.bytes() > maxBytes) {
+      first = Stage.within(initialCapacity, maxBytes);
+      saturated = true;
+    }
+    this.stages = new Stage[] {first};
+  }
+
+  /* key가 담겨 있을 수 있으면 true, 확실히 없으면 false */
+  boolean mightContain(int key) {
+    long hash = mix(key);
+    for (Stage stage : stages) {
+      if (stage.mightContain(hash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /* key를 담는다 (이미 담겨 있을 수 있는 키는 건너뛴다) */
+  void add(int key) {
+    long hash = mix(key);
+    Stage[] current = stages;
+    for (Stage stage : current) {
+      if (stage.mightContain(hash)) {
+        return;
+      }
+    }
+    Stage last = current[current.length - 1];
+    if (last.count >= last.capacity && !saturated) {
+      Stage next = Stage.of(Math.multiplyExact(last.capacity, GROWTH), stageFalsePositiveRate(current.length));
+      if (bytes() + next.bytes() <= maxBytes) {
+        Stage[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        stages = grown;
+        last = next;
+      } else {
+        saturated = true;
+      }
+    }
+    last.add(hash);
+  }
+
+  /* 메모리 한도 때문에 더 늘리지 못하고 마지막 단계에 목표보다 많이 담고 있으면 true */
+  boolean isSaturated() {
+    return saturated;
+  }
+
+  /* 담은 키 수 (이미 있다고 판정되어 건너뛴 키는 빠진다) */
+  long count() {
+    long count = 0;
+    for (Stage stage : stages) {
+      count += stage.count;
+    }
+    return count;
+  }
+
+  /* 비트 배열 전체의 크기 (byte) */
+  long bytes() {
+    long bytes = 0;
+    for (Stage stage : stages) {
+      bytes += stage.bytes();
+    }
+    return bytes;
+  }
+
+  /* 지금 담긴 수로 계산한 오탐률 (1 - 단계마다 오탐하지 않을 확률의 곱) */
+  double expectedFalsePositiveRate() {
+    double miss = 1;
+    for (Stage stage : stages) {
+      miss *= 1 - stage.expectedFalsePositiveRate();
+    }
+    return 1 - miss;
+  }
+
+  private double stageFalsePositiveRate(int stage) {
+    return falsePositiveRate * (1 - TIGHTENING) * Math.pow(TIGHTENING, stage);
+  }
+
+  /* 64bit로 고르게 섞는다 (murmur3 fmix64) */
+  private static long mix(int key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+    h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return h ^ (h >>> 33);
+  }
+
+  /* 고정 크기 Bloom filter 하나. 키마다 hash 두 개를 섞어(h1 + i × h2) hashCount개의 비트를 쓴다 */
+  private static final class Stage {
+    final long[] bits;
+    final long bitCount;
+    final int hashCount;
+    final int capacity;
+    int count;                      // add와 같은 스레드에서만 바꾼다
+
+    private Stage(long bitCount, int hashCount, int capacity) {
+      if (bitCount > (long) Integer.MAX_VALUE * Long.SIZE) {
+        throw new IllegalArgumentException("단계 하나의 크기가 너무 큽니다 : " + bitCount + " bit");
+      }
+      this.bits = new long[(int) (bitCount / Long.SIZE)];
+      this.bitCount = bitCount;
+      this.hashCount = hashCount;
+      this.capacity = capacity;
+    }
+
+    /* capacity개를 담았을 때 오탐률이 falsePositiveRate가 되는 크기 : m = -n ln p / (ln 2)², k = m / n × ln 2 */
+    static Stage of(int capacity, double falsePositiveRate) {
+      long bitCount = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+      return new Stage(roundToWords(bitCount), hashCount(bitCount, capacity), capacity);
+    }
+
+    /* maxBytes 안에서 가장 큰 크기 */
+    static Stage within(int capacity, long maxBytes) {
+      long bitCount = maxBytes / Long.BYTES * Long.SIZE;
+      return new Stage(bitCount, hashCount(bitCount, capacity), capacity);
+    }
+
+    long bytes() {
+      return (long) bits.length * Long.BYTES;
+    }
+
+    boolean mightContain(long hash) {
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < hashCount; i++) {
+        long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+        long word = (long) BITS.getAcquire(bits, (int) (index >>> 6));
+        if ((word & (1L << index)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void add(long hash) {
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < hashCount; i++) {
+        long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+        BITS.getAndBitwiseOrRelease(bits, (int) (index >>> 6), 1L << index);
+      }
+      count++;
+    }
+
+    double expectedFalsePositiveRate() {
+      return Math.pow(1 - Math.exp(-(double) hashCount * count / bitCount), hashCount);
+    }
+
+    private static long roundToWords(long bitCount) {
+      return Math.max(1, (bitCount + Long.SIZE - 1) / Long.SIZE) * Long.SIZE;
+    }
+
+    private static int hashCount(long bitCount, int capacity) {
+      return (int) Math.max(1, Math.min(16, Math.round((double) bitCount / capacity * LN2)));
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package com.mycompany.section01.autowired.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 읽기는 lock 없이 바뀌지 않는 스냅샷에서 하고, 쓰기는 모아서 새 스냅샷으로 한 번에 바꾸는 BookDAO (copy-on-write)
+ * - 스냅샷은 도서번호 순서로 정렬한 배열과 도서번호 → 위치 hash 표로, 한 번 만들면 바뀌지 않는다.
+ *   조회는 volatile 참조 하나를 읽은 뒤 그 스냅샷만 보므로, 쓰기가 진행 중이어도 기다리거나 중간 상태를 보지 않는다.
+ * - 쓰기는 대기열에 넣고, lock을 잡은 스레드가 그때까지 쌓인 다른 스레드의 쓰기까지 모두 모아(flat combining)
+ *   새 스냅샷 하나로 만들어 publish한다. 스냅샷 복사 비용 O(도서 수)를 여러 쓰기가 나누어 낸다.
+ * - 스냅샷마다 version이 1씩 늘고, 쓰기 메서드는 자신의 변경이 반영된 version을 리턴한다.
+ * - 읽기가 쓰기보다 훨씬 많은 경우(예: 1000 : 1)를 위한 것이며, 쓰기가 잦으면 ConcurrentHashMap 기반이 낫다.
+ */
+public class SnapshotBookDAO implements BookDAO {
+
+  /**
+   * 특정 version의 도서 목록. 여러 번 조회해도 같은 상태를 본다.
+   */
+  public static final class Snapshot {
+    private final long version;
+    private final int[] sequences;      // 정렬됨
+    private final BookDTO[] books;      // sequences와 같은 순서
+    private final int[] table;          // open addressing : 위치 + 1 (0이면 빈 칸)
+
+    private Snapshot(long version, int[] sequences, BookDTO[] books) {
+      this.version = version;
+      this.sequences = sequences;
+      this.books = books;
+      int capacity = Integer.highestOneBit(Math.max(8, sequences.length * 2) - 1) << 1;
+      this.table = new int[capacity];
+      int mask = capacity - 1;
+      for (int position = 0; position < sequences.length; position++) {
+        int i = hash(sequences[position]) & mask;
+        while (table[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        table[i] = position + 1;
+      }
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    public int size() {
+      return books.length;
+    }
+
+    /* 도서번호의 도서. 없으면 null */
+    public BookDTO get(int sequence) {
+      int mask = table.length - 1;
+      for (int i = hash(sequence) & mask; table[i] != 0; i = (i + 1) & mask) {
+        int position = table[i] - 1;
+        if (sequences[position] == sequence) {
+          return books[position];
+        }
+      }
+      return null;
+    }
+
+    /* after보다 큰 첫 도서의 위치 */
+    private int positionAfter(int after) {
+      int position = Arrays.binarySearch(sequences, after);
+      return position < 0 ? -position - 1 : position + 1;
+    }
+  }
+
+  /* 한 번의 쓰기 요청 : 도서번호 → 도서 (null이면 삭제) */
+  private static final class WriteRequest {
+    final Map<Integer, BookDTO> changes;
+    long version;                   // 반영된 version. 0이면 아직 반영되지 않음 (lock 안에서만 접근)
+
+    WriteRequest(Map<Integer, BookDTO> changes) {
+      this.changes = changes;
+    }
+  }
+
+  private final ConcurrentLinkedQueue<WriteRequest> pending = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile Snapshot snapshot;
+
+  public SnapshotBookDAO() {
+    this(List.of());
+  }
+
+  /* 주어진 도서로 채운 DAO (같은 도서번호는 나중 것이 남는다) */
+  public SnapshotBookDAO(Collection<BookDTO> books) {
+    TreeMap<Integer, BookDTO> sorted = new TreeMap<>();
+    for (BookDTO book : books) {
+      sorted.put(book.getSequence(), book);
+    }
+    int[] sequences = new int[sorted.size()];
+    BookDTO[] values = new BookDTO[sorted.size()];
+    int position = 0;
+    for (Map.Entry<Integer, BookDTO> entry : sorted.entrySet()) {
+      sequences[position] = entry.getKey();
+      values[position++] = entry.getValue();
+    }
+    this.snapshot = new Snapshot(1, sequences, values);
+  }
+
+  /* 지금 스냅샷. 여러 번 조회할 때 같은 version을 보려면 이 스냅샷으로 조회한다 */
+  public Snapshot snapshot() {
+    return snapshot;
+  }
+
+  /* 기존 호환용 : 전체 목록을 새 List로 복사한다 */
+  @Override
+  public List<BookDTO> selectBookList() {
+    return new ArrayList<>(Arrays.asList(snapshot.books));
+  }
+
+  @Override
+  public BookDTO selectOneBook(int sequence) {
+    return snapshot.get(sequence);
+  }
+
+  /* 호출한 때의 스냅샷 배열을 그대로 순회한다 (복사 없음, 이후의 쓰기는 보이지 않는다) */
+  @Override
+  public Stream<BookDTO> streamBookList(String continuationToken) {
+    Snapshot current = snapshot;
+    int from = continuationToken == null ? 0 : current.positionAfter(BookPage.decode(continuationToken));
+    return Arrays.stream(current.books, from, current.books.length);
+  }
+
+  /* 도서를 추가하거나 바꾼다. 반영된 스냅샷 version을 리턴 */
+  public long insertBook(BookDTO book) {
+    Map<Integer, BookDTO> changes = new TreeMap<>();
+    changes.put(book.getSequence(), book);
+    return write(changes);
+  }
+
+  /* 도서를 지운다. 반영된 스냅샷 version을 리턴 */
+  public long deleteBook(int sequence) {
+    Map<Integer, BookDTO> changes = new TreeMap<>();
+    changes.put(sequence, null);
+    return write(changes);
+  }
+
+  /**
+   * 여러 도서의 추가/삭제를 한 스냅샷으로 반영한다. (다른 스레드가 읽는 중에 일부만 보이지 않는다)
+   * - inserts : 추가하거나 바꿀 도서, deleteSequences : 지울 도서번호 (같은 도서번호가 둘 다 있으면 삭제)
+   */
+  public long writeBatch(Collection<BookDTO> inserts, int... deleteSequences) {
+    Map<Integer, BookDTO> changes = new TreeMap<>();
+    for (BookDTO book : inserts) {
+      changes.put(book.getSequence(), book);
+    }
+    for (int sequence : deleteSequences) {
+      changes.put(sequence, null);
+    }
+    return write(changes);
+  }
+
+  private long write(Map<Integer, BookDTO> changes) {
+    WriteRequest request = new WriteRequest(changes);
+    pending.add(request);
+    writeLock.lock();
+    try {
+      if (request.version == 0) {
+        publishPending();      // 앞선 스레드가 이미 반영했으면 건너뛴다
+      }
+      return request.version;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /* 대기열의 쓰기를 모두 모아 새 스냅샷 하나로 publish한다 (writeLock 안에서 호출) */
+  private void publishPending() {
+    TreeMap<Integer, BookDTO> merged = new TreeMap<>();
+    List<WriteRequest> requests = new ArrayList<>();
+    for (WriteRequest request = pending.poll(); request != null; request = pending.poll()) {
+      merged.putAll(request.changes);     // 나중에 들어온 쓰기가 이긴다
+      requests.add(request);
+    }
+    Snapshot current = snapshot;
+    Snapshot next = merge(current, merged);
+    snapshot = next;
+    for (WriteRequest request : requests) {
+      request.version = next.version;
+    }
+  }
+
+  /* 정렬된 스냅샷 배열과 정렬된 변경 목록을 합쳐 새 스냅샷을 만든다 */
+  private static Snapshot merge(Snapshot current, TreeMap<Integer, BookDTO> changes) {
+    int capacity = current.sequences.length + changes.size();
+    int[] sequences = new int[capacity];
+    BookDTO[] books = new BookDTO[capacity];
+    int size = 0;
+    int position = 0;
+    for (Map.Entry<Integer, BookDTO> change : changes.entrySet()) {
+      int sequence = change.getKey();
+      int found = Arrays.binarySearch(current.sequences, position, current.sequences.length, sequence);
+      int until = found >= 0 ? found : -found - 1;
+      System.arraycopy(current.sequences, position, sequences, size, until - position);
+      System.arraycopy(current.books, position, books, size, until - position);
+      size += until - position;
+      position = found >= 0 ? found + 1 : until;      // 바뀌거나 지워지는 도서는 옮기지 않는다
+      if (change.getValue() != null) {
+        sequences[size] = sequence;
+        books[size++] = change.getValue();
+      }
+    }
+    int rest = current.sequences.length - position;
+    System.arraycopy(current.sequences, position, sequences, size, rest);
+    System.arraycopy(current.books, position, books, size, rest);
+    size += rest;
+    if (size < capacity) {
+      sequences = Arrays.copyOf(sequences, size);
+      books = Arrays.copyOf(books, size);
+    }
+    return new Snapshot(current.version + 1, sequences, books);
+  }
+
+  private static int hash(int sequence) {
+    int h = sequence * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,22 @@
+package com.mycompany.section01.autowired.subsection04.async;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+public class Application {
+  public static void main(String[] args) {
+    /* 컨텍스트를 닫을 때 asyncBookDAO의 executor도 함께 종료되도록 try-with-resources로 사용한다. */
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext("com.mycompany.section01")) {
+
+      BookService bookService = context.getBean("bookServiceAsync", BookService.class);
+
+      /* 전체 도서 목록 조회 후 출력 확인 */
+      bookService.selectAllBooks().join().forEach(System.out::println);
+
+      /* 도서번호로 검색 후 출력 확인 */
+      System.out.println(bookService.searchBookBySequence(1).join());
+
+      /* 여러 도서번호를 동시에 조회 (3번 도서는 없으므로 빠진다) */
+      bookService.searchBooksBySequences(2, 3, 1).join().forEach(System.out::println);
+    }
+  }
+}
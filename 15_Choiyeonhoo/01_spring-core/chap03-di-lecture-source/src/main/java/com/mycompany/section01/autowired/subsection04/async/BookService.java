@@ -0,0 +1,50 @@
+package com.mycompany.section01.autowired.subsection04.async;
+
+import com.mycompany.section01.autowired.common.AsyncBookDAO;
+import com.mycompany.section01.autowired.common.BookDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/* 조회를 기다리지 않고 CompletableFuture로 돌려주는 Service
+ *   여러 도서를 찾을 때 한 권씩 차례로 기다리지 않고 동시에 조회한다. (fan-out)
+ * */
+@Service("bookServiceAsync")
+public class BookService {
+
+  private final AsyncBookDAO asyncBookDAO;
+
+  /* AsyncBookDAO 타입의 빈 객체를 생성자에 자동으로 주입해준다. */
+  @Autowired
+  public BookService(AsyncBookDAO asyncBookDAO) {
+    this.asyncBookDAO = asyncBookDAO;
+  }
+
+  public CompletableFuture<List<BookDTO>> selectAllBooks() {
+
+    return asyncBookDAO.selectBookList();
+  }
+
+  public CompletableFuture<BookDTO> searchBookBySequence(int sequence) {
+
+    return asyncBookDAO.selectOneBook(sequence);
+  }
+
+  /* 여러 도서번호를 동시에 조회한다. 모두 끝나면 요청한 순서대로 완료되며, 없는 도서는 빠진다.
+   *   하나라도 예외로 끝나면 결과도 그 예외로 완료된다.
+   * */
+  public CompletableFuture<List<BookDTO>> searchBooksBySequences(int... sequences) {
+
+    List<CompletableFuture<BookDTO>> lookups = new ArrayList<>(sequences.length);
+    for (int sequence : sequences) {
+      lookups.add(asyncBookDAO.selectOneBook(sequence));
+    }
+    return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0]))
+        .thenApply(done -> lookups.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList());
+  }
+
+}